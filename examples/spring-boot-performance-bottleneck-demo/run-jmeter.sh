@@ -17,6 +17,10 @@ TEST_PLAN="$PROJECT_DIR/src/test/resources/jmeter/load-test.jmx"
 RESULTS_FILE="$PROJECT_DIR/target/jmeter-results.jtl"
 REPORT_DIR="$PROJECT_DIR/target/jmeter-report"
 LOG_FILE="$PROJECT_DIR/jmeter.log"
+ALLOCATION_FILE="$PROJECT_DIR/target/allocation-rate.txt"
+
+# Micrometer counter of bytes allocated in the young generation, exposed by the actuator
+ALLOCATION_METRIC_URL=${ALLOCATION_METRIC_URL:-http://localhost:8080/actuator/metrics/jvm.gc.memory.allocated}
 
 # Colors for output
 RED='\033[0;31m'
@@ -66,6 +70,7 @@ show_usage() {
     echo "  JMETER_LOOPS          Override default number of loops"
     echo "  JMETER_THREADS        Override default number of threads"  
     echo "  JMETER_RAMP_UP        Override default ramp-up period"
+    echo "  ALLOCATION_METRIC_URL Actuator metric read before and after the run to report the allocation rate"
     echo ""
     echo "EXAMPLES:"
     echo "  $0                              # Run with defaults (1000 loops, 1 thread, 1s ramp-up)"
@@ -77,6 +82,7 @@ show_usage() {
     echo "OUTPUT FILES:"
     echo "  target/jmeter-results.jtl       # Raw test results (JTL format)"
     echo "  target/jmeter-report/index.html # HTML dashboard report"
+    echo "  target/allocation-rate.txt      # Bytes the application allocated during the run, and the rate"
     echo "  jmeter.log                      # JMeter execution log"
     echo ""
     echo "REQUIREMENTS:"
@@ -159,6 +165,41 @@ clean_previous_results() {
     fi
 }
 
+# Function to read the application's allocated bytes so far (empty if the metric is not available)
+read_allocated_bytes() {
+    curl -fs "$ALLOCATION_METRIC_URL" 2>/dev/null | grep -o '"value":[0-9.eE+-]*' | head -n 1 | cut -d: -f2
+}
+
+# Function to remember the allocated bytes before the test
+start_allocation_measurement() {
+    ALLOCATED_BEFORE=$(read_allocated_bytes)
+    ALLOCATION_START=$(date +%s)
+    if [[ -z "$ALLOCATED_BEFORE" ]]; then
+        print_warning "Allocation rate not measured: $ALLOCATION_METRIC_URL is not reachable"
+    fi
+}
+
+# Function to report how much the application allocated during the test.
+# The counter advances at each young collection, so short runs with few GCs under-report.
+report_allocation_rate() {
+    if [[ -z "$ALLOCATED_BEFORE" ]]; then
+        return
+    fi
+    local allocated_after
+    allocated_after=$(read_allocated_bytes)
+    if [[ -z "$allocated_after" ]]; then
+        print_warning "Allocation rate not measured: $ALLOCATION_METRIC_URL stopped responding"
+        return
+    fi
+    local elapsed=$(( $(date +%s) - ALLOCATION_START ))
+    awk -v before="$ALLOCATED_BEFORE" -v after="$allocated_after" -v elapsed="$elapsed" -v samples="$TOTAL_SAMPLES" 'BEGIN {
+        mb = (after - before) / 1048576
+        printf "Allocated: %.1f MB in %d s\n", mb, elapsed
+        printf "Allocation rate: %.1f MB/s\n", (elapsed > 0 ? mb / elapsed : 0)
+        if (samples > 0) printf "Allocated per request: %.1f KB\n", (after - before) / 1024 / samples
+    }' | tee "$ALLOCATION_FILE"
+}
+
 # Function to run JMeter test in non-GUI mode
 run_jmeter_test() {
     print_info "Starting JMeter test..."
@@ -212,6 +253,8 @@ show_results() {
         TOTAL_SAMPLES=$(tail -n +2 "$RESULTS_FILE" | wc -l)
         print_info "Total samples: $TOTAL_SAMPLES"
     fi
+
+    report_allocation_rate
     
     # Try to open the HTML report
     if command -v open &> /dev/null; then
@@ -241,6 +284,7 @@ main() {
         # Non-GUI mode - run automated test and generate report
         create_target_dir
         clean_previous_results
+        start_allocation_measurement
         run_jmeter_test
         show_results
         print_success "JMeter load test completed successfully!"
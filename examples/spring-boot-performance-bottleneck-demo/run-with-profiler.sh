@@ -231,9 +231,10 @@ JVM_FLAGS=(
     "-XX:+DebugNonSafepoints"
     "-XX:+PreserveFramePointer"
     
-    # JFR settings (useful for some profiling modes)
+    # JFR settings (useful for some profiling modes); the profile settings sample allocations more often,
+    # inspect them with: jfr view allocation-by-site flight-recording-${TIMESTAMP}.jfr
     "-XX:+FlightRecorder"
-    "-XX:StartFlightRecording=filename=flight-recording-${TIMESTAMP}.jfr"
+    "-XX:StartFlightRecording=filename=flight-recording-${TIMESTAMP}.jfr,settings=profile"
     
     # GC logging for memory leak analysis
     "-Xlog:gc*:gc-${TIMESTAMP}.log:time,tags"
@@ -0,0 +1,106 @@
+package info.jab.info;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Each search endpoint in its bad (nested loops, per-user lower-casing) and good (indexed,
+ * pre-lower-cased) version, called directly on the controller without HTTP.
+ *
+ * The bad searches are the unchanged {@code /bad/*} endpoints, not optimized versions of them.
+ * Run with the GC profiler to compare bytes allocated per search ({@code gc.alloc.rate.norm}).
+ * The bad team formation is cubic, so keep {@code users} small when running the bad searches.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 2, jvmArgs = {"-Xms1G", "-Xmx1G"})
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class SearchControllerBenchmark {
+
+    @Param({"1000"})
+    private int users;
+
+    private SearchController controller;
+
+    @Setup
+    public void setup() {
+        controller = new SearchController(new UserSearchService(UserDataSettings.defaults().withSize(users)));
+    }
+
+    @Benchmark
+    public SearchResult badUsersWithColleagues() {
+        return controller.findUsersWithColleagues("Engineering");
+    }
+
+    @Benchmark
+    public SearchResult goodUsersWithColleagues() {
+        return controller.findUsersWithColleaguesIndexed("Engineering");
+    }
+
+    @Benchmark
+    public SearchResult badActiveUsersWithPermissions() {
+        return controller.findActiveUsersWithPermissions("Developer");
+    }
+
+    @Benchmark
+    public SearchResult goodActiveUsersWithPermissions() {
+        return controller.findActiveUsersWithPermissionsIndexed("Developer");
+    }
+
+    @Benchmark
+    public SearchResult badSimilarUsers() {
+        return controller.findSimilarUsers("Alice");
+    }
+
+    @Benchmark
+    public SearchResult goodSimilarUsers() {
+        return controller.findSimilarUsersIndexed("Alice");
+    }
+
+    @Benchmark
+    public SearchResult badTeamFormation() {
+        return controller.findTeamFormation("Engineering");
+    }
+
+    @Benchmark
+    public SearchResult goodTeamFormation() {
+        return controller.findTeamFormationIndexed("Engineering");
+    }
+
+    @Benchmark
+    public TeamPage goodTeams() {
+        return controller.findTeams("Engineering", 10, 50);
+    }
+
+    /**
+     * Main method to run every search with allocation profiling and JSON output configuration
+     */
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(SearchControllerBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-search-controller-benchmark-results.json")
+                .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,74 @@
+package info.jab.info;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Department lookups with each {@code demo.users.storage} mode: posting lists over
+ * {@link User} objects against scans over int code columns on and off the heap.
+ *
+ * Twenty departments with a Zipf skew of 1, so Engineering holds about a quarter of the users and
+ * Department 19 about 1.4%.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 2, jvmArgs = {"-Xms4G", "-Xmx4G"})
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class UserStorageBenchmark {
+
+    // A name of UserDataSettings.Storage, which is package-private and so cannot be the parameter type
+    @Param({"OBJECTS", "COLUMNS", "OFF_HEAP"})
+    private String storage;
+
+    @Param({"1000000"})
+    private int users;
+
+    @Param({"Engineering", "Department 19"})
+    private String department;
+
+    private UserSearchService service;
+
+    @Setup
+    public void setup() {
+        service = new UserSearchService(new UserDataSettings(users, 20, 5, 1.0, 42, 0.9,
+            UserDataSettings.Storage.valueOf(storage)));
+    }
+
+    @Benchmark
+    public List<User> usersByDepartment() {
+        return service.getUsersByDepartment(department);
+    }
+
+    /**
+     * Main method to run every lookup with allocation profiling and JSON output configuration
+     */
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(UserStorageBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-user-storage-benchmark-results.json")
+                .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,211 @@
+package info.jab.info;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.stream.IntStream;
+
+/**
+ * Users stored column by column rather than as {@link User} objects: a long id, a name code, a
+ * department and a role code into small dictionaries, the last login as UTC epoch seconds and
+ * one bit for {@code active}. {@link UserColumns} keeps the columns in primitive arrays on the
+ * heap, {@link OffHeapUserColumns} in native memory.
+ *
+ * Department lookups run as a loop over the int department code column: the name asked for is
+ * resolved to a mask of dictionary codes once, and each user then costs one array (or segment)
+ * read and one mask lookup, with no object, string or hash per user. Only the users found are
+ * created as {@link User} objects.
+ *
+ * Generated names and emails are not stored; they are derived from the name code and the id, the
+ * way the generator builds them, and {@link UserKeywords} derives their lower-cased forms the same
+ * way instead of keeping a String per user. A user added later is appended to every column, and is also
+ * kept as given in {@link Dictionaries#added()}, since its name, email and sub-second login time
+ * have no column.
+ *
+ * Immutable, like {@link UserIndex}: {@link #with(int, User)} copies the columns with one more
+ * user, O(n) paid by the writer.
+ */
+abstract sealed class ColumnarUsers implements UserLookup permits UserColumns, OffHeapUserColumns {
+
+    private static final String EMAIL_DOMAIN = "@company.com";
+
+    private final Dictionaries dictionaries;
+
+    ColumnarUsers(Dictionaries dictionaries) {
+        this.dictionaries = dictionaries;
+    }
+
+    /**
+     * The dictionaries the code columns index into. A name code {@code c >= 0} is the generated
+     * name {@code names[c]} followed by the id; a name code {@code -k - 1} is the added user {@code added[k]}.
+     */
+    record Dictionaries(List<String> names, List<String> lowerCaseNames, List<String> emailPrefixes,
+                        List<String> departments, List<String> roles, List<User> added) {
+
+        static Dictionaries of(List<String> names, List<String> departments, List<String> roles) {
+            List<String> lowerCaseNames = names.stream().map(name -> name.toLowerCase(Locale.ROOT)).toList();
+            List<String> emailPrefixes = lowerCaseNames.stream().map(name -> name.replace(" ", ".")).toList();
+            return new Dictionaries(names, lowerCaseNames, emailPrefixes, departments, roles, List.of());
+        }
+
+        // Copy-on-write: only the dictionaries that change are copied
+        Dictionaries with(User user) {
+            return new Dictionaries(names, lowerCaseNames, emailPrefixes, withEntry(departments, user.department()),
+                withEntry(roles, user.role()), appended(added, user));
+        }
+
+        private static List<String> withEntry(List<String> dictionary, String entry) {
+            return dictionary.contains(entry) ? dictionary : appended(dictionary, entry);
+        }
+    }
+
+    abstract int size();
+
+    abstract long id(int position);
+
+    abstract int nameCode(int position);
+
+    abstract int departmentCode(int position);
+
+    abstract int roleCode(int position);
+
+    abstract long lastLoginEpochSecond(int position);
+
+    abstract boolean active(int position);
+
+    // Positions of the users whose department code is set in the mask, in ascending order
+    abstract Postings select(boolean[] departmentMask);
+
+    // These columns with one more user at the end, coded against the given dictionaries
+    abstract ColumnarUsers append(Dictionaries dictionaries, long id, int nameCode, int departmentCode,
+                                  int roleCode, long lastLoginEpochSecond, boolean active);
+
+    Dictionaries dictionaries() {
+        return dictionaries;
+    }
+
+    List<String> departmentNames() {
+        return dictionaries.departments();
+    }
+
+    List<String> roleNames() {
+        return dictionaries.roles();
+    }
+
+    User user(int position) {
+        int name = nameCode(position);
+        if (name < 0) {
+            return dictionaries.added().get(-name - 1);
+        }
+        long id = id(position);
+        return new User(
+            id,
+            dictionaries.names().get(name) + " " + id,
+            dictionaries.emailPrefixes().get(name) + id + EMAIL_DOMAIN,
+            dictionaries.departments().get(departmentCode(position)),
+            dictionaries.roles().get(roleCode(position)),
+            LocalDateTime.ofEpochSecond(lastLoginEpochSecond(position), 0, ZoneOffset.UTC),
+            active(position));
+    }
+
+    /**
+     * Replaces the content of {@code into} with the lower-cased name of {@link #user(int)}, without
+     * creating the user or a String for a generated one.
+     */
+    StringBuilder lowerCaseName(int position, StringBuilder into) {
+        into.setLength(0);
+        int name = nameCode(position);
+        if (name < 0) {
+            return into.append(UserIndex.normalize(dictionaries.added().get(-name - 1).name()));
+        }
+        return into.append(dictionaries.lowerCaseNames().get(name)).append(' ').append(id(position));
+    }
+
+    /**
+     * Replaces the content of {@code into} with the lower-cased email of {@link #user(int)}, without
+     * creating the user or a String for a generated one.
+     */
+    StringBuilder lowerCaseEmail(int position, StringBuilder into) {
+        into.setLength(0);
+        int name = nameCode(position);
+        if (name < 0) {
+            return into.append(UserIndex.normalize(dictionaries.added().get(-name - 1).email()));
+        }
+        return into.append(dictionaries.emailPrefixes().get(name)).append(id(position)).append(EMAIL_DOMAIN);
+    }
+
+    /**
+     * @return every user as a {@link User}, created in parallel, in position order
+     */
+    List<User> toUsers() {
+        User[] users = new User[size()];
+        IntStream.range(0, users.length).parallel().forEach(position -> users[position] = user(position));
+        return List.of(users);
+    }
+
+    /**
+     * @return an immutable view creating each {@link User} when it is read, so the users are never all on the heap
+     */
+    List<User> asList() {
+        return new UserView(this);
+    }
+
+    @Override
+    public List<User> department(String department, List<User> users) {
+        String wanted = UserIndex.normalize(department);
+        List<String> departments = dictionaries.departments();
+        boolean[] mask = new boolean[departments.size()];
+        for (int code = 0; code < mask.length; code++) {
+            mask[code] = wanted.equals(UserIndex.normalize(departments.get(code)));
+        }
+        return select(mask).resolve(users);
+    }
+
+    @Override
+    public ColumnarUsers with(int position, User user) {
+        if (position != size()) {
+            throw new IllegalArgumentException("Users are appended at position " + size() + ", was: " + position);
+        }
+        Dictionaries next = dictionaries.with(user);
+        return append(
+            next,
+            Objects.requireNonNullElse(user.id(), -1L),
+            -next.added().size(),
+            next.departments().indexOf(user.department()),
+            next.roles().indexOf(user.role()),
+            Objects.isNull(user.lastLogin()) ? 0 : user.lastLogin().toEpochSecond(ZoneOffset.UTC),
+            user.active());
+    }
+
+    private static <T> List<T> appended(List<T> list, T element) {
+        List<T> next = new ArrayList<>(list.size() + 1);
+        next.addAll(list);
+        next.add(element);
+        return Collections.unmodifiableList(next);
+    }
+
+    private static final class UserView extends AbstractList<User> implements RandomAccess {
+
+        private final ColumnarUsers columns;
+
+        private UserView(ColumnarUsers columns) {
+            this.columns = columns;
+        }
+
+        @Override
+        public User get(int index) {
+            return columns.user(index);
+        }
+
+        @Override
+        public int size() {
+            return columns.size();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package info.jab.info;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+/**
+ * Users stored column by column in native memory, one {@link MemorySegment} per column, so the
+ * columns add nothing to the heap the garbage collector traces and copies. A million users take
+ * about 28 MB outside the heap and a few objects on it.
+ *
+ * The segments belong to the arena they were allocated from, and so do the copies made when a
+ * user is appended: with {@link Arena#ofAuto()} each set of segments is freed once the columns
+ * holding it are unreachable.
+ */
+final class OffHeapUserColumns extends ColumnarUsers {
+
+    private final Arena arena;
+    private final int size;
+    private final MemorySegment ids;
+    private final MemorySegment nameCodes;
+    private final MemorySegment departmentCodes;
+    private final MemorySegment roleCodes;
+    private final MemorySegment lastLogins;
+    private final MemorySegment activeWords;
+
+    OffHeapUserColumns(Arena arena, Dictionaries dictionaries, long[] ids, int[] nameCodes, int[] departmentCodes,
+                       int[] roleCodes, long[] lastLogins, long[] activeWords) {
+        this(arena, dictionaries, ids.length,
+            copy(arena, ids, ValueLayout.JAVA_LONG, ids.length),
+            copy(arena, nameCodes, ValueLayout.JAVA_INT, nameCodes.length),
+            copy(arena, departmentCodes, ValueLayout.JAVA_INT, departmentCodes.length),
+            copy(arena, roleCodes, ValueLayout.JAVA_INT, roleCodes.length),
+            copy(arena, lastLogins, ValueLayout.JAVA_LONG, lastLogins.length),
+            copy(arena, activeWords, ValueLayout.JAVA_LONG, activeWords.length));
+    }
+
+    private OffHeapUserColumns(Arena arena, Dictionaries dictionaries, int size, MemorySegment ids,
+                               MemorySegment nameCodes, MemorySegment departmentCodes, MemorySegment roleCodes,
+                               MemorySegment lastLogins, MemorySegment activeWords) {
+        super(dictionaries);
+        this.arena = arena;
+        this.size = size;
+        this.ids = ids;
+        this.nameCodes = nameCodes;
+        this.departmentCodes = departmentCodes;
+        this.roleCodes = roleCodes;
+        this.lastLogins = lastLogins;
+        this.activeWords = activeWords;
+    }
+
+    private static MemorySegment copy(Arena arena, Object array, ValueLayout layout, int length) {
+        MemorySegment segment = arena.allocate(layout.byteSize() * length, layout.byteAlignment());
+        MemorySegment.copy(array, 0, segment, layout, 0, length);
+        return segment;
+    }
+
+    // A new segment of length elements starting with the content of column
+    private MemorySegment grow(MemorySegment column, ValueLayout layout, long length) {
+        MemorySegment segment = arena.allocate(layout.byteSize() * length, layout.byteAlignment());
+        MemorySegment.copy(column, 0, segment, 0, column.byteSize());
+        return segment;
+    }
+
+    @Override
+    int size() {
+        return size;
+    }
+
+    @Override
+    long id(int position) {
+        return ids.getAtIndex(ValueLayout.JAVA_LONG, position);
+    }
+
+    @Override
+    int nameCode(int position) {
+        return nameCodes.getAtIndex(ValueLayout.JAVA_INT, position);
+    }
+
+    @Override
+    int departmentCode(int position) {
+        return departmentCodes.getAtIndex(ValueLayout.JAVA_INT, position);
+    }
+
+    @Override
+    int roleCode(int position) {
+        return roleCodes.getAtIndex(ValueLayout.JAVA_INT, position);
+    }
+
+    @Override
+    long lastLoginEpochSecond(int position) {
+        return lastLogins.getAtIndex(ValueLayout.JAVA_LONG, position);
+    }
+
+    // BitSet.toLongArray trims trailing zero words, so positions past the last word are inactive
+    @Override
+    boolean active(int position) {
+        int word = position >>> 6;
+        return word < activeWords.byteSize() / Long.BYTES
+            && (activeWords.getAtIndex(ValueLayout.JAVA_LONG, word) & (1L << position)) != 0;
+    }
+
+    @Override
+    Postings select(boolean[] departmentMask) {
+        Postings result = new Postings();
+        for (int position = 0; position < size; position++) {
+            if (departmentMask[departmentCodes.getAtIndex(ValueLayout.JAVA_INT, position)]) {
+                result.add(position);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    OffHeapUserColumns append(Dictionaries dictionaries, long id, int nameCode, int departmentCode, int roleCode,
+                              long lastLoginEpochSecond, boolean active) {
+        int position = size;
+        MemorySegment nextIds = grow(ids, ValueLayout.JAVA_LONG, position + 1);
+        MemorySegment nextNameCodes = grow(nameCodes, ValueLayout.JAVA_INT, position + 1);
+        MemorySegment nextDepartmentCodes = grow(departmentCodes, ValueLayout.JAVA_INT, position + 1);
+        MemorySegment nextRoleCodes = grow(roleCodes, ValueLayout.JAVA_INT, position + 1);
+        MemorySegment nextLastLogins = grow(lastLogins, ValueLayout.JAVA_LONG, position + 1);
+        long words = Math.max(activeWords.byteSize() / Long.BYTES, (position >>> 6) + 1);
+        MemorySegment nextActiveWords = grow(activeWords, ValueLayout.JAVA_LONG, words);
+        nextIds.setAtIndex(ValueLayout.JAVA_LONG, position, id);
+        nextNameCodes.setAtIndex(ValueLayout.JAVA_INT, position, nameCode);
+        nextDepartmentCodes.setAtIndex(ValueLayout.JAVA_INT, position, departmentCode);
+        nextRoleCodes.setAtIndex(ValueLayout.JAVA_INT, position, roleCode);
+        nextLastLogins.setAtIndex(ValueLayout.JAVA_LONG, position, lastLoginEpochSecond);
+        if (active) {
+            int word = position >>> 6;
+            nextActiveWords.setAtIndex(ValueLayout.JAVA_LONG, word,
+                nextActiveWords.getAtIndex(ValueLayout.JAVA_LONG, word) | (1L << position));
+        }
+        return new OffHeapUserColumns(arena, dictionaries, position + 1, nextIds, nextNameCodes, nextDepartmentCodes,
+            nextRoleCodes, nextLastLogins, nextActiveWords);
+    }
+}
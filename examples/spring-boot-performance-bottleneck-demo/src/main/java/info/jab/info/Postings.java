@@ -0,0 +1,109 @@
+package info.jab.info;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Growable, ascending array of distinct user positions, the posting list of an index key.
+ *
+ * Only appended to while the index owning it is built; once the index is published, a change
+ * copies the posting list first (see {@link #copy()}).
+ */
+final class Postings {
+
+    private int[] positions;
+    private int size;
+
+    Postings() {
+        this(new int[8], 0);
+    }
+
+    private Postings(int[] positions, int size) {
+        this.positions = positions;
+        this.size = size;
+    }
+
+    // Adding the last position again is a no-op, so a user is listed once however often a key occurs in it
+    void add(int position) {
+        if (size > 0 && positions[size - 1] == position) {
+            return;
+        }
+        if (size == positions.length) {
+            positions = Arrays.copyOf(positions, size * 2);
+        }
+        positions[size++] = position;
+    }
+
+    // Copy with room for one more position
+    Postings copy() {
+        return new Postings(Arrays.copyOf(positions, size + 1), size);
+    }
+
+    // Drops the spare capacity left by doubling
+    void trim() {
+        if (positions.length > size) {
+            positions = Arrays.copyOf(positions, size);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    int get(int index) {
+        return positions[index];
+    }
+
+    List<User> resolve(List<User> users) {
+        List<User> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(users.get(positions[i]));
+        }
+        return result;
+    }
+
+    /**
+     * Positions present in every posting list, by walking the shortest one and galloping through
+     * the others, so the cost follows the shortest list rather than the longest.
+     */
+    static int[] intersect(List<Postings> postings) {
+        List<Postings> ordered = postings.stream()
+            .sorted((left, right) -> Integer.compare(left.size, right.size))
+            .toList();
+        Postings shortest = ordered.get(0);
+        int[] result = new int[shortest.size];
+        int[] cursors = new int[ordered.size()];
+        int count = 0;
+        candidates:
+        for (int i = 0; i < shortest.size; i++) {
+            int position = shortest.positions[i];
+            for (int list = 1; list < ordered.size(); list++) {
+                Postings other = ordered.get(list);
+                cursors[list] = other.seek(position, cursors[list]);
+                if (cursors[list] == other.size) {
+                    break candidates;
+                }
+                if (other.positions[cursors[list]] != position) {
+                    continue candidates;
+                }
+            }
+            result[count++] = position;
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    // Index of the first position >= target, starting at from: doubling steps, then a binary search
+    int seek(int target, int from) {
+        int step = 1;
+        int low = from;
+        int high = from;
+        while (high < size && positions[high] < target) {
+            low = high + 1;
+            high += step;
+            step <<= 1;
+        }
+        int index = Arrays.binarySearch(positions, low, Math.min(high + 1, size), target);
+        return index >= 0 ? index : -index - 1;
+    }
+}
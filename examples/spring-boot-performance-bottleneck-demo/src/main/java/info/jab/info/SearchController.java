@@ -1,8 +1,12 @@
 package info.jab.info;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import org.springframework.beans.factory.annotation.Autowired;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -12,8 +16,14 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/api/search")
 public class SearchController {
 
-    @Autowired
-    private UserSearchService userSearchService;
+    static final int MAX_PAGE_SIZE = 500;
+    static final long MAX_TEAMS = 100_000;
+
+    private final UserSearchService userSearchService;
+
+    public SearchController(UserSearchService userSearchService) {
+        this.userSearchService = userSearchService;
+    }
 
     // BAD: O(n²) - Nested loops for finding users with matching criteria
     @GetMapping("/bad/users-with-colleagues")
@@ -53,7 +63,8 @@ public class SearchController {
         return new SearchResult(result, endTime - startTime, "O(n²) Nested Loops", comparisons);
     }
 
-    // BAD: O(n²) - Cross-referencing two lists inefficiently
+    // BAD: O(n²) - Cross-referencing two lists inefficiently.
+    // Kept as the baseline: lower-cases the role and the query per comparison; see the good endpoint
     @GetMapping("/bad/active-users-with-permissions")
     public SearchResult findActiveUsersWithPermissions(@RequestParam String role) {
         long startTime = System.currentTimeMillis();
@@ -82,7 +93,8 @@ public class SearchController {
         return new SearchResult(result, endTime - startTime, "O(n²) Cross-Reference", comparisons);
     }
 
-    // BAD: O(n²) - Duplicate detection with nested loops
+    // BAD: O(n²) - Duplicate detection with nested loops.
+    // Kept as the baseline: lower-cases the keyword, name and email per user; UserKeywords matches without allocating
     @GetMapping("/bad/similar-users")
     public SearchResult findSimilarUsers(@RequestParam String keyword) {
         long startTime = System.currentTimeMillis();
@@ -170,4 +182,116 @@ public class SearchController {
         long endTime = System.currentTimeMillis();
         return new SearchResult(result, endTime - startTime, "O(n³) Triple Nested", comparisons);
     }
+
+    // GOOD: O(k) - Department index lookup, then counting colleagues per department
+    @GetMapping("/good/users-with-colleagues")
+    public SearchResult findUsersWithColleaguesIndexed(@RequestParam String department) {
+        long startTime = System.currentTimeMillis();
+
+        List<User> departmentUsers = userSearchService.getUsersByDepartment(department);
+        List<User> result = new ArrayList<>();
+        int comparisons = 0;
+
+        // A user has a colleague when another user shares the exact department name
+        Map<String, Integer> departmentSizes = new HashMap<>();
+        for (User user : departmentUsers) {
+            comparisons++;
+            departmentSizes.merge(user.department(), 1, Integer::sum);
+        }
+
+        for (User user : departmentUsers) {
+            comparisons++;
+            if (departmentSizes.get(user.department()) > 1) {
+                result.add(user);
+            }
+        }
+
+        long endTime = System.currentTimeMillis();
+        return new SearchResult(result, endTime - startTime, "O(k) Department Index", comparisons);
+    }
+
+    // GOOD: O(n/64) - Match the query against the few distinct roles, then AND the active bitmap with their OR
+    @GetMapping("/good/active-users-with-permissions")
+    public SearchResult findActiveUsersWithPermissionsIndexed(@RequestParam String role) {
+        long startTime = System.currentTimeMillis();
+
+        String query = role.toLowerCase(Locale.ROOT);
+        Set<String> permittedRoles = new HashSet<>();
+        for (String permittedRole : userSearchService.getPermittedRoles()) {
+            permittedRoles.add(permittedRole.toLowerCase(Locale.ROOT));
+        }
+        List<UserFilter> matchingRoles = new ArrayList<>();
+        int comparisons = 0;
+
+        for (String candidate : userSearchService.getRoles()) {
+            comparisons++;
+            if (permittedRoles.contains(candidate) && candidate.contains(query)) {
+                matchingRoles.add(UserFilter.role(candidate));
+            }
+        }
+
+        List<User> result = userSearchService.getUsers(UserFilter.and(UserFilter.active(), UserFilter.or(matchingRoles)));
+
+        long endTime = System.currentTimeMillis();
+        return new SearchResult(result, endTime - startTime, "Bitmap AND/OR", comparisons);
+    }
+
+    // GOOD: Sub-linear - Trigram index narrows the keyword search to a few candidates, then one pass groups matches
+    @GetMapping("/good/similar-users")
+    public SearchResult findSimilarUsersIndexed(@RequestParam String keyword) {
+        long startTime = System.currentTimeMillis();
+
+        List<User> matchingUsers = userSearchService.getUsersByKeyword(keyword);
+        List<User> result = new ArrayList<>();
+        int comparisons = 0;
+
+        // A user is similar to another matching user with the same department and role
+        Map<String, Map<String, Integer>> groupSizes = new HashMap<>();
+        for (User user : matchingUsers) {
+            comparisons++;
+            groupSizes.computeIfAbsent(user.department(), key -> new HashMap<>()).merge(user.role(), 1, Integer::sum);
+        }
+
+        for (User user : matchingUsers) {
+            comparisons++;
+            if (groupSizes.get(user.department()).get(user.role()) > 1) {
+                result.add(user);
+            }
+        }
+
+        long endTime = System.currentTimeMillis();
+        return new SearchResult(result, endTime - startTime, "Trigram Index", comparisons);
+    }
+
+    // GOOD: O(k) - Group the department's users by role once; every manager shares the same developers and testers
+    @GetMapping("/good/team-formation")
+    public SearchResult findTeamFormationIndexed(@RequestParam String department) {
+        long startTime = System.currentTimeMillis();
+
+        TeamFormation teamFormation = new TeamFormation(userSearchService.getUsersByDepartment(department));
+        List<User> result = teamFormation.members();
+
+        long endTime = System.currentTimeMillis();
+        return new SearchResult(result, endTime - startTime, "O(k) Grouped Teams", teamFormation.scanned());
+    }
+
+    // GOOD: O(k + size) - The teams themselves, a page at a time, computed from the role groups without enumerating
+    // the teams before the page; paging stops at MAX_TEAMS however large the department
+    @GetMapping("/good/teams")
+    public TeamPage findTeams(@RequestParam String department,
+                              @RequestParam(defaultValue = "0") int page,
+                              @RequestParam(defaultValue = "50") int size) {
+        long startTime = System.currentTimeMillis();
+
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        long offset = (long) Math.max(0, page) * pageSize;
+        TeamFormation teamFormation = new TeamFormation(userSearchService.getUsersByDepartment(department));
+        long availableTeams = Math.min(teamFormation.teamCount(), MAX_TEAMS);
+        List<TeamFormation.Team> teams = offset < availableTeams
+            ? teamFormation.teams(offset, (int) Math.min(pageSize, availableTeams - offset))
+            : List.of();
+
+        long endTime = System.currentTimeMillis();
+        return new TeamPage(teams, Math.max(0, page), pageSize, availableTeams, endTime - startTime, "O(k) Grouped Teams, Paged");
+    }
 }
@@ -0,0 +1,127 @@
+package info.jab.info;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Teams of one manager, one developer and one tester of the same department, formed from the
+ * users of a department in a single pass.
+ *
+ * The users are grouped by department and role once; every manager then forms a team with each
+ * developer and tester of its department, so a department of M managers, D developers and T
+ * testers has M x D x T teams. Teams are never materialized as a whole: team number i is
+ * computed directly from the groups, in the order of the nested loops of
+ * {@link SearchController#findTeamFormation(String)} (by manager, then developer, then tester),
+ * so any page of teams costs O(page size) on top of the linear grouping.
+ *
+ * Roles match exactly and departments match by exact name, as in the nested loops.
+ */
+final class TeamFormation {
+
+    private final List<User> managers = new ArrayList<>();
+    private final Map<String, List<User>> developers = new HashMap<>();
+    private final Map<String, List<User>> testers = new HashMap<>();
+    private final long[] teamsBefore;
+    private final int scanned;
+
+    /**
+     * @param departmentUsers the users of one department, in position order, as returned by the department index
+     */
+    TeamFormation(List<User> departmentUsers) {
+        for (User user : departmentUsers) {
+            switch (user.role()) {
+                case "Manager" -> managers.add(user);
+                case "Developer" -> developers.computeIfAbsent(user.department(), key -> new ArrayList<>()).add(user);
+                case "Tester" -> testers.computeIfAbsent(user.department(), key -> new ArrayList<>()).add(user);
+                default -> { }
+            }
+        }
+        // teamsBefore[m] is the number of teams led by the managers before manager m
+        teamsBefore = new long[managers.size() + 1];
+        for (int m = 0; m < managers.size(); m++) {
+            User manager = managers.get(m);
+            teamsBefore[m + 1] = teamsBefore[m]
+                + (long) developersOf(manager).size() * testersOf(manager).size();
+        }
+        scanned = departmentUsers.size();
+    }
+
+    record Team(User manager, User developer, User tester) {
+    }
+
+    int scanned() {
+        return scanned;
+    }
+
+    long teamCount() {
+        return teamsBefore[managers.size()];
+    }
+
+    /**
+     * @return the teams numbered {@code offset} to {@code offset + limit - 1}, fewer at the end
+     */
+    List<Team> teams(long offset, int limit) {
+        List<Team> page = new ArrayList<>(limit);
+        long end = Math.min(teamCount(), offset + limit);
+        if (offset >= end) {
+            return page;
+        }
+        // First manager whose teams reach past offset
+        int index = Arrays.binarySearch(teamsBefore, offset);
+        int m = index >= 0 ? index : -index - 2;
+        while (teamsBefore[m + 1] <= offset) {
+            m++;
+        }
+        for (long team = offset; team < end; team++) {
+            while (teamsBefore[m + 1] <= team) {
+                m++;
+            }
+            User manager = managers.get(m);
+            List<User> teamTesters = testersOf(manager);
+            long withinManager = team - teamsBefore[m];
+            page.add(new Team(
+                manager,
+                developersOf(manager).get((int) (withinManager / teamTesters.size())),
+                teamTesters.get((int) (withinManager % teamTesters.size()))));
+        }
+        return page;
+    }
+
+    /**
+     * Every user in at least one team, in the order the nested loops first add them: the first manager of a
+     * department brings its first developer, all testers and then the other developers; later managers of
+     * that department only add themselves.
+     */
+    List<User> members() {
+        Set<User> members = new LinkedHashSet<>();
+        Set<String> staffedDepartments = new HashSet<>();
+        for (User manager : managers) {
+            List<User> teamDevelopers = developersOf(manager);
+            List<User> teamTesters = testersOf(manager);
+            if (teamDevelopers.isEmpty() || teamTesters.isEmpty()) {
+                continue;
+            }
+            members.add(manager);
+            if (staffedDepartments.add(manager.department())) {
+                members.add(teamDevelopers.get(0));
+                members.addAll(teamTesters);
+                members.addAll(teamDevelopers);
+            }
+        }
+        return new ArrayList<>(members);
+    }
+
+    private List<User> developersOf(User manager) {
+        return developers.getOrDefault(manager.department(), List.of());
+    }
+
+    private List<User> testersOf(User manager) {
+        return testers.getOrDefault(manager.department(), List.of());
+    }
+}
@@ -0,0 +1,13 @@
+package info.jab.info;
+
+import java.util.List;
+
+record TeamPage(
+    List<TeamFormation.Team> teams,
+    int page,
+    int size,
+    long totalTeams, // Teams that can be paged through, at most SearchController.MAX_TEAMS
+    long executionTimeMs,
+    String algorithm
+) {
+}
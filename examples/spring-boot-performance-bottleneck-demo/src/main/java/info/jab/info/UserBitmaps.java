@@ -0,0 +1,186 @@
+package info.jab.info;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * One bitmap of user positions per normalized (lower-cased) department and role, and one of the
+ * active users, so a {@link UserFilter} is answered by AND and OR over 64 users per machine word
+ * instead of by testing every user.
+ *
+ * Positions index into the user list the bitmaps were built from, and set bits are read in
+ * ascending order, so results come in the order of a scan over that list.
+ *
+ * Immutable, like {@link UserIndex}: evaluation works on copies, and {@link #with(int, User)}
+ * returns new bitmaps sharing all but the department, role and active bitmaps the user is added to.
+ */
+final class UserBitmaps {
+
+    private static final BitSet NONE = new BitSet();
+
+    private final int size;
+    private final Map<String, BitSet> byDepartment;
+    private final Map<String, BitSet> byRole;
+    private final BitSet active;
+
+    private UserBitmaps(int size, Map<String, BitSet> byDepartment, Map<String, BitSet> byRole, BitSet active) {
+        this.size = size;
+        this.byDepartment = byDepartment;
+        this.byRole = byRole;
+        this.active = active;
+    }
+
+    static UserBitmaps of(List<User> users) {
+        Map<String, BitSet> byDepartment = new HashMap<>();
+        Map<String, BitSet> byRole = new HashMap<>();
+        BitSet active = new BitSet(users.size());
+        for (int position = 0; position < users.size(); position++) {
+            User user = users.get(position);
+            byDepartment.computeIfAbsent(UserIndex.normalize(user.department()), key -> new BitSet()).set(position);
+            byRole.computeIfAbsent(UserIndex.normalize(user.role()), key -> new BitSet()).set(position);
+            active.set(position, user.active());
+        }
+        return new UserBitmaps(users.size(), byDepartment, byRole, active);
+    }
+
+    // From the code columns, without creating the users
+    static UserBitmaps of(ColumnarUsers columns) {
+        BitSet[] byDepartmentCode = new BitSet[columns.departmentNames().size()];
+        BitSet[] byRoleCode = new BitSet[columns.roleNames().size()];
+        BitSet active = new BitSet(columns.size());
+        for (int position = 0; position < columns.size(); position++) {
+            bitmap(byDepartmentCode, columns.departmentCode(position)).set(position);
+            bitmap(byRoleCode, columns.roleCode(position)).set(position);
+            active.set(position, columns.active(position));
+        }
+        return new UserBitmaps(columns.size(), byName(byDepartmentCode, columns.departmentNames()),
+            byName(byRoleCode, columns.roleNames()), active);
+    }
+
+    private static BitSet bitmap(BitSet[] byCode, int code) {
+        if (byCode[code] == null) {
+            byCode[code] = new BitSet();
+        }
+        return byCode[code];
+    }
+
+    // Only the codes some user has, so the keys are the values present, as when built from users
+    private static Map<String, BitSet> byName(BitSet[] byCode, List<String> names) {
+        Map<String, BitSet> byName = new HashMap<>();
+        for (int code = 0; code < byCode.length; code++) {
+            if (byCode[code] != null) {
+                byName.merge(UserIndex.normalize(names.get(code)), byCode[code], (left, right) -> {
+                    left.or(right);
+                    return left;
+                });
+            }
+        }
+        return byName;
+    }
+
+    UserBitmaps with(int position, User user) {
+        BitSet nextActive = active;
+        if (user.active()) {
+            nextActive = (BitSet) active.clone();
+            nextActive.set(position);
+        }
+        return new UserBitmaps(position + 1,
+            with(byDepartment, UserIndex.normalize(user.department()), position),
+            with(byRole, UserIndex.normalize(user.role()), position),
+            nextActive);
+    }
+
+    private static Map<String, BitSet> with(Map<String, BitSet> bitmaps, String key, int position) {
+        Map<String, BitSet> next = new HashMap<>(bitmaps);
+        BitSet bitmap = (BitSet) bitmaps.getOrDefault(key, NONE).clone();
+        bitmap.set(position);
+        next.put(key, bitmap);
+        return next;
+    }
+
+    // Lower-cased names of the roles users have
+    Set<String> roles() {
+        return Collections.unmodifiableSet(byRole.keySet());
+    }
+
+    // Users matching the filter, in position order
+    List<User> matching(UserFilter filter, List<User> users) {
+        BitSet matches = evaluate(filter);
+        List<User> result = new ArrayList<>(matches.cardinality());
+        for (PrimitiveIterator.OfInt positions = new SetBits(matches); positions.hasNext(); ) {
+            result.add(users.get(positions.nextInt()));
+        }
+        return result;
+    }
+
+    // A new bitmap the caller may modify
+    private BitSet evaluate(UserFilter filter) {
+        return switch (filter) {
+            case UserFilter.And and when and.operands().isEmpty() -> everyone();
+            case UserFilter.And and -> combine(and.operands(), BitSet::and);
+            case UserFilter.Or or when or.operands().isEmpty() -> new BitSet();
+            case UserFilter.Or or -> combine(or.operands(), BitSet::or);
+            default -> (BitSet) operand(filter).clone();
+        };
+    }
+
+    private BitSet combine(List<UserFilter> operands, BiConsumer<BitSet, BitSet> operation) {
+        BitSet result = evaluate(operands.get(0));
+        for (UserFilter operand : operands.subList(1, operands.size())) {
+            operation.accept(result, operand(operand));
+        }
+        return result;
+    }
+
+    // The stored bitmap of a department, role or active test, which must not be modified; a new one otherwise
+    private BitSet operand(UserFilter filter) {
+        return switch (filter) {
+            case UserFilter.Department(String name) -> byDepartment.getOrDefault(UserIndex.normalize(name), NONE);
+            case UserFilter.Role(String name) -> byRole.getOrDefault(UserIndex.normalize(name), NONE);
+            case UserFilter.Active() -> active;
+            case UserFilter.And and -> evaluate(and);
+            case UserFilter.Or or -> evaluate(or);
+        };
+    }
+
+    private BitSet everyone() {
+        BitSet everyone = new BitSet(size);
+        everyone.set(0, size);
+        return everyone;
+    }
+
+    // Walks the set bits with nextSetBit, skipping 64 unset positions per zero word
+    private static final class SetBits implements PrimitiveIterator.OfInt {
+
+        private final BitSet bits;
+        private int next;
+
+        private SetBits(BitSet bits) {
+            this.bits = bits;
+            this.next = bits.nextSetBit(0);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next >= 0;
+        }
+
+        @Override
+        public int nextInt() {
+            if (next < 0) {
+                throw new NoSuchElementException();
+            }
+            int current = next;
+            next = bits.nextSetBit(current + 1);
+            return current;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package info.jab.info;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Seeded generator of synthetic users, fast enough for millions of records.
+ *
+ * Users are generated in fixed-size chunks, in parallel. Each chunk draws from its own random
+ * generator seeded from the settings' seed and the chunk number, so the same settings produce
+ * the same users whatever the number of threads. Last logins are spread over the year before
+ * {@link #REFERENCE_TIME} instead of the current time for the same reason.
+ *
+ * The first five departments and roles are the ones the search endpoints expect (Engineering,
+ * Manager, Developer, Tester, ...); further ones are numbered.
+ */
+final class UserDataGenerator {
+
+    static final LocalDateTime REFERENCE_TIME = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private static final String[] NAMES = {"Alice Johnson", "Bob Smith", "Charlie Brown", "Diana Prince",
+                                           "Eve Wilson", "Frank Miller", "Grace Lee", "Henry Davis",
+                                           "Ivy Chen", "Jack Taylor", "Karen White", "Leo Martinez"};
+    private static final String[] DEPARTMENTS = {"Engineering", "Marketing", "Sales", "HR", "Finance"};
+    private static final String[] ROLES = {"Manager", "Developer", "Tester", "Analyst", "Coordinator"};
+
+    private static final long LAST_LOGIN_RANGE_SECONDS = 365L * 24 * 60 * 60;
+
+    // A multiple of 64, so that chunks never share a word of the active bitmap
+    private static final int CHUNK_SIZE = 1 << 16;
+
+    private final UserDataSettings settings;
+
+    UserDataGenerator(UserDataSettings settings) {
+        this.settings = settings;
+    }
+
+    /**
+     * @return the users, immutable and ordered by id (0 to size - 1)
+     */
+    List<User> generate() {
+        return generateColumns().toUsers();
+    }
+
+    /**
+     * @return the users in a columnar layout of primitive arrays, without creating a {@link User} per record
+     */
+    UserColumns generateColumns() {
+        int size = settings.size();
+        long[] ids = new long[size];
+        int[] nameCodes = new int[size];
+        int[] departmentCodes = new int[size];
+        int[] roleCodes = new int[size];
+        long[] lastLogins = new long[size];
+        long[] activeWords = new long[(size + 63) / 64];
+
+        double[] departmentWeights = cumulativeWeights(settings.departments());
+        double[] roleWeights = cumulativeWeights(settings.roles());
+        long referenceSecond = REFERENCE_TIME.toEpochSecond(ZoneOffset.UTC);
+        int chunks = (size + CHUNK_SIZE - 1) / CHUNK_SIZE;
+
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            SplittableRandom random = new SplittableRandom(settings.seed() ^ (chunk * 0x9E3779B97F4A7C15L));
+            int end = Math.min(size, (chunk + 1) * CHUNK_SIZE);
+            for (int i = chunk * CHUNK_SIZE; i < end; i++) {
+                ids[i] = i;
+                nameCodes[i] = random.nextInt(NAMES.length);
+                departmentCodes[i] = draw(departmentWeights, random);
+                roleCodes[i] = draw(roleWeights, random);
+                lastLogins[i] = referenceSecond - random.nextLong(LAST_LOGIN_RANGE_SECONDS);
+                if (random.nextDouble() < settings.activeRatio()) {
+                    activeWords[i >>> 6] |= 1L << i;
+                }
+            }
+        });
+
+        return new UserColumns(ids, nameCodes, departmentCodes, roleCodes, lastLogins, activeWords,
+            List.of(NAMES), dictionary(DEPARTMENTS, "Department ", settings.departments()),
+            dictionary(ROLES, "Role ", settings.roles()));
+    }
+
+    // Zipf weights 1 / rank^skew, accumulated and normalized to end at 1
+    private double[] cumulativeWeights(int count) {
+        double[] cumulative = new double[count];
+        double total = 0;
+        for (int rank = 0; rank < count; rank++) {
+            total += 1 / Math.pow(rank + 1, settings.skew());
+            cumulative[rank] = total;
+        }
+        for (int rank = 0; rank < count; rank++) {
+            cumulative[rank] /= total;
+        }
+        cumulative[count - 1] = 1;
+        return cumulative;
+    }
+
+    private static int draw(double[] cumulativeWeights, SplittableRandom random) {
+        int index = Arrays.binarySearch(cumulativeWeights, random.nextDouble());
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private static List<String> dictionary(String[] known, String prefix, int count) {
+        List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(i < known.length ? known[i] : prefix + (i + 1));
+        }
+        return List.copyOf(values);
+    }
+}
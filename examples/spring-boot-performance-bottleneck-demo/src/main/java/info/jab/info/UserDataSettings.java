@@ -0,0 +1,68 @@
+package info.jab.info;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Shape of the synthetic users the demo searches, bound from the {@code demo.users.*} properties.
+ *
+ * @param size number of users
+ * @param departments number of distinct departments
+ * @param roles number of distinct roles
+ * @param skew Zipf exponent of the department and role distributions; 0 spreads users evenly,
+ *             larger values crowd them into the first departments and roles
+ * @param seed seed of the generator; the same settings always produce the same users
+ * @param activeRatio share of active users
+ * @param storage how {@link UserSearchService} keeps the users (see {@link Storage})
+ */
+@ConfigurationProperties("demo.users")
+record UserDataSettings(
+    @DefaultValue("1000") int size,
+    @DefaultValue("5") int departments,
+    @DefaultValue("5") int roles,
+    @DefaultValue("0") double skew,
+    @DefaultValue("42") long seed,
+    @DefaultValue("0.9") double activeRatio,
+    @DefaultValue("objects") Storage storage
+) {
+
+    enum Storage {
+        /** One {@link User} object per user, with posting-list indexes */
+        OBJECTS,
+        /** Primitive columns on the heap ({@link UserColumns}), filtered by scanning the code columns */
+        COLUMNS,
+        /** Primitive columns in native memory ({@link OffHeapUserColumns}), filtered the same way */
+        OFF_HEAP
+    }
+
+    UserDataSettings {
+        if (size < 0) {
+            throw new IllegalArgumentException("demo.users.size must not be negative, was: " + size);
+        }
+        if (departments < 1 || roles < 1) {
+            throw new IllegalArgumentException("demo.users.departments and demo.users.roles must be at least 1, were: "
+                + departments + ", " + roles);
+        }
+        if (skew < 0) {
+            throw new IllegalArgumentException("demo.users.skew must not be negative, was: " + skew);
+        }
+        if (activeRatio < 0 || activeRatio > 1) {
+            throw new IllegalArgumentException("demo.users.active-ratio must be between 0 and 1, was: " + activeRatio);
+        }
+        if (storage == null) {
+            throw new IllegalArgumentException("demo.users.storage must be one of objects, columns, off-heap");
+        }
+    }
+
+    static UserDataSettings defaults() {
+        return new UserDataSettings(1000, 5, 5, 0, 42, 0.9, Storage.OBJECTS);
+    }
+
+    UserDataSettings withSize(int size) {
+        return new UserDataSettings(size, departments, roles, skew, seed, activeRatio, storage);
+    }
+
+    UserDataSettings withStorage(Storage storage) {
+        return new UserDataSettings(size, departments, roles, skew, seed, activeRatio, storage);
+    }
+}
@@ -0,0 +1,64 @@
+package info.jab.info;
+
+import java.util.List;
+
+/**
+ * Predicate over users built from department, role and active tests combined with AND and OR,
+ * evaluated by {@link UserBitmaps} as word-wise operations on bitmaps.
+ *
+ * Departments and roles match ignoring case. {@code and()} with no operands matches every user,
+ * {@code or()} with no operands none.
+ */
+sealed interface UserFilter {
+
+    record Department(String name) implements UserFilter {
+    }
+
+    record Role(String name) implements UserFilter {
+    }
+
+    record Active() implements UserFilter {
+    }
+
+    record And(List<UserFilter> operands) implements UserFilter {
+
+        public And {
+            operands = List.copyOf(operands);
+        }
+    }
+
+    record Or(List<UserFilter> operands) implements UserFilter {
+
+        public Or {
+            operands = List.copyOf(operands);
+        }
+    }
+
+    static UserFilter department(String name) {
+        return new Department(name);
+    }
+
+    static UserFilter role(String name) {
+        return new Role(name);
+    }
+
+    static UserFilter active() {
+        return new Active();
+    }
+
+    static UserFilter and(UserFilter... operands) {
+        return new And(List.of(operands));
+    }
+
+    static UserFilter and(List<UserFilter> operands) {
+        return new And(operands);
+    }
+
+    static UserFilter or(UserFilter... operands) {
+        return new Or(List.of(operands));
+    }
+
+    static UserFilter or(List<UserFilter> operands) {
+        return new Or(operands);
+    }
+}
@@ -0,0 +1,54 @@
+package info.jab.info;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Positions of users by normalized (lower-cased) department.
+ *
+ * Positions index into the user list the index was built from. Users are only ever
+ * appended, so every posting list stays in ascending order, which is the order the
+ * unindexed scans return users in.
+ *
+ * Immutable, so it can be shared by concurrent searches: {@link #with(int, User)} returns
+ * a new index sharing every posting list except the one the new user is added to.
+ */
+final class UserIndex implements UserLookup {
+
+    private final Map<String, Postings> byDepartment;
+
+    private UserIndex(Map<String, Postings> byDepartment) {
+        this.byDepartment = byDepartment;
+    }
+
+    static UserIndex of(List<User> users) {
+        Map<String, Postings> byDepartment = new HashMap<>();
+        for (int position = 0; position < users.size(); position++) {
+            byDepartment.computeIfAbsent(normalize(users.get(position).department()), key -> new Postings()).add(position);
+        }
+        byDepartment.values().forEach(Postings::trim);
+        return new UserIndex(byDepartment);
+    }
+
+    static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public UserIndex with(int position, User user) {
+        String key = normalize(user.department());
+        Map<String, Postings> next = new HashMap<>(byDepartment);
+        Postings postings = byDepartment.getOrDefault(key, new Postings()).copy();
+        postings.add(position);
+        next.put(key, postings);
+        return new UserIndex(next);
+    }
+
+    @Override
+    public List<User> department(String department, List<User> users) {
+        Postings postings = byDepartment.get(normalize(department));
+        return postings == null ? List.of() : postings.resolve(users);
+    }
+}
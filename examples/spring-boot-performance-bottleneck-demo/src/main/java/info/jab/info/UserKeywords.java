@@ -0,0 +1,209 @@
+package info.jab.info;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Keyword index over the names and emails of the users: a trigram inverted index plus the
+ * lower-cased names and emails by position.
+ *
+ * Every run of three characters of a user's lower-cased name or email posts the user's position.
+ * A keyword of three or more characters can only be contained in users posted under all of its
+ * trigrams, so a search intersects those posting lists (starting from the shortest) and checks
+ * just the remaining candidates for the keyword, instead of scanning every user. Shorter keywords
+ * have no trigram and fall back to the scan. Both paths lower-case the keyword once and allocate
+ * nothing per user.
+ *
+ * Over {@link User} objects the lower-cased names and emails are kept as Strings. Over
+ * {@link ColumnarUsers} they are not stored at all: each is rebuilt from the name code and the id
+ * into one reusable builder per search, so the index adds only its posting lists to the columns.
+ *
+ * Immutable, like {@link UserIndex}: {@link #with(int, User, UserLookup)} copies the trigram table
+ * and the posting lists of the new user's trigrams, and shares the others.
+ */
+final class UserKeywords {
+
+    private final Texts texts;
+    private final Map<Long, Postings> trigrams;
+
+    private UserKeywords(Texts texts, Map<Long, Postings> trigrams) {
+        this.texts = texts;
+        this.trigrams = trigrams;
+    }
+
+    static UserKeywords of(List<User> users) {
+        String[] names = new String[users.size()];
+        String[] emails = new String[users.size()];
+        IntStream.range(0, users.size()).parallel().forEach(position -> {
+            User user = users.get(position);
+            names[position] = UserIndex.normalize(user.name());
+            emails[position] = UserIndex.normalize(user.email());
+        });
+        return of(new StringTexts(names, emails));
+    }
+
+    static UserKeywords of(ColumnarUsers columns) {
+        return of(new ColumnTexts(columns));
+    }
+
+    private static UserKeywords of(Texts texts) {
+        Map<Long, Postings> trigrams = new HashMap<>();
+        StringBuilder scratch = new StringBuilder();
+        for (int position = 0; position < texts.size(); position++) {
+            post(trigrams, texts.name(position, scratch), position);
+            post(trigrams, texts.email(position, scratch), position);
+        }
+        trigrams.values().forEach(Postings::trim);
+        return new UserKeywords(texts, trigrams);
+    }
+
+    // next is the lookup already holding the user at position; columnar texts read the user from it
+    UserKeywords with(int position, User user, UserLookup next) {
+        Texts nextTexts = texts.with(position, user, next);
+        StringBuilder scratch = new StringBuilder();
+        Set<Long> userTrigrams = trigramsOf(nextTexts.name(position, scratch));
+        userTrigrams.addAll(trigramsOf(nextTexts.email(position, scratch)));
+        Map<Long, Postings> nextTrigrams = new HashMap<>(trigrams);
+        for (long trigram : userTrigrams) {
+            Postings postings = trigrams.getOrDefault(trigram, new Postings()).copy();
+            postings.add(position);
+            nextTrigrams.put(trigram, postings);
+        }
+        return new UserKeywords(nextTexts, nextTrigrams);
+    }
+
+    // Users whose name or email contains the keyword, ignoring case, in position order
+    List<User> matching(String keyword, List<User> users) {
+        String query = UserIndex.normalize(keyword);
+        StringBuilder scratch = new StringBuilder();
+        List<User> result = new ArrayList<>();
+        if (query.length() < 3) {
+            for (int position = 0; position < texts.size(); position++) {
+                if (texts.contains(position, query, scratch)) {
+                    result.add(users.get(position));
+                }
+            }
+            return result;
+        }
+        List<Postings> postings = new ArrayList<>();
+        for (long trigram : trigramsOf(query)) {
+            Postings posted = trigrams.get(trigram);
+            if (posted == null) {
+                return result;
+            }
+            postings.add(posted);
+        }
+        for (int position : Postings.intersect(postings)) {
+            if (texts.contains(position, query, scratch)) {
+                result.add(users.get(position));
+            }
+        }
+        return result;
+    }
+
+    private static void post(Map<Long, Postings> trigrams, CharSequence text, int position) {
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            trigrams.computeIfAbsent(trigram(text, i), key -> new Postings()).add(position);
+        }
+    }
+
+    // Distinct trigrams, in order of first occurrence
+    private static Set<Long> trigramsOf(CharSequence text) {
+        Set<Long> result = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            result.add(trigram(text, i));
+        }
+        return result;
+    }
+
+    private static long trigram(CharSequence text, int start) {
+        return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+    }
+
+    /**
+     * The lower-cased name and email of each user by position. A method given a scratch builder
+     * may return it, so the result is only valid until the builder is used again.
+     */
+    private sealed interface Texts permits StringTexts, ColumnTexts {
+
+        int size();
+
+        CharSequence name(int position, StringBuilder scratch);
+
+        CharSequence email(int position, StringBuilder scratch);
+
+        boolean contains(int position, String query, StringBuilder scratch);
+
+        Texts with(int position, User user, UserLookup next);
+    }
+
+    private record StringTexts(String[] names, String[] emails) implements Texts {
+
+        @Override
+        public int size() {
+            return names.length;
+        }
+
+        @Override
+        public String name(int position, StringBuilder scratch) {
+            return names[position];
+        }
+
+        @Override
+        public String email(int position, StringBuilder scratch) {
+            return emails[position];
+        }
+
+        @Override
+        public boolean contains(int position, String query, StringBuilder scratch) {
+            return names[position].contains(query) || emails[position].contains(query);
+        }
+
+        @Override
+        public StringTexts with(int position, User user, UserLookup next) {
+            String[] nextNames = Arrays.copyOf(names, position + 1);
+            String[] nextEmails = Arrays.copyOf(emails, position + 1);
+            nextNames[position] = UserIndex.normalize(user.name());
+            nextEmails[position] = UserIndex.normalize(user.email());
+            return new StringTexts(nextNames, nextEmails);
+        }
+    }
+
+    private record ColumnTexts(ColumnarUsers columns) implements Texts {
+
+        @Override
+        public int size() {
+            return columns.size();
+        }
+
+        @Override
+        public StringBuilder name(int position, StringBuilder scratch) {
+            return columns.lowerCaseName(position, scratch);
+        }
+
+        @Override
+        public StringBuilder email(int position, StringBuilder scratch) {
+            return columns.lowerCaseEmail(position, scratch);
+        }
+
+        @Override
+        public boolean contains(int position, String query, StringBuilder scratch) {
+            return name(position, scratch).indexOf(query) >= 0 || email(position, scratch).indexOf(query) >= 0;
+        }
+
+        // The columns already hold the user, so only the reference moves to them
+        @Override
+        public ColumnTexts with(int position, User user, UserLookup next) {
+            if (!(next instanceof ColumnarUsers nextColumns)) {
+                throw new IllegalArgumentException("Columnar keywords need the columns holding the user, was: " + next);
+            }
+            return new ColumnTexts(nextColumns);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package info.jab.info;
+
+import java.util.List;
+
+/**
+ * Finds the users of a department, as positions into the user list of the same snapshot.
+ *
+ * Implemented by {@link UserIndex} (posting lists over {@link User} objects) and by
+ * {@link ColumnarUsers} (a scan over the department code column). Departments match ignoring case.
+ * Role and active filters are answered by {@link UserBitmaps}.
+ */
+interface UserLookup {
+
+    List<User> department(String department, List<User> users);
+
+    /**
+     * @return a lookup that also finds {@code user} at {@code position}; this lookup is unchanged
+     */
+    UserLookup with(int position, User user);
+}
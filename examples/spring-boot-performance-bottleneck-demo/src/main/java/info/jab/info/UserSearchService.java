@@ -1,49 +1,99 @@
 package info.jab.info;
 
+import java.lang.foreign.Arena;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 import org.springframework.stereotype.Service;
 
 @Service
 public class UserSearchService {
 
-    private List<User> users;
-    private List<String> permittedRoles;
+    // Readers get the current snapshot without copying or locking; writers publish a new one
+    private final AtomicReference<Snapshot> snapshot;
+    private final List<String> permittedRoles = List.of("Manager", "Developer", "Tester", "Analyst");
 
-    public UserSearchService() {
-        initializeData();
+    public UserSearchService(UserDataSettings settings) {
+        snapshot = new AtomicReference<>(Snapshot.of(settings));
     }
 
+    // Immutable: callers cannot modify the users, and a later addUser does not change a list already returned.
+    // With columnar storage this is a view creating each user as it is read, so the heap holds only the columns
     public List<User> getAllUsers() {
-        return new ArrayList<>(users);
+        return snapshot.get().users();
     }
 
     public List<String> getPermittedRoles() {
-        return new ArrayList<>(permittedRoles);
-    }
-
-    private void initializeData() {
-        // Initialize with sample data
-        users = new ArrayList<>();
-        String[] names = {"Alice Johnson", "Bob Smith", "Charlie Brown", "Diana Prince",
-                         "Eve Wilson", "Frank Miller", "Grace Lee", "Henry Davis",
-                         "Ivy Chen", "Jack Taylor", "Karen White", "Leo Martinez"};
-        String[] departments = {"Engineering", "Marketing", "Sales", "HR", "Finance"};
-        String[] roles = {"Manager", "Developer", "Tester", "Analyst", "Coordinator"};
-
-        // Create 1000 users for performance testing
-        for (int i = 0; i < 1000; i++) {
-            users.add(new User(
-                (long) i,
-                names[i % names.length] + " " + i,
-                names[i % names.length].toLowerCase().replace(" ", ".") + i + "@company.com",
-                departments[i % departments.length],
-                roles[i % roles.length],
-                Math.random() > 0.1 // 90% active users
-            ));
+        return permittedRoles;
+    }
+
+    // GOOD: Index lookups - O(k) in the number of matching users instead of a scan over all users.
+    // With columnar storage: one scan over the int code columns, creating only the matching users
+
+    public List<User> getUsersByDepartment(String department) {
+        Snapshot current = snapshot.get();
+        return current.lookup().department(department, current.users());
+    }
+
+    public List<User> getUsersByKeyword(String keyword) {
+        Snapshot current = snapshot.get();
+        return current.keywords().matching(keyword, current.users());
+    }
+
+    // GOOD: Bitmap AND/OR - 64 users per word operation instead of testing each user
+    public List<User> getUsers(UserFilter filter) {
+        Snapshot current = snapshot.get();
+        return current.bitmaps().matching(filter, current.users());
+    }
+
+    // Lower-cased names of the roles users have
+    public Set<String> getRoles() {
+        return snapshot.get().bitmaps().roles();
+    }
+
+    // Copy-on-write: O(n) per added user, paid by the writer instead of by every search.
+    // With columnar storage the user is appended to copies of the columns
+    public void addUser(User user) {
+        snapshot.updateAndGet(current -> current.with(user));
+    }
+
+    private record Snapshot(List<User> users, UserLookup lookup, UserBitmaps bitmaps, UserKeywords keywords) {
+
+        static Snapshot of(UserDataSettings settings) {
+            UserDataGenerator generator = new UserDataGenerator(settings);
+            return switch (settings.storage()) {
+                case OBJECTS -> {
+                    List<User> users = generator.generate();
+                    yield new Snapshot(users, UserIndex.of(users), UserBitmaps.of(users), UserKeywords.of(users));
+                }
+                case COLUMNS -> of(generator.generateColumns());
+                // Freed by the garbage collector once the columns are unreachable
+                case OFF_HEAP -> of(generator.generateColumns().offHeap(Arena.ofAuto()));
+            };
         }
 
-        permittedRoles = Arrays.asList("Manager", "Developer", "Tester", "Analyst");
+        // The users are a view over the columns, and the keyword index derives names and emails from them
+        private static Snapshot of(ColumnarUsers columns) {
+            return new Snapshot(columns.asList(), columns, UserBitmaps.of(columns), UserKeywords.of(columns));
+        }
+
+        Snapshot with(User user) {
+            UserLookup nextLookup = lookup.with(users.size(), user);
+            return new Snapshot(users(nextLookup, user), nextLookup, bitmaps.with(users.size(), user),
+                keywords.with(users.size(), user, nextLookup));
+        }
+
+        private List<User> users(UserLookup nextLookup, User user) {
+            if (nextLookup instanceof ColumnarUsers columns) {
+                return columns.asList();
+            }
+            List<User> next = new ArrayList<>(users.size() + 1);
+            next.addAll(users);
+            next.add(user);
+            // The copy is never shared mutably, so an unmodifiable view saves List.copyOf a second copy
+            return Collections.unmodifiableList(next);
+        }
     }
 }
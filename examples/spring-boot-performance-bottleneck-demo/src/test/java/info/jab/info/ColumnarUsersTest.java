@@ -0,0 +1,91 @@
+package info.jab.info;
+
+import java.lang.foreign.Arena;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Both columnar layouts must hold the same users as the generator creates as objects, and keep
+ * an appended user exactly as given.
+ */
+class ColumnarUsersTest {
+
+    // A multiple of 64, so that appending starts a new word of the active bitmap
+    private static final int SIZE = 640;
+
+    private static final User ADDED = new User(9000L, "Added User", "added@company.com", "Legal", "Scientist",
+        LocalDateTime.of(2025, 3, 4, 5, 6, 7, 890), true);
+
+    private static ColumnarUsers columns(UserDataSettings.Storage storage) {
+        UserColumns columns = new UserDataGenerator(UserDataSettings.defaults().withSize(SIZE)).generateColumns();
+        return storage == UserDataSettings.Storage.OFF_HEAP ? columns.offHeap(Arena.ofAuto()) : columns;
+    }
+
+    private static List<User> objects() {
+        return new UserDataGenerator(UserDataSettings.defaults().withSize(SIZE)).generate();
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = UserDataSettings.Storage.class, names = {"COLUMNS", "OFF_HEAP"})
+    void holdTheGeneratedUsers(UserDataSettings.Storage storage) {
+        assertThat(columns(storage).asList()).isEqualTo(objects());
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = UserDataSettings.Storage.class, names = {"COLUMNS", "OFF_HEAP"})
+    void departmentScanMatchesTheIndexIgnoringCase(UserDataSettings.Storage storage) {
+        ColumnarUsers columns = columns(storage);
+        List<User> users = columns.asList();
+
+        for (String department : List.of("Engineering", "sales", "HR", "Legal", "")) {
+            assertThat(columns.department(department, users)).as(department)
+                .isEqualTo(UserIndex.of(objects()).department(department, objects()));
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = UserDataSettings.Storage.class, names = {"COLUMNS", "OFF_HEAP"})
+    void appendKeepsTheUserAsGivenAndTheColumnsUnchanged(UserDataSettings.Storage storage) {
+        ColumnarUsers columns = columns(storage);
+
+        ColumnarUsers appended = columns.with(SIZE, ADDED);
+
+        assertThat(appended.size()).isEqualTo(SIZE + 1);
+        assertThat(appended.user(SIZE)).isEqualTo(ADDED);
+        assertThat(appended.active(SIZE)).isTrue();
+        assertThat(appended.asList().subList(0, SIZE)).isEqualTo(objects());
+        assertThat(appended.departmentNames()).endsWith("Legal");
+        assertThat(appended.roleNames()).endsWith("Scientist");
+        assertThat(appended.department("LEGAL", appended.asList())).containsExactly(ADDED);
+        assertThat(columns.size()).isEqualTo(SIZE);
+        assertThat(columns.departmentNames()).doesNotContain("Legal");
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = UserDataSettings.Storage.class, names = {"COLUMNS", "OFF_HEAP"})
+    void appendReusesKnownDepartmentsAndRoles(UserDataSettings.Storage storage) {
+        ColumnarUsers columns = columns(storage);
+        User known = new User(9001L, "Known User", "known@company.com", "Sales", "Tester",
+            LocalDateTime.of(2025, 1, 1, 0, 0), false);
+
+        ColumnarUsers appended = columns.with(SIZE, known);
+
+        assertThat(appended.departmentNames()).isEqualTo(columns.departmentNames());
+        assertThat(appended.roleNames()).isEqualTo(columns.roleNames());
+        assertThat(appended.active(SIZE)).isFalse();
+        assertThat(appended.department("sales", appended.asList())).endsWith(known);
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = UserDataSettings.Storage.class, names = {"COLUMNS", "OFF_HEAP"})
+    void appendOnlyAtTheEnd(UserDataSettings.Storage storage) {
+        ColumnarUsers columns = columns(storage);
+
+        assertThatThrownBy(() -> columns.with(SIZE - 1, ADDED)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
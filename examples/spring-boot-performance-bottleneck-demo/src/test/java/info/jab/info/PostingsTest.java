@@ -0,0 +1,129 @@
+package info.jab.info;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PostingsTest {
+
+    private static Postings postings(int... positions) {
+        Postings postings = new Postings();
+        for (int position : positions) {
+            postings.add(position);
+        }
+        return postings;
+    }
+
+    private static int[] positions(Postings postings) {
+        return IntStream.range(0, postings.size()).map(postings::get).toArray();
+    }
+
+    @Test
+    void addingTheLastPositionAgainIsANoOp() {
+        assertThat(positions(postings(1, 1, 4, 4, 4, 9))).containsExactly(1, 4, 9);
+    }
+
+    @Test
+    void growsBeyondItsInitialCapacity() {
+        int[] expected = IntStream.range(0, 100).map(i -> i * 3).toArray();
+
+        assertThat(positions(postings(expected))).containsExactly(expected);
+    }
+
+    @Test
+    void copyDoesNotShareAppends() {
+        Postings original = postings(1, 2, 3);
+
+        Postings copy = original.copy();
+        copy.add(7);
+
+        assertThat(positions(original)).containsExactly(1, 2, 3);
+        assertThat(positions(copy)).containsExactly(1, 2, 3, 7);
+    }
+
+    @Test
+    void seekFindsTheFirstPositionAtLeastTheTarget() {
+        Postings postings = postings(2, 4, 6, 8, 10, 12, 14, 16, 18, 20);
+
+        assertThat(postings.seek(1, 0)).isZero();
+        assertThat(postings.seek(2, 0)).isZero();
+        assertThat(postings.seek(3, 0)).isEqualTo(1);
+        assertThat(postings.seek(15, 0)).isEqualTo(7);
+        assertThat(postings.seek(20, 0)).isEqualTo(9);
+    }
+
+    @Test
+    void seekStartsAtTheCursor() {
+        Postings postings = postings(2, 4, 6, 8, 10, 12, 14, 16, 18, 20);
+
+        assertThat(postings.seek(2, 5)).isEqualTo(5);
+        assertThat(postings.seek(13, 5)).isEqualTo(6);
+        assertThat(postings.seek(20, 9)).isEqualTo(9);
+    }
+
+    @Test
+    void seekPastTheEndReturnsTheSize() {
+        Postings postings = postings(2, 4, 6, 8, 10);
+
+        assertThat(postings.seek(11, 0)).isEqualTo(5);
+        assertThat(postings.seek(11, 3)).isEqualTo(5);
+        assertThat(postings.seek(1, 5)).isEqualTo(5);
+        assertThat(new Postings().seek(0, 0)).isZero();
+    }
+
+    @Test
+    void intersectOfOneListIsThatList() {
+        assertThat(Postings.intersect(List.of(postings(3, 5, 8)))).containsExactly(3, 5, 8);
+    }
+
+    @Test
+    void intersectWithAnEmptyListIsEmpty() {
+        assertThat(Postings.intersect(List.of(postings(1, 2, 3), new Postings()))).isEmpty();
+    }
+
+    @Test
+    void intersectOfDisjointListsIsEmpty() {
+        assertThat(Postings.intersect(List.of(postings(1, 3, 5), postings(2, 4, 6)))).isEmpty();
+    }
+
+    @Test
+    void intersectKeepsTheFirstAndLastPositions() {
+        Postings longer = postings(IntStream.rangeClosed(0, 1000).toArray());
+
+        assertThat(Postings.intersect(List.of(longer, postings(0, 500, 1000)))).containsExactly(0, 500, 1000);
+    }
+
+    @Test
+    void intersectStopsWhenAListRunsOut() {
+        assertThat(Postings.intersect(List.of(postings(1, 2, 3, 4), postings(2, 3), postings(2, 50, 60))))
+            .containsExactly(2);
+    }
+
+    @Test
+    void intersectMatchesSetIntersection() {
+        SplittableRandom random = new SplittableRandom(7);
+        for (int round = 0; round < 50; round++) {
+            List<Postings> lists = new ArrayList<>();
+            TreeSet<Integer> expected = null;
+            for (int list = 0, count = 2 + random.nextInt(3); list < count; list++) {
+                int density = 1 + random.nextInt(20);
+                int[] positions = IntStream.range(0, 2000).filter(i -> random.nextInt(density) == 0).toArray();
+                lists.add(postings(positions));
+                TreeSet<Integer> set = new TreeSet<>(IntStream.of(positions).boxed().toList());
+                if (expected == null) {
+                    expected = set;
+                } else {
+                    expected.retainAll(set);
+                }
+            }
+
+            assertThat(Postings.intersect(lists)).as("round %d", round)
+                .containsExactly(expected.stream().mapToInt(Integer::intValue).toArray());
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package info.jab.info;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The good searches must return the same users, in the same order, as the nested loops they
+ * replace, in every storage mode and after users have been added.
+ */
+class SearchControllerTest {
+
+    private static final List<String> DEPARTMENTS =
+        List.of("Engineering", "engineering", "ENGINEERING", "Sales", "HR", "Legal", "Research", "", "nope");
+    // Under 3 characters the keyword index cannot use trigrams and scans instead
+    private static final List<String> KEYWORDS =
+        List.of("", "a", "ar", "5", "alice", "ALICE", "company", "e.w", "n 12", "upper", "zed", "zoe@", "zzz");
+    private static final List<String> ROLES = List.of("Manager", "er", "DEV", "Coordinator", "Scientist", "a", "", "x");
+
+    private static UserSearchService service(UserDataSettings.Storage storage) {
+        UserSearchService service = new UserSearchService(UserDataSettings.defaults().withSize(300).withStorage(storage));
+        // Exact department names differ from the generated ones only by case; Research and Scientist are new
+        LocalDateTime login = LocalDateTime.of(2025, 3, 4, 5, 6, 7, 890);
+        service.addUser(new User(5000L, "Zed Upper", "zed@company.com", "ENGINEERING", "Developer", login, true));
+        service.addUser(new User(5001L, "Zoe Upper", "zoe@company.com", "ENGINEERING", "Tester", login, true));
+        service.addUser(new User(5002L, "Zak Upper", "zak@company.com", "ENGINEERING", "Manager", login, true));
+        service.addUser(new User(5003L, "Solo Upper", "solo@company.com", "engineering", "Manager", login, true));
+        service.addUser(new User(5004L, "Lonely", "lonely@company.com", "Legal", "Manager", login, true));
+        service.addUser(new User(5005L, "Rita Research", "rita@lab.org", "Research", "Scientist", login, true));
+        service.addUser(new User(5006L, "Rudy Research", "rudy@lab.org", "Research", "Scientist", login, false));
+        return service;
+    }
+
+    private static Stream<Arguments> departments() {
+        return arguments(DEPARTMENTS);
+    }
+
+    private static Stream<Arguments> keywords() {
+        return arguments(KEYWORDS);
+    }
+
+    private static Stream<Arguments> roles() {
+        return arguments(ROLES);
+    }
+
+    private static Stream<Arguments> arguments(List<String> values) {
+        return Stream.of(UserDataSettings.Storage.values())
+            .flatMap(storage -> values.stream().map(value -> Arguments.of(storage, value)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("departments")
+    void usersWithColleaguesMatchNestedLoops(UserDataSettings.Storage storage, String department) {
+        SearchController controller = new SearchController(service(storage));
+
+        assertThat(controller.findUsersWithColleaguesIndexed(department).users())
+            .isEqualTo(controller.findUsersWithColleagues(department).users());
+    }
+
+    @ParameterizedTest
+    @MethodSource("keywords")
+    void similarUsersMatchNestedLoops(UserDataSettings.Storage storage, String keyword) {
+        SearchController controller = new SearchController(service(storage));
+
+        assertThat(controller.findSimilarUsersIndexed(keyword).users())
+            .isEqualTo(controller.findSimilarUsers(keyword).users());
+    }
+
+    @ParameterizedTest
+    @MethodSource("departments")
+    void teamMembersMatchTripleLoop(UserDataSettings.Storage storage, String department) {
+        SearchController controller = new SearchController(service(storage));
+
+        assertThat(controller.findTeamFormationIndexed(department).users())
+            .isEqualTo(controller.findTeamFormation(department).users());
+    }
+
+    @ParameterizedTest
+    @MethodSource("departments")
+    void teamPagesMatchTripleLoopAtEveryOffset(UserDataSettings.Storage storage, String department) {
+        UserSearchService service = service(storage);
+        SearchController controller = new SearchController(service);
+        List<TeamFormation.Team> expected = teams(service.getAllUsers(), department);
+
+        for (int size : List.of(1, 7, SearchController.MAX_PAGE_SIZE)) {
+            List<TeamFormation.Team> paged = new ArrayList<>();
+            for (int page = 0; ; page++) {
+                TeamPage teamPage = controller.findTeams(department, page, size);
+                assertThat(teamPage.totalTeams()).isEqualTo(expected.size());
+                if (teamPage.teams().isEmpty()) {
+                    break;
+                }
+                paged.addAll(teamPage.teams());
+            }
+            assertThat(paged).as("page size %d", size).isEqualTo(expected);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("roles")
+    void activeUsersWithPermissionsMatchNestedLoops(UserDataSettings.Storage storage, String role) {
+        SearchController controller = new SearchController(service(storage));
+
+        assertThat(controller.findActiveUsersWithPermissionsIndexed(role).users())
+            .isEqualTo(controller.findActiveUsersWithPermissions(role).users());
+    }
+
+    @ParameterizedTest
+    @EnumSource(UserDataSettings.Storage.class)
+    void storageKeepsTheSameUsers(UserDataSettings.Storage storage) {
+        assertThat(service(storage).getAllUsers())
+            .isEqualTo(service(UserDataSettings.Storage.OBJECTS).getAllUsers());
+    }
+
+    // Every team of the triple nested loops of SearchController.findTeamFormation, in loop order
+    private static List<TeamFormation.Team> teams(List<User> users, String department) {
+        List<TeamFormation.Team> teams = new ArrayList<>();
+        for (User manager : users) {
+            if (manager.role().equals("Manager") && manager.department().equalsIgnoreCase(department)) {
+                for (User developer : users) {
+                    if (developer.role().equals("Developer") && developer.department().equals(manager.department())) {
+                        for (User tester : users) {
+                            if (tester.role().equals("Tester") && tester.department().equals(manager.department())) {
+                                teams.add(new TeamFormation.Team(manager, developer, tester));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return teams;
+    }
+}
@@ -0,0 +1,122 @@
+package info.jab.info;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Teams are numbered by manager, then developer, then tester; pages must cut through those groups
+ * anywhere, including managers without any team.
+ */
+class TeamFormationTest {
+
+    private static final LocalDateTime LOGIN = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    // Three managers of "Eng" with 2 developers x 3 testers each, and a manager of "ENG", which has no
+    // developers or testers, between the first two
+    private static final List<User> USERS = List.of(
+        user(0, "Eng", "Manager"),
+        user(1, "Eng", "Developer"),
+        user(2, "ENG", "Manager"),
+        user(3, "Eng", "Tester"),
+        user(4, "Eng", "Manager"),
+        user(5, "Eng", "Tester"),
+        user(6, "Eng", "Developer"),
+        user(7, "Eng", "Analyst"),
+        user(8, "Eng", "Tester"),
+        user(9, "Eng", "Manager"));
+
+    private static User user(long id, String department, String role) {
+        return new User(id, "User " + id, "user" + id + "@company.com", department, role, LOGIN, true);
+    }
+
+    // The teams in the order of the nested loops of SearchController.findTeamFormation
+    private static List<TeamFormation.Team> nestedLoopTeams(List<User> users) {
+        List<TeamFormation.Team> teams = new ArrayList<>();
+        for (User manager : users) {
+            if (manager.role().equals("Manager")) {
+                for (User developer : users) {
+                    if (developer.role().equals("Developer") && developer.department().equals(manager.department())) {
+                        for (User tester : users) {
+                            if (tester.role().equals("Tester") && tester.department().equals(manager.department())) {
+                                teams.add(new TeamFormation.Team(manager, developer, tester));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return teams;
+    }
+
+    @Test
+    void countsEveryTeamOfEveryManager() {
+        TeamFormation teamFormation = new TeamFormation(USERS);
+
+        assertThat(teamFormation.teamCount()).isEqualTo(18);
+        assertThat(teamFormation.scanned()).isEqualTo(USERS.size());
+    }
+
+    @Test
+    void pagesOfEverySizeConcatenateToTheNestedLoopTeams() {
+        TeamFormation teamFormation = new TeamFormation(USERS);
+        List<TeamFormation.Team> expected = nestedLoopTeams(USERS);
+
+        for (int size = 1; size <= expected.size() + 1; size++) {
+            List<TeamFormation.Team> paged = new ArrayList<>();
+            for (long offset = 0; offset < teamFormation.teamCount(); offset += size) {
+                paged.addAll(teamFormation.teams(offset, size));
+            }
+            assertThat(paged).as("page size %d", size).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void pagesStartAndEndAtManagerBoundaries() {
+        TeamFormation teamFormation = new TeamFormation(USERS);
+        List<TeamFormation.Team> expected = nestedLoopTeams(USERS);
+
+        // Each manager leads 6 teams: 0-5, 6-11 and 12-17
+        for (int offset : List.of(0, 5, 6, 11, 12, 17)) {
+            assertThat(teamFormation.teams(offset, 1)).as("offset %d", offset)
+                .containsExactly(expected.get(offset));
+            assertThat(teamFormation.teams(offset, 6)).as("offset %d", offset)
+                .isEqualTo(expected.subList(offset, Math.min(offset + 6, expected.size())));
+        }
+    }
+
+    @Test
+    void pagesPastTheLastTeamAreShortOrEmpty() {
+        TeamFormation teamFormation = new TeamFormation(USERS);
+        List<TeamFormation.Team> expected = nestedLoopTeams(USERS);
+
+        assertThat(teamFormation.teams(15, 10)).isEqualTo(expected.subList(15, 18));
+        assertThat(teamFormation.teams(18, 10)).isEmpty();
+        assertThat(teamFormation.teams(1_000, 10)).isEmpty();
+    }
+
+    @Test
+    void managerWithoutDevelopersOrTestersLeadsNoTeam() {
+        TeamFormation teamFormation = new TeamFormation(List.of(
+            user(0, "HR", "Manager"),
+            user(1, "HR", "Developer"),
+            user(2, "HR", "Manager")));
+
+        assertThat(teamFormation.teamCount()).isZero();
+        assertThat(teamFormation.teams(0, 10)).isEmpty();
+        assertThat(teamFormation.members()).isEmpty();
+    }
+
+    @Test
+    void membersAreListedInNestedLoopOrder() {
+        TeamFormation teamFormation = new TeamFormation(USERS);
+
+        // The first manager adds its first developer, every tester, then the other developer; later ones themselves
+        assertThat(teamFormation.members()).containsExactly(
+            USERS.get(0), USERS.get(1), USERS.get(3), USERS.get(5), USERS.get(8), USERS.get(6),
+            USERS.get(4), USERS.get(9));
+    }
+}
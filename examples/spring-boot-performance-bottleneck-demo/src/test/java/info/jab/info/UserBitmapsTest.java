@@ -0,0 +1,122 @@
+package info.jab.info;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Filters evaluated on bitmaps must select the users a scan testing each user would, in position
+ * order, before and after users are appended.
+ */
+class UserBitmapsTest {
+
+    private static final LocalDateTime LOGIN = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private static final List<User> USERS = List.of(
+        user(0, "Engineering", "Developer", true),
+        user(1, "Sales", "Manager", true),
+        user(2, "engineering", "Tester", false),
+        user(3, "HR", "Developer", true),
+        user(4, "Engineering", "Manager", false),
+        user(5, "Sales", "developer", true));
+
+    private static User user(long id, String department, String role, boolean active) {
+        return new User(id, "User " + id, "user" + id + "@company.com", department, role, LOGIN, active);
+    }
+
+    private static List<User> scan(List<User> users, Predicate<User> predicate) {
+        return users.stream().filter(predicate).toList();
+    }
+
+    private static Predicate<User> department(String name) {
+        return user -> user.department().equalsIgnoreCase(name);
+    }
+
+    private static Predicate<User> role(String name) {
+        return user -> user.role().equalsIgnoreCase(name);
+    }
+
+    @Test
+    void andOrMatchAScanIgnoringCase() {
+        UserBitmaps bitmaps = UserBitmaps.of(USERS);
+
+        assertThat(bitmaps.matching(UserFilter.and(UserFilter.active(), UserFilter.role("DEVELOPER")), USERS))
+            .isEqualTo(scan(USERS, role("developer").and(User::active)));
+        assertThat(bitmaps.matching(UserFilter.or(UserFilter.department("sales"), UserFilter.role("tester")), USERS))
+            .isEqualTo(scan(USERS, department("sales").or(role("tester"))));
+        assertThat(bitmaps.matching(UserFilter.and(UserFilter.department("ENGINEERING"),
+                UserFilter.or(UserFilter.role("Manager"), UserFilter.role("Tester"))), USERS))
+            .isEqualTo(scan(USERS, department("engineering").and(role("manager").or(role("tester")))));
+    }
+
+    @Test
+    void emptyAndMatchesEveryoneAndEmptyOrNobody() {
+        UserBitmaps bitmaps = UserBitmaps.of(USERS);
+
+        assertThat(bitmaps.matching(UserFilter.and(), USERS)).isEqualTo(USERS);
+        assertThat(bitmaps.matching(UserFilter.or(), USERS)).isEmpty();
+        assertThat(bitmaps.matching(UserFilter.and(UserFilter.role("Scientist"), UserFilter.active()), USERS)).isEmpty();
+    }
+
+    @Test
+    void evaluationDoesNotModifyTheStoredBitmaps() {
+        UserBitmaps bitmaps = UserBitmaps.of(USERS);
+        UserFilter filter = UserFilter.or(UserFilter.role("Manager"), UserFilter.role("Tester"));
+
+        bitmaps.matching(UserFilter.and(UserFilter.role("Manager"), UserFilter.active()), USERS);
+        bitmaps.matching(UserFilter.and(filter, UserFilter.department("HR")), USERS);
+
+        assertThat(bitmaps.matching(filter, USERS)).isEqualTo(scan(USERS, role("manager").or(role("tester"))));
+        assertThat(bitmaps.matching(UserFilter.active(), USERS)).isEqualTo(scan(USERS, User::active));
+    }
+
+    @Test
+    void andOrAfterAnAppendSeeTheNewUser() {
+        UserBitmaps bitmaps = UserBitmaps.of(USERS);
+        User added = user(6, "Legal", "Developer", true);
+        List<User> next = new ArrayList<>(USERS);
+        next.add(added);
+
+        UserBitmaps nextBitmaps = bitmaps.with(6, added);
+
+        assertThat(nextBitmaps.matching(UserFilter.and(UserFilter.active(), UserFilter.role("developer")), next))
+            .isEqualTo(scan(next, role("developer").and(User::active)))
+            .endsWith(added);
+        assertThat(nextBitmaps.matching(UserFilter.or(UserFilter.department("legal"), UserFilter.department("HR")), next))
+            .isEqualTo(scan(next, department("legal").or(department("hr"))));
+        assertThat(nextBitmaps.matching(UserFilter.and(), next)).isEqualTo(next);
+        assertThat(bitmaps.matching(UserFilter.department("Legal"), USERS)).isEmpty();
+        assertThat(bitmaps.matching(UserFilter.and(), USERS)).isEqualTo(USERS);
+    }
+
+    @Test
+    void inactiveAppendIsLeftOutOfTheActiveBitmap() {
+        UserBitmaps bitmaps = UserBitmaps.of(USERS);
+        User added = user(6, "Sales", "Manager", false);
+        List<User> next = new ArrayList<>(USERS);
+        next.add(added);
+
+        UserBitmaps nextBitmaps = bitmaps.with(6, added);
+
+        assertThat(nextBitmaps.matching(UserFilter.and(UserFilter.active(), UserFilter.department("Sales")), next))
+            .isEqualTo(scan(next, department("sales").and(User::active)));
+        assertThat(nextBitmaps.matching(UserFilter.and(UserFilter.role("Manager"), UserFilter.department("Sales")), next))
+            .containsExactly(USERS.get(1), added);
+    }
+
+    @Test
+    void columnsBuildTheSameBitmapsAsUsers() {
+        UserColumns columns = new UserDataGenerator(UserDataSettings.defaults().withSize(500)).generateColumns();
+        List<User> users = columns.asList();
+        UserFilter filter = UserFilter.and(UserFilter.active(),
+            UserFilter.or(UserFilter.role("manager"), UserFilter.department("Sales")));
+
+        assertThat(UserBitmaps.of(columns).matching(filter, users))
+            .isEqualTo(UserBitmaps.of(users).matching(filter, users));
+        assertThat(UserBitmaps.of(columns).roles()).isEqualTo(UserBitmaps.of(users).roles());
+    }
+}
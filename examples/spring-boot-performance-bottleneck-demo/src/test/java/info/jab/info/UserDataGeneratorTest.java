@@ -0,0 +1,73 @@
+package info.jab.info;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserDataGeneratorTest {
+
+    // More than two chunks of 65,536 users, so that several chunks are generated in parallel
+    private static final UserDataSettings SETTINGS = UserDataSettings.defaults().withSize(140_000);
+
+    @Test
+    void sameSeedGeneratesTheSameUsers() {
+        List<User> first = new UserDataGenerator(SETTINGS).generate();
+        List<User> second = new UserDataGenerator(SETTINGS).generate();
+
+        assertThat(second).isEqualTo(first);
+    }
+
+    @Test
+    void otherSeedGeneratesOtherUsers() {
+        UserDataSettings otherSeed = new UserDataSettings(SETTINGS.size(), SETTINGS.departments(), SETTINGS.roles(),
+            SETTINGS.skew(), SETTINGS.seed() + 1, SETTINGS.activeRatio(), SETTINGS.storage());
+
+        assertThat(new UserDataGenerator(otherSeed).generate())
+            .isNotEqualTo(new UserDataGenerator(SETTINGS).generate());
+    }
+
+    @Test
+    void idsFollowPositions() {
+        List<User> users = new UserDataGenerator(SETTINGS).generate();
+
+        assertThat(users).extracting(User::id)
+            .containsExactlyElementsOf(LongStream.range(0, SETTINGS.size()).boxed().toList());
+    }
+
+    @Test
+    void departmentsAndRolesAreNamedBeyondTheKnownOnes() {
+        UserDataSettings settings = new UserDataSettings(10_000, 8, 6, 0, 42, 0.9, UserDataSettings.Storage.OBJECTS);
+
+        List<User> users = new UserDataGenerator(settings).generate();
+
+        assertThat(users).extracting(User::department).containsOnly(
+            "Engineering", "Marketing", "Sales", "HR", "Finance", "Department 6", "Department 7", "Department 8");
+        assertThat(users).extracting(User::role).containsOnly(
+            "Manager", "Developer", "Tester", "Analyst", "Coordinator", "Role 6");
+    }
+
+    @Test
+    void skewCrowdsUsersIntoTheFirstDepartments() {
+        UserDataSettings skewed = new UserDataSettings(10_000, 20, 5, 1.5, 42, 0.9, UserDataSettings.Storage.OBJECTS);
+
+        Map<String, Long> sizes = new UserDataGenerator(skewed).generate().stream()
+            .collect(Collectors.groupingBy(User::department, Collectors.counting()));
+
+        assertThat(sizes.get("Engineering")).isGreaterThan(sizes.get("Marketing"));
+        assertThat(sizes.get("Marketing")).isGreaterThan(sizes.getOrDefault("Department 20", 0L));
+    }
+
+    @Test
+    void activeRatioBoundsAreExact() {
+        Function<Double, List<User>> generate = ratio -> new UserDataGenerator(
+            new UserDataSettings(1_000, 5, 5, 0, 42, ratio, UserDataSettings.Storage.OBJECTS)).generate();
+
+        assertThat(generate.apply(0.0)).noneMatch(User::active);
+        assertThat(generate.apply(1.0)).allMatch(User::active);
+    }
+}
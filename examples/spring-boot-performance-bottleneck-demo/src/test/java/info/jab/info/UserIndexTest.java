@@ -0,0 +1,61 @@
+package info.jab.info;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserIndexTest {
+
+    private static final LocalDateTime LOGIN = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private static final List<User> USERS = List.of(
+        user(0, "Engineering"),
+        user(1, "Sales"),
+        user(2, "engineering"),
+        user(3, "HR"),
+        user(4, "ENGINEERING"));
+
+    private static User user(long id, String department) {
+        return new User(id, "User " + id, "user" + id + "@company.com", department, "Developer", LOGIN, true);
+    }
+
+    @Test
+    void departmentIgnoresCaseAndKeepsPositionOrder() {
+        UserIndex index = UserIndex.of(USERS);
+
+        assertThat(index.department("eNgInEeRiNg", USERS))
+            .containsExactly(USERS.get(0), USERS.get(2), USERS.get(4));
+    }
+
+    @Test
+    void unknownDepartmentFindsNobody() {
+        UserIndex index = UserIndex.of(USERS);
+
+        assertThat(index.department("Legal", USERS)).isEmpty();
+        assertThat(index.department("", USERS)).isEmpty();
+    }
+
+    @Test
+    void withAppendsToACopyAndLeavesTheIndexUnchanged() {
+        UserIndex index = UserIndex.of(USERS);
+        User added = user(5, "Sales");
+        List<User> next = List.of(USERS.get(0), USERS.get(1), USERS.get(2), USERS.get(3), USERS.get(4), added);
+
+        UserIndex nextIndex = index.with(5, added);
+
+        assertThat(nextIndex.department("sales", next)).containsExactly(USERS.get(1), added);
+        assertThat(index.department("sales", next)).containsExactly(USERS.get(1));
+    }
+
+    @Test
+    void withCreatesANewDepartment() {
+        UserIndex index = UserIndex.of(USERS);
+        User added = user(5, "Legal");
+        List<User> next = List.of(USERS.get(0), USERS.get(1), USERS.get(2), USERS.get(3), USERS.get(4), added);
+
+        assertThat(index.with(5, added).department("LEGAL", next)).containsExactly(added);
+        assertThat(index.department("Legal", next)).isEmpty();
+    }
+}
@@ -0,0 +1,105 @@
+package info.jab.info;
+
+import java.lang.foreign.Arena;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserKeywordsTest {
+
+    private static final LocalDateTime LOGIN = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private static final List<User> USERS = List.of(
+        user(0, "Alice Johnson", "alice.johnson@company.com"),
+        user(1, "Bob Smith", "bob.smith@company.com"),
+        user(2, "ALICE WONG", "a.wong@Lab.org"),
+        user(3, "Ivy Chen", "ivy@company.com"));
+
+    private static User user(long id, String name, String email) {
+        return new User(id, name, email, "Engineering", "Developer", LOGIN, true);
+    }
+
+    @Test
+    void matchesNamesAndEmailsIgnoringCase() {
+        UserKeywords keywords = UserKeywords.of(USERS);
+
+        assertThat(keywords.matching("aLiCe", USERS)).containsExactly(USERS.get(0), USERS.get(2));
+        assertThat(keywords.matching("LAB.ORG", USERS)).containsExactly(USERS.get(2));
+    }
+
+    @Test
+    void matchesKeywordsShorterThanThreeCharacters() {
+        UserKeywords keywords = UserKeywords.of(USERS);
+
+        assertThat(keywords.matching("IV", USERS)).containsExactly(USERS.get(3));
+        assertThat(keywords.matching("w", USERS)).containsExactly(USERS.get(2));
+        assertThat(keywords.matching("", USERS)).containsExactlyElementsOf(USERS);
+    }
+
+    @Test
+    void matchesTheNestedLoopsCaseFolding() {
+        UserKeywords keywords = UserKeywords.of(USERS);
+
+        for (String keyword : List.of("", "a", "Bo", "smith", "COMPANY", "@", "j", "zzz", "n.c")) {
+            assertThat(keywords.matching(keyword, USERS)).as(keyword).containsExactlyElementsOf(USERS.stream()
+                .filter(user -> user.name().toLowerCase().contains(keyword.toLowerCase())
+                    || user.email().toLowerCase().contains(keyword.toLowerCase()))
+                .toList());
+        }
+    }
+
+    @Test
+    void keywordWithAnUnknownTrigramMatchesNobody() {
+        UserKeywords keywords = UserKeywords.of(USERS);
+
+        assertThat(keywords.matching("alicex", USERS)).isEmpty();
+        assertThat(keywords.matching("qqq", USERS)).isEmpty();
+    }
+
+    @Test
+    void candidatesWithEveryTrigramMustStillContainTheKeyword() {
+        List<User> users = List.of(user(0, "Abc Bcd", "x@y.z"), user(1, "Abcd", "w@y.z"));
+
+        assertThat(UserKeywords.of(users).matching("abcd", users)).containsExactly(users.get(1));
+    }
+
+    @Test
+    void withFindsTheAddedUserAndLeavesTheIndexUnchanged() {
+        UserKeywords keywords = UserKeywords.of(USERS);
+        User added = user(4, "Alice Zeta", "zeta@newco.io");
+        List<User> next = List.of(USERS.get(0), USERS.get(1), USERS.get(2), USERS.get(3), added);
+
+        UserKeywords nextKeywords = keywords.with(4, added, UserIndex.of(next));
+
+        assertThat(nextKeywords.matching("ALICE", next)).containsExactly(USERS.get(0), USERS.get(2), added);
+        assertThat(nextKeywords.matching("newco", next)).containsExactly(added);
+        assertThat(nextKeywords.matching("ze", next)).containsExactly(added);
+        assertThat(keywords.matching("ALICE", USERS)).containsExactly(USERS.get(0), USERS.get(2));
+        assertThat(keywords.matching("newco", USERS)).isEmpty();
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = UserDataSettings.Storage.class, names = {"COLUMNS", "OFF_HEAP"})
+    void columnarKeywordsMatchTheKeywordsOverObjects(UserDataSettings.Storage storage) {
+        UserColumns generated = new UserDataGenerator(UserDataSettings.defaults().withSize(640)).generateColumns();
+        ColumnarUsers columns = storage == UserDataSettings.Storage.OFF_HEAP ? generated.offHeap(Arena.ofAuto()) : generated;
+        User added = user(640, "Alice Zeta", "Zeta@NewCo.io");
+        ColumnarUsers next = columns.with(640, added);
+        UserKeywords keywords = UserKeywords.of(columns);
+        UserKeywords nextKeywords = keywords.with(640, added, next);
+        List<User> users = columns.asList();
+        List<User> nextUsers = next.asList();
+
+        for (String keyword : List.of("", "a", "Li", "alice", "SMITH", "@company.com", " 1", "newco", "zzz")) {
+            assertThat(keywords.matching(keyword, users)).as(keyword)
+                .isEqualTo(UserKeywords.of(users).matching(keyword, users));
+            assertThat(nextKeywords.matching(keyword, nextUsers)).as(keyword)
+                .isEqualTo(UserKeywords.of(nextUsers).matching(keyword, nextUsers));
+        }
+        assertThat(nextKeywords.matching("newco", nextUsers)).containsExactly(added);
+    }
+}
@@ -0,0 +1,57 @@
+package info.jab.info;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Readers share immutable snapshots: the users returned are never copied, cannot be modified, and
+ * stay the same when a user is added afterwards.
+ */
+class UserSearchServiceTest {
+
+    private static final User ADDED = new User(9000L, "Added User", "added@company.com", "Legal", "Manager",
+        LocalDateTime.of(2025, 1, 1, 0, 0), true);
+
+    private static UserSearchService service(UserDataSettings.Storage storage) {
+        return new UserSearchService(UserDataSettings.defaults().withSize(100).withStorage(storage));
+    }
+
+    @ParameterizedTest
+    @EnumSource(UserDataSettings.Storage.class)
+    void usersCannotBeModified(UserDataSettings.Storage storage) {
+        List<User> users = service(storage).getAllUsers();
+
+        assertThatThrownBy(() -> users.add(ADDED)).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> users.remove(0)).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @ParameterizedTest
+    @EnumSource(UserDataSettings.Storage.class)
+    void usersAreNotCopiedPerRead(UserDataSettings.Storage storage) {
+        UserSearchService service = service(storage);
+
+        assertThat(service.getAllUsers()).isSameAs(service.getAllUsers());
+    }
+
+    @ParameterizedTest
+    @EnumSource(UserDataSettings.Storage.class)
+    void addUserLeavesReturnedUsersUnchanged(UserDataSettings.Storage storage) {
+        UserSearchService service = service(storage);
+        List<User> before = service.getAllUsers();
+        List<User> copy = List.copyOf(before);
+        List<User> legalBefore = service.getUsersByDepartment("Legal");
+
+        service.addUser(ADDED);
+
+        assertThat(before).isEqualTo(copy);
+        assertThat(legalBefore).isEmpty();
+        assertThat(service.getAllUsers()).hasSize(copy.size() + 1).endsWith(ADDED);
+        assertThat(service.getUsersByDepartment("Legal")).containsExactly(ADDED);
+        assertThat(service.getUsersByKeyword("added@")).containsExactly(ADDED);
+    }
+}
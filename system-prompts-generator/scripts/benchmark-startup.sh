@@ -0,0 +1,62 @@
+#!/bin/bash
+
+# Startup benchmark for the Cursor Rules Generator CLI
+# Times a full regeneration of every rule with each launch mode available:
+#   - plain JVM without class data sharing
+#   - JVM with the default CDS archive
+#   - JVM with the AppCDS archive recorded by `./mvnw package -Pcli`
+#   - native image built by `./mvnw package -Pnative` (if present)
+
+set -e
+
+RUNS=${RUNS:-10}
+
+MODULE_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")/.." && pwd)"
+JAR="$MODULE_DIR/target/cursor-rules-generator.jar"
+CDS_ARCHIVE="$MODULE_DIR/target/cursor-rules-generator.jsa"
+NATIVE="$MODULE_DIR/target/cursor-rules-generator"
+OUTPUT="$MODULE_DIR/target/startup-benchmark"
+RESULTS="$MODULE_DIR/target/startup-benchmark-results.csv"
+
+if [ ! -f "$JAR" ]; then
+    echo "CLI jar not found: $JAR" >&2
+    echo "Build it with: ./mvnw package -Pcli -DskipTests" >&2
+    exit 2
+fi
+
+# Runs a command RUNS times and prints "<mode>,<average ms>,<min ms>"
+measure() {
+    local mode=$1
+    shift
+    local total=0
+    local min=
+    for ((i = 0; i < RUNS; i++)); do
+        local start end elapsed
+        start=$(date +%s%N)
+        "$@" --output "$OUTPUT" > /dev/null
+        end=$(date +%s%N)
+        elapsed=$(((end - start) / 1000000))
+        total=$((total + elapsed))
+        if [ -z "$min" ] || [ "$elapsed" -lt "$min" ]; then
+            min=$elapsed
+        fi
+    done
+    echo "$mode,$((total / RUNS)),$min"
+}
+
+JVM_OPTS=(-XX:TieredStopAtLevel=1 -XX:+UseSerialGC)
+
+echo "mode,average_ms,min_ms" > "$RESULTS"
+measure "jvm-no-cds" java "${JVM_OPTS[@]}" -Xshare:off -jar "$JAR" >> "$RESULTS"
+measure "jvm-default-cds" java "${JVM_OPTS[@]}" -jar "$JAR" >> "$RESULTS"
+if [ -f "$CDS_ARCHIVE" ]; then
+    measure "jvm-appcds" java "${JVM_OPTS[@]}" -XX:SharedArchiveFile="$CDS_ARCHIVE" -jar "$JAR" >> "$RESULTS"
+fi
+if [ -x "$NATIVE" ]; then
+    measure "native-image" "$NATIVE" >> "$RESULTS"
+fi
+
+echo "Full regeneration, $RUNS runs per mode (results in $RESULTS):"
+while IFS=, read -r mode average min; do
+    printf "%-18s %12s %8s\n" "$mode" "$average" "$min"
+done < "$RESULTS"
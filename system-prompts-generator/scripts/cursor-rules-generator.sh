@@ -0,0 +1,29 @@
+#!/bin/bash
+
+# Fast-start launcher for the Cursor Rules Generator CLI
+# Uses the AppCDS archive recorded by `./mvnw package -Pcli` when present.
+# All arguments are passed to the CLI; run with --help for the options.
+
+set -e
+
+MODULE_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")/.." && pwd)"
+JAR="$MODULE_DIR/target/cursor-rules-generator.jar"
+CDS_ARCHIVE="$MODULE_DIR/target/cursor-rules-generator.jsa"
+
+if [ ! -f "$JAR" ]; then
+    echo "CLI jar not found: $JAR" >&2
+    echo "Build it with: ./mvnw package -Pcli -DskipTests" >&2
+    exit 2
+fi
+
+JVM_OPTS=(
+    # Short-lived process: C1 only avoids compiling code that would never pay off
+    -XX:TieredStopAtLevel=1
+    -XX:+UseSerialGC
+    -Xshare:auto
+)
+if [ -f "$CDS_ARCHIVE" ]; then
+    JVM_OPTS+=(-XX:SharedArchiveFile="$CDS_ARCHIVE")
+fi
+
+exec java "${JVM_OPTS[@]}" -jar "$JAR" "$@"
@@ -0,0 +1,101 @@
+package info.jab.pml.benchmarks;
+
+import info.jab.pml.CursorRulesGenerator;
+import info.jab.pml.OutputTarget;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Renders one rule for several output targets.
+ * <p>
+ * {@code generatePerTarget} runs the full pipeline once per target, parsing and resolving
+ * the XIncludes each time; {@code fanOut} parses once and applies the stylesheet of every
+ * target in parallel through {@link CursorRulesGenerator#generate(String, List)}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 2, jvmArgs = {"-Xms1G", "-Xmx1G"})
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class FanOutBenchmark {
+
+    @Param({"126-java-logging", "171-java-diagrams", "131-java-unit-testing"})
+    private String baseName;
+
+    @Param({"1", "3", "6"})
+    private int targetCount;
+
+    private final CursorRulesGenerator generator = new CursorRulesGenerator();
+    private Path outputDirectory;
+    private List<OutputTarget> targets;
+
+    @Setup
+    public void setup() throws IOException {
+        outputDirectory = Files.createTempDirectory("fan-out-benchmark");
+        targets = IntStream.range(0, targetCount)
+            .mapToObj(i -> new OutputTarget(GenerationBenchmark.XSL_FILE_NAME, outputDirectory.resolve("target-" + i), ".md"))
+            .toList();
+        fanOut();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(outputDirectory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public int generatePerTarget() {
+        for (OutputTarget target : targets) {
+            generator.generate(baseName + ".xml", target.xslFileName(), target.outputFile(baseName));
+        }
+        return targets.size();
+    }
+
+    @Benchmark
+    public List<Path> fanOut() {
+        return generator.generate(baseName + ".xml", targets);
+    }
+
+    /**
+     * Main method to run the fan-out comparison with allocation profiling and JSON output configuration
+     */
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(FanOutBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-fan-out-benchmark-results.json")
+                .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,171 @@
+package info.jab.pml.benchmarks;
+
+import info.jab.pml.BatchGenerationResult;
+import info.jab.pml.BatchOptions;
+import info.jab.pml.CursorRulesGenerator;
+import info.jab.pml.FragmentCache;
+import info.jab.pml.SystemPromptsInventory;
+import info.jab.pml.TemplatesCache;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * End-to-end benchmarks of {@link CursorRulesGenerator}.
+ * <p>
+ * {@code singleFileWarm} renders one rule with warm stylesheet and fragment caches, the
+ * steady state of a batch or watch loop. {@code singleFileColdStylesheet} compiles the
+ * stylesheet for every rule, as the generator did before stylesheets were cached.
+ * {@link Inventory} renders the whole {@link SystemPromptsInventory} sequentially and
+ * through {@link CursorRulesGenerator#generateAll}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 2, jvmArgs = {"-Xms1G", "-Xmx1G"})
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class GenerationBenchmark {
+
+    static final String XSL_FILE_NAME = "cursor-rules.xsl";
+
+    // JMH needs constant values; setup fails the run when they drift from the inventory
+    @Param({
+        "100-java-cursor-rules-list",
+        "110-java-maven-best-practices",
+        "111-java-maven-dependencies",
+        "112-java-maven-plugins",
+        "113-java-maven-documentation",
+        "121-java-object-oriented-design",
+        "122-java-type-design",
+        "124-java-secure-coding",
+        "125-java-concurrency",
+        "126-java-logging",
+        "127-java-exception-handling",
+        "128-java-generics",
+        "131-java-unit-testing",
+        "141-java-refactoring-with-modern-features",
+        "142-java-functional-programming",
+        "143-java-functional-exception-handling",
+        "144-java-data-oriented-programming",
+        "151-java-performance-jmeter",
+        "161-java-profiling-detect",
+        "162-java-profiling-analyze",
+        "164-java-profiling-compare",
+        "170-java-documentation",
+        "171-java-diagrams",
+        "behaviour-consultative-interaction",
+        "behaviour-progressive-learning",
+        "behaviour-article-writer"
+    })
+    private String baseName;
+
+    private CursorRulesGenerator warmGenerator;
+
+    @Setup
+    public void setup() throws NoSuchFieldException {
+        checkParamsMatchInventory(GenerationBenchmark.class);
+        warmGenerator = CursorRulesGenerator.builder()
+            .templatesCache(new TemplatesCache())
+            .fragmentCache(new FragmentCache(FragmentCache.DEFAULT_MAX_BYTES))
+            .build();
+        warmGenerator.generate(baseName + ".xml", XSL_FILE_NAME);
+    }
+
+    @Benchmark
+    public String singleFileWarm() {
+        return warmGenerator.generate(baseName + ".xml", XSL_FILE_NAME);
+    }
+
+    @Benchmark
+    public String singleFileColdStylesheet() {
+        CursorRulesGenerator coldGenerator = CursorRulesGenerator.builder()
+            .templatesCache(new TemplatesCache())
+            .build();
+        return coldGenerator.generate(baseName + ".xml", XSL_FILE_NAME);
+    }
+
+    /**
+     * Fails the run when the {@code baseName} defaults of {@code benchmark} no longer list exactly the inventory's rules.
+     */
+    static void checkParamsMatchInventory(Class<?> benchmark) throws NoSuchFieldException {
+        Set<String> params = Set.of(benchmark.getDeclaredField("baseName").getAnnotation(Param.class).value());
+        Set<String> inventory = SystemPromptsInventory.baseNames().collect(Collectors.toSet());
+        if (!params.equals(inventory)) {
+            throw new IllegalStateException(benchmark.getSimpleName()
+                + " baseName @Param is out of sync with SystemPromptsInventory, missing: "
+                + inventory.stream().filter(name -> !params.contains(name)).sorted().toList()
+                + ", unknown: " + params.stream().filter(name -> !inventory.contains(name)).sorted().toList());
+        }
+    }
+
+    /**
+     * Full-inventory generation, sequential versus the parallel batch API.
+     */
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @State(Scope.Benchmark)
+    @Fork(value = 2, jvmArgs = {"-Xms1G", "-Xmx1G"})
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 5)
+    public static class Inventory {
+
+        private final List<String> baseNames = SystemPromptsInventory.baseNames().toList();
+        private CursorRulesGenerator generator;
+
+        @Setup
+        public void setup() {
+            generator = CursorRulesGenerator.builder()
+                .templatesCache(new TemplatesCache())
+                .fragmentCache(new FragmentCache(FragmentCache.DEFAULT_MAX_BYTES))
+                .build();
+        }
+
+        @Benchmark
+        public int sequential() {
+            int length = 0;
+            for (String name : baseNames) {
+                length += generator.generate(name + ".xml", XSL_FILE_NAME).length();
+            }
+            return length;
+        }
+
+        @Benchmark
+        public BatchGenerationResult parallelBatch() {
+            return generator.generateAll(baseNames, XSL_FILE_NAME, BatchOptions.defaults());
+        }
+    }
+
+    /**
+     * Runs every generator benchmark with allocation profiling and exports the results as JSON,
+     * so that they can be archived and compared build over build.
+     */
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(GenerationBenchmark.class.getPackageName() + ".*")
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-generator-benchmark-results.json")
+                .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,169 @@
+package info.jab.pml.benchmarks;
+
+import info.jab.pml.ResourceProvider;
+import info.jab.pml.RuleSchemaValidator;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.SAXParserFactory;
+import javax.xml.transform.Templates;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.sax.SAXSource;
+import javax.xml.transform.stream.StreamResult;
+import javax.xml.transform.stream.StreamSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
+
+/**
+ * Isolates the phases of rule generation so a regression can be attributed to one of them.
+ * <ul>
+ * <li>{@code compileStylesheet} - compiling {@code cursor-rules.xsl} (paid once per JVM when cached)</li>
+ * <li>{@code xincludeParse} - parsing a rule XML into a DOM with XInclude resolution</li>
+ * <li>{@code serializationRoundTrip} - the former identity serialization and SAX re-parse of that DOM,
+ *     kept as a reference for the cost the generator no longer pays</li>
+ * <li>{@code schemaValidate} - the optional validation of that DOM against the bundled, pre-compiled schema</li>
+ * <li>{@code xsltTransform} - applying the compiled stylesheet to the pre-parsed DOM</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 2, jvmArgs = {"-Xms1G", "-Xmx1G"})
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class GenerationPhasesBenchmark {
+
+    // The same rules as GenerationBenchmark; setup fails the run when they drift from the inventory
+    @Param({
+        "100-java-cursor-rules-list",
+        "110-java-maven-best-practices",
+        "111-java-maven-dependencies",
+        "112-java-maven-plugins",
+        "113-java-maven-documentation",
+        "121-java-object-oriented-design",
+        "122-java-type-design",
+        "124-java-secure-coding",
+        "125-java-concurrency",
+        "126-java-logging",
+        "127-java-exception-handling",
+        "128-java-generics",
+        "131-java-unit-testing",
+        "141-java-refactoring-with-modern-features",
+        "142-java-functional-programming",
+        "143-java-functional-exception-handling",
+        "144-java-data-oriented-programming",
+        "151-java-performance-jmeter",
+        "161-java-profiling-detect",
+        "162-java-profiling-analyze",
+        "164-java-profiling-compare",
+        "170-java-documentation",
+        "171-java-diagrams",
+        "behaviour-consultative-interaction",
+        "behaviour-progressive-learning",
+        "behaviour-article-writer"
+    })
+    private String baseName;
+
+    private byte[] xslBytes;
+    private byte[] xmlBytes;
+    private String baseUri;
+    private Templates templates;
+    private Document document;
+
+    @Setup
+    public void setup() throws Exception {
+        GenerationBenchmark.checkParamsMatchInventory(GenerationPhasesBenchmark.class);
+        xslBytes = readResource(GenerationBenchmark.XSL_FILE_NAME);
+        xmlBytes = readResource(baseName + ".xml");
+        baseUri = ResourceProvider.classpath().baseUri();
+        templates = compileStylesheet();
+        document = xincludeParse();
+    }
+
+    @Benchmark
+    public Templates compileStylesheet() throws Exception {
+        return TransformerFactory.newInstance().newTemplates(new StreamSource(new ByteArrayInputStream(xslBytes)));
+    }
+
+    @Benchmark
+    public Document xincludeParse() throws Exception {
+        DocumentBuilderFactory domFactory = DocumentBuilderFactory.newInstance();
+        domFactory.setNamespaceAware(true);
+        domFactory.setXIncludeAware(true);
+
+        InputSource inputSource = new InputSource(new ByteArrayInputStream(xmlBytes));
+        inputSource.setSystemId(baseUri);
+        return domFactory.newDocumentBuilder().parse(inputSource);
+    }
+
+    @Benchmark
+    public SAXSource serializationRoundTrip() throws Exception {
+        ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+        Transformer identity = TransformerFactory.newInstance().newTransformer();
+        identity.transform(new DOMSource(document), new StreamResult(serialized));
+
+        SAXParserFactory saxFactory = SAXParserFactory.newInstance();
+        saxFactory.setNamespaceAware(true);
+        SAXSource saxSource = new SAXSource(
+            saxFactory.newSAXParser().getXMLReader(),
+            new InputSource(new ByteArrayInputStream(serialized.toByteArray())));
+        // Drive the reader so the re-parse is actually measured
+        saxSource.getXMLReader().parse(saxSource.getInputSource());
+        return saxSource;
+    }
+
+    @Benchmark
+    public List<RuleSchemaValidator.Violation> schemaValidate() {
+        return RuleSchemaValidator.bundled().validate(baseName + ".xml", new DOMSource(document, baseUri));
+    }
+
+    @Benchmark
+    public String xsltTransform() throws Exception {
+        StringWriter output = new StringWriter();
+        templates.newTransformer().transform(new DOMSource(document, baseUri), new StreamResult(output));
+        return output.toString();
+    }
+
+    private byte[] readResource(String name) throws Exception {
+        try (InputStream stream = getClass().getClassLoader().getResourceAsStream(name)) {
+            return stream.readAllBytes();
+        }
+    }
+
+    /**
+     * Main method to run the phase benchmarks with allocation profiling and JSON output configuration
+     */
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(GenerationPhasesBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-generation-phases-benchmark-results.json")
+                .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,114 @@
+package info.jab.pml.benchmarks;
+
+import info.jab.pml.CursorRulesGenerator;
+import info.jab.pml.FragmentCache;
+import info.jab.pml.ResourceProvider;
+import info.jab.pml.SystemPromptsInventory;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Generates the full inventory from each kind of {@link ResourceProvider}.
+ * <p>
+ * {@code classpath} reads through the class loader, {@code directory} from
+ * {@code src/main/resources}, and {@code memory} from an in-memory copy of that directory,
+ * isolating the pipeline from class loader and file system lookups. Run from the module directory.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 2, jvmArgs = {"-Xms1G", "-Xmx1G"})
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ResourceProviderBenchmark {
+
+    private static final Path SOURCES = Path.of("src/main/resources");
+
+    @Param({"classpath", "directory", "memory"})
+    private String provider;
+
+    private final List<String> xmlFileNames = SystemPromptsInventory.xmlFilenames().toList();
+    private CursorRulesGenerator generator;
+
+    @Setup
+    public void setup() {
+        ResourceProvider resourceProvider = switch (provider) {
+            case "classpath" -> ResourceProvider.classpath();
+            case "directory" -> ResourceProvider.directory(SOURCES);
+            case "memory" -> ResourceProvider.inMemory(readSources());
+            default -> throw new IllegalArgumentException("Unknown provider: " + provider);
+        };
+        generator = CursorRulesGenerator.builder()
+            .resourceProvider(resourceProvider)
+            .fragmentCache(new FragmentCache(FragmentCache.DEFAULT_MAX_BYTES))
+            .build();
+        generateInventory();
+    }
+
+    @Benchmark
+    public int generateInventory() {
+        int length = 0;
+        for (String xmlFileName : xmlFileNames) {
+            length += generator.generate(xmlFileName, GenerationBenchmark.XSL_FILE_NAME).length();
+        }
+        return length;
+    }
+
+    private static Map<String, String> readSources() {
+        try (Stream<Path> files = Files.walk(SOURCES)) {
+            return files
+                .filter(Files::isRegularFile)
+                .collect(Collectors.toMap(
+                    file -> SOURCES.relativize(file).toString().replace('\\', '/'),
+                    ResourceProviderBenchmark::read));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read sources: " + SOURCES, e);
+        }
+    }
+
+    private static String read(Path file) {
+        try {
+            return Files.readString(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read: " + file, e);
+        }
+    }
+
+    /**
+     * Main method to run the provider comparison with allocation profiling and JSON output configuration
+     */
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ResourceProviderBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-resource-provider-benchmark-results.json")
+                .build();
+
+        new Runner(options).run();
+    }
+}
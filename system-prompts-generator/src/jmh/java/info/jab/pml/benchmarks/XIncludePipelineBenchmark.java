@@ -0,0 +1,118 @@
+package info.jab.pml.benchmarks;
+
+import info.jab.pml.CursorRulesGenerator;
+import info.jab.pml.ResourceProvider;
+import info.jab.pml.TemplatesCache;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.SAXParserFactory;
+import javax.xml.transform.Templates;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.sax.SAXSource;
+import javax.xml.transform.stream.StreamResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+/**
+ * Compares the single-pass XInclude pipeline used by {@link CursorRulesGenerator}
+ * against the former DOM → bytes → SAX round trip for the largest rule XMLs.
+ * <p>
+ * Both variants share the same compiled stylesheet, so the difference is the
+ * parse/serialize/re-parse overhead only. Run with the GC profiler to compare
+ * {@code gc.alloc.rate.norm} (bytes allocated per generation).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 2, jvmArgs = {"-Xms1G", "-Xmx1G"})
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class XIncludePipelineBenchmark {
+
+    private static final String XSL_FILE_NAME = "cursor-rules.xsl";
+
+    @Param({"121-java-object-oriented-design", "127-java-exception-handling", "125-java-concurrency", "112-java-maven-plugins"})
+    private String baseName;
+
+    private CursorRulesGenerator generator;
+    private Templates templates;
+    private String baseUri;
+
+    @Setup
+    public void setup() {
+        TemplatesCache templatesCache = new TemplatesCache();
+        templates = templatesCache.get(XSL_FILE_NAME).orElseThrow();
+        generator = CursorRulesGenerator.builder().templatesCache(templatesCache).build();
+        baseUri = ResourceProvider.classpath().baseUri();
+    }
+
+    @Benchmark
+    public String singlePassDomSource() {
+        return generator.generate(baseName + ".xml", XSL_FILE_NAME);
+    }
+
+    @Benchmark
+    public String legacyRoundTrip() throws Exception {
+        try (InputStream xmlStream = getClass().getClassLoader().getResourceAsStream(baseName + ".xml")) {
+            DocumentBuilderFactory domFactory = DocumentBuilderFactory.newInstance();
+            domFactory.setNamespaceAware(true);
+            domFactory.setXIncludeAware(true);
+
+            InputSource inputSource = new InputSource(xmlStream);
+            inputSource.setSystemId(baseUri);
+            Document document = domFactory.newDocumentBuilder().parse(inputSource);
+
+            SAXParserFactory saxFactory = SAXParserFactory.newInstance();
+            saxFactory.setNamespaceAware(true);
+            saxFactory.setValidating(false);
+            XMLReader xmlReader = saxFactory.newSAXParser().getXMLReader();
+
+            Transformer identity = TransformerFactory.newInstance().newTransformer();
+            ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+            identity.transform(new DOMSource(document), new StreamResult(serialized));
+
+            SAXSource saxSource = new SAXSource(xmlReader, new InputSource(new ByteArrayInputStream(serialized.toByteArray())));
+            StringWriter output = new StringWriter();
+            templates.newTransformer().transform(saxSource, new StreamResult(output));
+            return output.toString().trim();
+        }
+    }
+
+    /**
+     * Main method to run benchmarks with allocation profiling and JSON output configuration
+     */
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(XIncludePipelineBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-xinclude-pipeline-benchmark-results.json")
+                .build();
+
+        new Runner(options).run();
+    }
+}
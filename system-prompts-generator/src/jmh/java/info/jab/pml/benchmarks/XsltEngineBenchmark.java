@@ -0,0 +1,87 @@
+package info.jab.pml.benchmarks;
+
+import info.jab.pml.CursorRulesGenerator;
+import info.jab.pml.FragmentCache;
+import info.jab.pml.SystemPromptsInventory;
+import info.jab.pml.TemplatesCache;
+import info.jab.pml.XsltEngine;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import javax.xml.transform.Templates;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the {@link XsltEngine}s on the full rule inventory.
+ * <p>
+ * {@code compileStylesheet} measures stylesheet compilation, {@code generateInventory}
+ * renders every rule of {@link SystemPromptsInventory} with a warm stylesheet. Run with
+ * the GC profiler ({@code -prof gc}) to compare memory through {@code gc.alloc.rate.norm}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 2, jvmArgs = {"-Xms1G", "-Xmx1G"})
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class XsltEngineBenchmark {
+
+    @Param({"JDK", "SAXON"})
+    private XsltEngine engine;
+
+    private final List<String> xmlFileNames = SystemPromptsInventory.xmlFilenames().toList();
+    private CursorRulesGenerator generator;
+
+    @Setup
+    public void setup() {
+        generator = CursorRulesGenerator.builder()
+            .templatesCache(new TemplatesCache(engine.newTransformerFactory()))
+            .fragmentCache(new FragmentCache(FragmentCache.DEFAULT_MAX_BYTES))
+            .build();
+        generateInventory();
+    }
+
+    @Benchmark
+    public Optional<Templates> compileStylesheet() {
+        return new TemplatesCache(engine.newTransformerFactory()).get(GenerationBenchmark.XSL_FILE_NAME);
+    }
+
+    @Benchmark
+    public int generateInventory() {
+        int length = 0;
+        for (String xmlFileName : xmlFileNames) {
+            length += generator.generate(xmlFileName, GenerationBenchmark.XSL_FILE_NAME).length();
+        }
+        return length;
+    }
+
+    /**
+     * Main method to run the engine comparison with allocation profiling and JSON output configuration
+     */
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(XsltEngineBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-xslt-engine-benchmark-results.json")
+                .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,31 @@
+package info.jab.pml;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Per-rule results of a batch generation, in the order the rules were requested.
+ *
+ * @param results one result per requested rule
+ * @param elapsed the wall-clock time of the whole batch
+ */
+public record BatchGenerationResult(List<GenerationResult> results, Duration elapsed) {
+
+    public BatchGenerationResult {
+        results = List.copyOf(Objects.requireNonNull(results, "results"));
+        Objects.requireNonNull(elapsed, "elapsed");
+    }
+
+    public List<GenerationResult> successes() {
+        return results.stream().filter(GenerationResult::succeeded).toList();
+    }
+
+    public List<GenerationResult> failures() {
+        return results.stream().filter(result -> !result.succeeded()).toList();
+    }
+
+    public boolean hasFailures() {
+        return results.stream().anyMatch(result -> !result.succeeded());
+    }
+}
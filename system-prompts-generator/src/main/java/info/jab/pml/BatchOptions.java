@@ -0,0 +1,56 @@
+package info.jab.pml;
+
+import java.util.Objects;
+
+/**
+ * Options for {@link CursorRulesGenerator#generateAll(java.util.List, String, BatchOptions)}.
+ *
+ * @param parallelism the maximum number of rules generated concurrently
+ * @param failureMode how the batch reacts to a rule that fails to generate
+ * @param validateStructure whether each generated rule is checked by {@link MdcStructureValidator};
+ *     a rule with violations is reported as failed with an {@link MdcStructureException}
+ */
+public record BatchOptions(int parallelism, FailureMode failureMode, boolean validateStructure) {
+
+    /**
+     * Behaviour of a batch when one of its rules fails.
+     */
+    public enum FailureMode {
+        /** Cancel pending rules and throw on the first failure. */
+        FAIL_FAST,
+        /** Generate every rule and report failures in the batch result. */
+        COLLECT_ERRORS
+    }
+
+    public BatchOptions {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1, was: " + parallelism);
+        }
+        Objects.requireNonNull(failureMode, "failureMode");
+    }
+
+    public BatchOptions(int parallelism, FailureMode failureMode) {
+        this(parallelism, failureMode, false);
+    }
+
+    /**
+     * One worker per available processor, collecting errors, without structural validation.
+     *
+     * @return the default batch options
+     */
+    public static BatchOptions defaults() {
+        return new BatchOptions(Runtime.getRuntime().availableProcessors(), FailureMode.COLLECT_ERRORS);
+    }
+
+    public BatchOptions withParallelism(int parallelism) {
+        return new BatchOptions(parallelism, failureMode, validateStructure);
+    }
+
+    public BatchOptions withFailureMode(FailureMode failureMode) {
+        return new BatchOptions(parallelism, failureMode, validateStructure);
+    }
+
+    public BatchOptions withStructureValidation() {
+        return new BatchOptions(parallelism, failureMode, true);
+    }
+}
@@ -0,0 +1,52 @@
+package info.jab.pml;
+
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Reads resources through the class loader of the generator.
+ * <p>
+ * The base URI is resolved once, when the singleton is created, instead of scanning the
+ * class loader for every parsed rule.
+ */
+final class ClasspathResourceProvider implements ResourceProvider {
+
+    // Packaged at the root of the rules, next to every rule XML and the fragments directory
+    private static final String ANCHOR_RESOURCE = "cursor-rules.xsl";
+
+    static final ClasspathResourceProvider INSTANCE = new ClasspathResourceProvider();
+
+    private final String baseUri;
+
+    private ClasspathResourceProvider() {
+        this.baseUri = resolveBaseUri();
+    }
+
+    @Override
+    public Optional<InputStream> open(String name) {
+        return Optional.ofNullable(getClass().getClassLoader().getResourceAsStream(name));
+    }
+
+    @Override
+    public String baseUri() {
+        return baseUri;
+    }
+
+    /**
+     * Derives the root from the location of a resource packaged with the rules, e.g.
+     * {@code file:/.../target/classes/}, {@code jar:file:/app.jar!/} or, in native images,
+     * {@code resource:/}. Anchoring on a known resource finds the directory or jar that actually
+     * holds the rules, whatever other roots (such as {@code test-classes}) precede it.
+     */
+    private String resolveBaseUri() {
+        URL anchor = getClass().getClassLoader().getResource(ANCHOR_RESOURCE);
+        if (Objects.isNull(anchor)) {
+            throw new IllegalStateException(
+                "Cannot resolve the classpath resource root: " + ANCHOR_RESOURCE + " is not on the classpath");
+        }
+        String location = anchor.toString();
+        return location.substring(0, location.length() - ANCHOR_RESOURCE.length());
+    }
+}
@@ -0,0 +1,26 @@
+package info.jab.pml;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 content hashing used to detect changed generator inputs and outputs.
+ */
+final class ContentHash {
+
+    private ContentHash() {
+    }
+
+    /**
+     * Returns the lowercase hexadecimal SHA-256 digest of the given bytes.
+     */
+    static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
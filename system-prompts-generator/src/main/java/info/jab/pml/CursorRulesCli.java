@@ -0,0 +1,314 @@
+package info.jab.pml;
+
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Standalone command line entry point for the generator.
+ * <p>
+ * Generates rules without booting Maven or a test framework. Rules are read from the
+ * classpath (the jar itself) unless {@code --source} points at a directory such as
+ * {@code src/main/resources}. Meant to be started from the AppCDS-backed launcher or
+ * a native image; see the module README.
+ * <p>
+ * Run with {@code --help} for the options. Without base names every rule is generated. The exit status is {@code 0} on success,
+ * {@code 1} if any rule failed and {@code 2} on invalid arguments.
+ */
+public final class CursorRulesCli {
+
+    static final int EXIT_OK = 0;
+    static final int EXIT_FAILURES = 1;
+    static final int EXIT_USAGE = 2;
+
+    private static final String DEFAULT_XSL = "cursor-rules.xsl";
+    private static final Path DEFAULT_OUTPUT = Path.of("target/cursor-rules");
+
+    private final PrintStream out;
+    private final PrintStream err;
+
+    CursorRulesCli(PrintStream out, PrintStream err) {
+        this.out = Objects.requireNonNull(out, "out");
+        this.err = Objects.requireNonNull(err, "err");
+    }
+
+    public static void main(String[] args) {
+        int status = new CursorRulesCli(System.out, System.err).run(args);
+        if (status != EXIT_OK) {
+            System.exit(status);
+        }
+    }
+
+    /**
+     * Parses the arguments and runs the requested generation.
+     *
+     * @param args the command line arguments
+     * @return the process exit status
+     */
+    int run(String[] args) {
+        Optional<Options> parsed = parse(args);
+        if (parsed.isEmpty()) {
+            return EXIT_USAGE;
+        }
+        Options options = parsed.get();
+        if (options.help()) {
+            out.println(usage());
+            return EXIT_OK;
+        }
+        if (options.watch() && options.port() > 0) {
+            err.println("--watch and --serve cannot be combined");
+            return EXIT_USAGE;
+        }
+        if (options.watch()) {
+            return watch(options);
+        }
+        if (options.port() > 0) {
+            return serve(options);
+        }
+        CursorRulesGenerator generator = generator(options);
+        List<String> baseNames = options.baseNames().isEmpty() ? allRules(options) : options.baseNames();
+        BatchGenerationResult batch = options.incremental()
+            ? incremental(generator, baseNames, options)
+            : generate(generator, baseNames, options);
+        return report(batch);
+    }
+
+    private BatchGenerationResult generate(CursorRulesGenerator generator, List<String> baseNames, Options options) {
+        BatchGenerationResult batch = generator.generateAll(baseNames, options.xsl(), batchOptions(options));
+        OutputSink outputSink = new OutputSink();
+        for (GenerationResult result : batch.successes()) {
+            outputSink.write(options.output().resolve(result.baseName() + ".md"), result.content());
+        }
+        reportWrites(outputSink);
+        return batch;
+    }
+
+    private BatchGenerationResult incremental(CursorRulesGenerator generator, List<String> baseNames, Options options) {
+        OutputSink outputSink = new OutputSink();
+        IncrementalResult result = new IncrementalGenerator(generator, options.output(), outputSink)
+            .generate(baseNames, options.xsl(), batchOptions(options));
+        out.println(result.upToDate().size() + " rule(s) up to date");
+        reportWrites(outputSink);
+        return result.batch();
+    }
+
+    private void reportWrites(OutputSink outputSink) {
+        out.println(outputSink.written() + " file(s) written, " + outputSink.unchanged() + " unchanged");
+    }
+
+    private int watch(Options options) {
+        if (Objects.isNull(options.source())) {
+            err.println("--watch requires --source <dir>");
+            return EXIT_USAGE;
+        }
+        try (RuleWatcher watcher = new RuleWatcher(
+                options.source(), options.output(), options.xsl(), engineOf(options), this::report)) {
+            out.println("Watching " + options.source().toAbsolutePath() + ", writing to " + options.output().toAbsolutePath());
+            watcher.run();
+        }
+        return EXIT_OK;
+    }
+
+    private int serve(Options options) {
+        try (RuleServer server = new RuleServer(generator(options), options.xsl(), new InetSocketAddress(options.port()))) {
+            if (Objects.nonNull(options.source())) {
+                // Edits to the sources drop the memoized renders instead of being served stale
+                server.invalidateOnChange(options.source());
+            }
+            server.start();
+            out.println("Serving rules on http://localhost:" + server.port() + "/rules/{baseName}");
+            Thread.currentThread().join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return EXIT_OK;
+    }
+
+    private int report(BatchGenerationResult batch) {
+        out.println("Generated " + batch.successes().size() + " rule(s) in " + batch.elapsed().toMillis() + " ms");
+        batch.failures().forEach(failure ->
+            err.println("Failed to generate " + failure.baseName() + ": " + failure.failure().getMessage()));
+        return batch.hasFailures() ? EXIT_FAILURES : EXIT_OK;
+    }
+
+    private static CursorRulesGenerator generator(Options options) {
+        CursorRulesGenerator.Builder builder = CursorRulesGenerator.builder();
+        Optional.ofNullable(options.source()).map(ResourceProvider::directory).ifPresent(builder::resourceProvider);
+        Optional.ofNullable(options.engine()).ifPresent(builder::xsltEngine);
+        return builder.build();
+    }
+
+    private static XsltEngine engineOf(Options options) {
+        return Optional.ofNullable(options.engine()).orElseGet(XsltEngine::configured);
+    }
+
+    private static List<String> allRules(Options options) {
+        return Objects.isNull(options.source())
+            ? SystemPromptsInventory.baseNames().toList()
+            : new DirectoryResourceProvider(options.source()).ruleBaseNames();
+    }
+
+    private static BatchOptions batchOptions(Options options) {
+        BatchOptions defaults = BatchOptions.defaults();
+        BatchOptions batchOptions = options.parallelism() > 0 ? defaults.withParallelism(options.parallelism()) : defaults;
+        return options.validate() ? batchOptions.withStructureValidation() : batchOptions;
+    }
+
+    private Optional<Options> parse(String[] args) {
+        Options options = Options.defaults();
+        List<String> baseNames = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                switch (arg) {
+                    case "--help", "-h" -> options = options.withHelp();
+                    case "--output", "-o" -> options = options.withOutput(Path.of(value(args, ++i, arg)));
+                    case "--source", "-s" -> options = options.withSource(Path.of(value(args, ++i, arg)));
+                    case "--xsl" -> options = options.withXsl(value(args, ++i, arg));
+                    case "--engine" -> options = options.withEngine(engine(value(args, ++i, arg)));
+                    case "--parallelism" -> options = options.withParallelism(parallelism(value(args, ++i, arg)));
+                    case "--incremental" -> options = options.withIncremental();
+                    case "--validate" -> options = options.withValidate();
+                    case "--watch" -> options = options.withWatch();
+                    case "--serve" -> options = options.withPort(port(value(args, ++i, arg)));
+                    default -> {
+                        if (arg.startsWith("-")) {
+                            throw new IllegalArgumentException("Unknown option: " + arg);
+                        }
+                        baseNames.add(arg.endsWith(".xml") ? arg.substring(0, arg.length() - ".xml".length()) : arg);
+                    }
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            err.println(usage());
+            return Optional.empty();
+        }
+        return Optional.of(options.withBaseNames(baseNames));
+    }
+
+    private static String value(String[] args, int index, String option) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + option);
+        }
+        return args[index];
+    }
+
+    private static XsltEngine engine(String value) {
+        try {
+            return XsltEngine.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown XSLT engine: " + value + ", expected jdk or saxon", e);
+        }
+    }
+
+    private static int parallelism(String value) {
+        try {
+            int parallelism = Integer.parseInt(value);
+            if (parallelism < 1) {
+                throw new IllegalArgumentException("--parallelism must be at least 1, was: " + value);
+            }
+            return parallelism;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("--parallelism must be a number, was: " + value, e);
+        }
+    }
+
+    private static int port(String value) {
+        try {
+            int port = Integer.parseInt(value);
+            if (port < 1 || port > 65535) {
+                throw new IllegalArgumentException("--serve port must be between 1 and 65535, was: " + value);
+            }
+            return port;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("--serve port must be a number, was: " + value, e);
+        }
+    }
+
+    private static String usage() {
+        return """
+            Usage: cursor-rules-generator [options] [baseName...]
+              --output <dir>       directory receiving the .md files (default: target/cursor-rules)
+              --source <dir>       read rules, fragments and the stylesheet from a directory
+              --xsl <name>         stylesheet name (default: cursor-rules.xsl)
+              --engine <name>      XSLT engine: jdk or saxon
+              --parallelism <n>    number of rules generated concurrently
+              --incremental        only regenerate rules whose inputs changed
+              --validate           check the structure of each generated rule, failing rules that break it
+              --watch              keep running and regenerate rules affected by each save (requires --source)
+              --serve <port>       keep running and serve rendered rules at http://localhost:<port>/rules/{baseName}
+                                   (with --source, edits are served once saved; cannot be combined with --watch)
+              --help               print this help""";
+    }
+
+    /**
+     * Parsed command line. {@code source}, {@code engine} are {@code null} and {@code parallelism} and {@code port} are 0 when not given.
+     */
+    private record Options(
+            Path output,
+            Path source,
+            String xsl,
+            XsltEngine engine,
+            int parallelism,
+            boolean incremental,
+            boolean validate,
+            boolean watch,
+            int port,
+            boolean help,
+            List<String> baseNames) {
+
+        static Options defaults() {
+            return new Options(DEFAULT_OUTPUT, null, DEFAULT_XSL, null, 0, false, false, false, 0, false, List.of());
+        }
+
+        Options withOutput(Path output) {
+            return new Options(output, source, xsl, engine, parallelism, incremental, validate, watch, port, help, baseNames);
+        }
+
+        Options withSource(Path source) {
+            return new Options(output, source, xsl, engine, parallelism, incremental, validate, watch, port, help, baseNames);
+        }
+
+        Options withXsl(String xsl) {
+            return new Options(output, source, xsl, engine, parallelism, incremental, validate, watch, port, help, baseNames);
+        }
+
+        Options withEngine(XsltEngine engine) {
+            return new Options(output, source, xsl, engine, parallelism, incremental, validate, watch, port, help, baseNames);
+        }
+
+        Options withParallelism(int parallelism) {
+            return new Options(output, source, xsl, engine, parallelism, incremental, validate, watch, port, help, baseNames);
+        }
+
+        Options withIncremental() {
+            return new Options(output, source, xsl, engine, parallelism, true, validate, watch, port, help, baseNames);
+        }
+
+        Options withValidate() {
+            return new Options(output, source, xsl, engine, parallelism, incremental, true, watch, port, help, baseNames);
+        }
+
+        Options withWatch() {
+            return new Options(output, source, xsl, engine, parallelism, incremental, validate, true, port, help, baseNames);
+        }
+
+        Options withPort(int port) {
+            return new Options(output, source, xsl, engine, parallelism, incremental, validate, watch, port, help, baseNames);
+        }
+
+        Options withHelp() {
+            return new Options(output, source, xsl, engine, parallelism, incremental, validate, watch, port, true, baseNames);
+        }
+
+        Options withBaseNames(List<String> baseNames) {
+            return new Options(output, source, xsl, engine, parallelism, incremental, validate, watch, port, help, List.copyOf(baseNames));
+        }
+    }
+}
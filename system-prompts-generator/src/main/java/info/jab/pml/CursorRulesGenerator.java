@@ -1,25 +1,37 @@
 package info.jab.pml;
 
+import info.jab.pml.GenerationRecorder.Phase;
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.SAXParserFactory;
 import javax.xml.transform.Result;
+import javax.xml.transform.Templates;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.sax.SAXSource;
 import javax.xml.transform.stream.StreamResult;
-import javax.xml.transform.stream.StreamSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.w3c.dom.Document;
 import org.xml.sax.InputSource;
-import org.xml.sax.XMLReader;
 
 /**
  * Generator for Cursor Rules using XML/XSLT transformation.
@@ -32,6 +44,56 @@ import org.xml.sax.XMLReader;
  */
 public final class CursorRulesGenerator {
 
+    private static final Logger logger = LoggerFactory.getLogger(CursorRulesGenerator.class);
+    private static final MdcStructureValidator STRUCTURE_VALIDATOR = new MdcStructureValidator();
+
+    private final ResourceProvider resourceProvider;
+    private final TemplatesCache templatesCache;
+    private final FragmentCache fragmentCache;
+    private final GenerationListener listener;
+    private final RuleSchemaValidator schemaValidator;
+    private final OutputSink outputSink;
+
+    /**
+     * Creates a generator using the {@link XsltEngine#configured() configured} XSLT engine and
+     * backed by the JVM-wide {@link TemplatesCache#shared() stylesheet}
+     * and {@link FragmentCache#shared() fragment} caches, so each stylesheet is compiled and
+     * each XInclude'd fragment is read at most once per JVM.
+     */
+    public CursorRulesGenerator() {
+        this(builder());
+    }
+
+    private CursorRulesGenerator(Builder builder) {
+        this.resourceProvider = builder.resourceProvider;
+        this.templatesCache = Optional.ofNullable(builder.templatesCache).orElseGet(() ->
+            builder.resourceProvider == ResourceProvider.classpath()
+                ? TemplatesCache.shared(builder.xsltEngine)
+                : new TemplatesCache(builder.xsltEngine.newTransformerFactory(), builder.resourceProvider));
+        this.fragmentCache = builder.fragmentCache;
+        this.listener = builder.listener;
+        this.schemaValidator = builder.schemaValidator;
+        this.outputSink = Optional.ofNullable(builder.outputSink).orElseGet(OutputSink::new);
+    }
+
+    private CursorRulesGenerator(CursorRulesGenerator source, TemplatesCache templatesCache, FragmentCache fragmentCache) {
+        this.resourceProvider = source.resourceProvider;
+        this.templatesCache = templatesCache;
+        this.fragmentCache = fragmentCache;
+        this.listener = source.listener;
+        this.schemaValidator = source.schemaValidator;
+        this.outputSink = source.outputSink;
+    }
+
+    /**
+     * Returns a builder initialized with the classpath resource provider and the JVM-wide shared caches.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
     // ===============================================================
     // PUBLIC API - Entry point for cursor rule generation
     // ===============================================================
@@ -39,150 +101,513 @@ public final class CursorRulesGenerator {
     /**
      * Generates Cursor rules by transforming an XML resource with the provided XSLT stylesheet.
      * <p>
-     * This overload does not perform schema validation. It only applies XInclude
-     * resolution and XSLT transformation.
+     * Applies XInclude resolution, the optional schema validation enabled with
+     * {@link Builder#schemaValidator(RuleSchemaValidator)}, and the XSLT transformation.
+     * The stylesheet is compiled once and reused through the configured {@link TemplatesCache}.
      *
-     * @param xmlFileName the classpath-relative name of the XML rule definition to transform
-     * @param xslFileName the classpath-relative name of the XSLT stylesheet used for transformation
+     * @param xmlFileName the root-relative name of the XML rule definition to transform
+     * @param xslFileName the root-relative name of the XSLT stylesheet used for transformation
      * @return the generated MDC content as a String (never {@code null})
      * @throws RuntimeException if resources cannot be loaded or the transformation fails
      */
     public String generate(String xmlFileName, String xslFileName) {
-        return loadTransformationSources(xmlFileName, xslFileName)
-            .map(sources -> createSaxSource(sources))
-            .flatMap(saxSource -> performTransformation(saxSource, xslFileName))
-            .orElseThrow(() -> new RuntimeException(
-                "Failed to generate cursor rules for: " + xmlFileName + ", " + xslFileName));
+        return render(xmlFileName, xslFileName, new StringWriter()).toString();
+    }
+
+    /**
+     * Generates Cursor rules and streams the result into {@code writer}.
+     * <p>
+     * Leading and trailing whitespace is trimmed on the fly, so the streamed content is
+     * identical to {@link #generate(String, String)} without holding the document in memory.
+     * The writer is flushed but not closed.
+     *
+     * @param xmlFileName the root-relative name of the XML rule definition to transform
+     * @param xslFileName the root-relative name of the XSLT stylesheet used for transformation
+     * @param writer the destination of the generated MDC content
+     * @throws RuntimeException if resources cannot be loaded or the transformation fails
+     */
+    public void generate(String xmlFileName, String xslFileName, Writer writer) {
+        render(xmlFileName, xslFileName, Objects.requireNonNull(writer, "writer"));
+    }
+
+    /**
+     * Generates Cursor rules into a UTF-8 file through the configured {@link OutputSink}.
+     * <p>
+     * The rule streams into a temporary file next to {@code output}, without holding the
+     * document in memory, and is then compared with the file already on disk; an identical
+     * file is left untouched, keeping its modification time, so a no-op build does not wake up
+     * whatever copies or watches the output. If generation fails the existing file is left as it was.
+     *
+     * @param xmlFileName the root-relative name of the XML rule definition to transform
+     * @param xslFileName the root-relative name of the XSLT stylesheet used for transformation
+     * @param output the file receiving the generated MDC content
+     * @return whether the file was written or left unchanged
+     * @throws RuntimeException if resources cannot be loaded, the transformation fails or the file cannot be written
+     */
+    public OutputSink.Outcome generate(String xmlFileName, String xslFileName, Path output) {
+        Objects.requireNonNull(output, "output");
+        return outputSink.write(output, writer -> render(xmlFileName, xslFileName, writer));
     }
 
-    // Removed legacy 3-argument generate method (schema validation no longer supported)
+    /**
+     * Returns the sink behind {@link #generate(String, String, Path)} and {@link #generate(String, List)},
+     * which counts the files written and the files skipped because their content was unchanged.
+     *
+     * @return the output sink of this generator
+     */
+    public OutputSink outputSink() {
+        return outputSink;
+    }
+
+    /**
+     * Generates every rule in {@code baseNames} concurrently using {@link BatchOptions#defaults()}.
+     *
+     * @param baseNames the rule base names; each is resolved as {@code baseName + ".xml"} by the resource provider
+     * @param xslFileName the root-relative name of the XSLT stylesheet used for transformation
+     * @return per-rule results and timings, in the order of {@code baseNames}
+     * @throws RuntimeException if the stylesheet cannot be loaded
+     */
+    public BatchGenerationResult generateAll(List<String> baseNames, String xslFileName) {
+        return generateAll(baseNames, xslFileName, BatchOptions.defaults());
+    }
+
+    /**
+     * Generates every rule in {@code baseNames} concurrently on a bounded pool of
+     * {@link BatchOptions#parallelism()} threads.
+     * <p>
+     * The stylesheet is compiled (or fetched from the cache) once up front and shared by
+     * all workers; each rule gets its own {@link Transformer}. With
+     * {@link BatchOptions.FailureMode#FAIL_FAST} the first failure cancels pending rules
+     * and is rethrown; with {@link BatchOptions.FailureMode#COLLECT_ERRORS} failures are
+     * reported in the returned result. With {@link BatchOptions#withStructureValidation()} each
+     * worker also runs {@link MdcStructureValidator} on the rule it generated, and a rule that
+     * breaks the structure fails with an {@link MdcStructureException}.
+     *
+     * @param baseNames the rule base names; each is resolved as {@code baseName + ".xml"} by the resource provider
+     * @param xslFileName the root-relative name of the XSLT stylesheet used for transformation
+     * @param options parallelism, failure handling and structural validation
+     * @return per-rule results and timings, in the order of {@code baseNames}
+     * @throws RuntimeException if the stylesheet cannot be loaded, or on the first failure in fail-fast mode
+     */
+    public BatchGenerationResult generateAll(List<String> baseNames, String xslFileName, BatchOptions options) {
+        Objects.requireNonNull(baseNames, "baseNames");
+        Objects.requireNonNull(options, "options");
+        Templates templates = templatesCache.get(xslFileName)
+            .orElseThrow(() -> new RuntimeException("Failed to load stylesheet: " + xslFileName));
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newFixedThreadPool(options.parallelism())) {
+            CompletionService<GenerationResult> completion = new ExecutorCompletionService<>(executor);
+            List<Future<GenerationResult>> futures = baseNames.stream()
+                .map(baseName -> completion.submit(() -> generateTimed(baseName, xslFileName, templates, options)))
+                .toList();
+            List<GenerationResult> results = awaitResults(completion, futures, xslFileName, options.failureMode());
+            return new BatchGenerationResult(results, Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    /**
+     * Renders one rule for several output targets, parsing and resolving its XIncludes only once.
+     * <p>
+     * The resolved document is recorded into an immutable event buffer and every target's
+     * stylesheet replays it concurrently, on a pool of at most one thread per target, streaming
+     * into {@code target.outputFile(baseName)} through the {@link #outputSink() output sink} with the
+     * same trimming as {@link #generate(String, String)}, so identical outputs keep their
+     * modification time. Output directories are created as needed. Every target is rendered into
+     * a temporary file first, and the files are moved into place only once all targets succeeded;
+     * if any target fails, the temporary files are deleted, the existing outputs of all targets
+     * are left as they were, and the first failure is rethrown.
+     * Fan-out generation is not reported to the {@link GenerationListener}.
+     *
+     * @param xmlFileName the root-relative name of the XML rule definition to transform
+     * @param targets the stylesheets and destinations to render the rule for
+     * @return the written files, in the order of {@code targets}
+     * @throws RuntimeException if the rule cannot be loaded, or any target fails
+     */
+    public List<Path> generate(String xmlFileName, List<OutputTarget> targets) {
+        Objects.requireNonNull(targets, "targets");
+        if (targets.isEmpty()) {
+            return List.of();
+        }
+        SaxEventBuffer document = loadResource(xmlFileName)
+            .map(xmlContent -> validateSchema(xmlFileName, createDomSource(xmlContent)))
+            .map(SaxEventBuffer::record)
+            .orElseThrow(() -> new RuntimeException("Failed to load rule: " + xmlFileName));
+        String baseName = xmlFileName.endsWith(".xml")
+            ? xmlFileName.substring(0, xmlFileName.length() - ".xml".length())
+            : xmlFileName;
+
+        int parallelism = Math.min(targets.size(), Runtime.getRuntime().availableProcessors());
+        List<Future<OutputSink.Staged>> futures;
+        try (ExecutorService executor = Executors.newFixedThreadPool(parallelism)) {
+            futures = targets.stream()
+                .map(target -> executor.submit(() -> renderTarget(xmlFileName, document, target, baseName)))
+                .toList();
+        }
+        return awaitTargets(futures);
+    }
 
     // ===============================================================
     // PRIVATE METHODS - Organized in call order for readability
     // ===============================================================
 
     /**
-     * Step 1: Loads XML and XSLT resources as a TransformationSources record.
-     * Returns Optional to handle missing resources gracefully.
+     * Step 0: Runs the pipeline below with the cached stylesheet, streaming the result into {@code writer}.
      */
-    private Optional<TransformationSources> loadTransformationSources(String xmlFileName, String xslFileName) {
-        return loadResource(xmlFileName)
-            .flatMap(xmlStream -> loadResource(xslFileName)
-                .map(xslStream -> new TransformationSources(xmlStream, xslStream)));
+    private <W extends Writer> W render(String xmlFileName, String xslFileName, W writer) {
+        return render(xmlFileName, xslFileName, () -> templatesCache.get(xslFileName), writer);
     }
 
     /**
-     * Step 1a: Pure function to load a resource from classpath.
-     * Used by loadTransformationSources and performTransformation.
+     * Step 0: Runs the pipeline below, timing each phase and reporting the metrics to the listener.
      */
-    private Optional<InputStream> loadResource(String fileName) {
-        return Optional.ofNullable(
-            getClass().getClassLoader().getResourceAsStream(fileName)
-        );
+    private <W extends Writer> W render(String xmlFileName, String xslFileName, Supplier<Optional<Templates>> templates, W writer) {
+        GenerationRecorder recorder = new GenerationRecorder(xmlFileName, listener);
+        try {
+            W result = recorder.time(Phase.LOAD, () -> loadResource(xmlFileName))
+                .map(xmlContent -> recorder.time(Phase.PARSE, () -> validateSchema(xmlFileName, createDomSource(xmlContent))))
+                .flatMap(domSource -> performTransformation(domSource, templates, writer, recorder))
+                .orElseThrow(() -> generationFailure(xmlFileName, xslFileName));
+            listener.onGenerated(recorder.complete());
+            return result;
+        } catch (RuntimeException e) {
+            listener.onFailure(xmlFileName, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Step 1: Reads a resource from the configured provider.
+     * Returns Optional to handle missing resources gracefully.
+     */
+    private Optional<byte[]> loadResource(String fileName) {
+        return resourceProvider.open(fileName).map(stream -> {
+            try (stream) {
+                return stream.readAllBytes();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read resource: " + fileName, e);
+            }
+        });
     }
 
     /**
-     * Step 2: Creates SAXSource with XInclude support.
-     * Pure function that creates immutable SAXSource with XInclude processing.
+     * Step 2: Parses the XML with XInclude support into a DOMSource.
+     * The resolved document is handed straight to the compiled stylesheet, avoiding
+     * a serialize/re-parse round trip and a second in-memory copy of the rule.
      */
-    private SAXSource createSaxSource(TransformationSources sources) {
+    private DOMSource createDomSource(byte[] xmlContent) {
         try {
-            // First, process XInclude using DOM
             DocumentBuilderFactory domFactory = DocumentBuilderFactory.newInstance();
             domFactory.setNamespaceAware(true);
             domFactory.setXIncludeAware(true);
 
             DocumentBuilder builder = domFactory.newDocumentBuilder();
+            // Serve XInclude'd fragments from the provider when it has its own URI scheme,
+            // otherwise from the shared cache instead of re-reading them
+            builder.setEntityResolver(this::resolveIncluded);
 
             // Set a proper base URI for XInclude resolution
-            InputSource inputSource = new InputSource(sources.xmlStream());
-            // Use the resource root path as the base URI for XInclude resolution
-            // Point to the classes directory where resources are actually located
-            String baseURI = getClass().getClassLoader().getResource("").toString();
-            // Ensure we're pointing to the classes directory, not test-classes
-            if (baseURI.contains("test-classes")) {
-                baseURI = baseURI.replace("test-classes", "classes");
-            }
+            InputSource inputSource = new InputSource(new ByteArrayInputStream(xmlContent));
+            String baseURI = resourceProvider.baseUri();
             inputSource.setSystemId(baseURI);
 
             Document document = builder.parse(inputSource);
+            return new DOMSource(document, baseURI);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to create DOM source with XInclude support", e);
+        }
+    }
 
-            // Convert DOM back to SAX source
-            DOMSource domSource = new DOMSource(document);
+    /**
+     * Step 2a: Entity resolver of the XInclude-aware parser.
+     */
+    private InputSource resolveIncluded(String publicId, String systemId) throws IOException {
+        Optional<InputStream> included = Objects.isNull(systemId) ? Optional.empty() : resourceProvider.openIncluded(systemId);
+        if (included.isEmpty()) {
+            return fragmentCache.resolveEntity(publicId, systemId);
+        }
+        InputSource inputSource = new InputSource(included.get());
+        inputSource.setSystemId(systemId);
+        return inputSource;
+    }
 
-            // Create SAX parser factory with namespace awareness
-            SAXParserFactory factory = SAXParserFactory.newInstance();
-            factory.setNamespaceAware(true);
-            factory.setValidating(false);
+    /**
+     * Step 2b: Validates the XInclude-resolved document when a schema validator is configured.
+     * Runs within the parse phase, so its cost shows up in {@link GenerationMetrics#parse()}.
+     */
+    private DOMSource validateSchema(String xmlFileName, DOMSource domSource) {
+        if (Objects.isNull(schemaValidator)) {
+            return domSource;
+        }
+        List<RuleSchemaValidator.Violation> violations = schemaValidator.validate(xmlFileName, domSource);
+        if (!violations.isEmpty()) {
+            throw new RuntimeException("Rule does not conform to the schema: " + xmlFileName
+                + violations.stream().map(violation -> "\n  " + violation).collect(Collectors.joining()));
+        }
+        return domSource;
+    }
 
-            XMLReader xmlReader = factory.newSAXParser().getXMLReader();
+    /**
+     * Step 3: Performs the actual XSLT transformation with the compiled stylesheet.
+     * Returns Optional to handle missing or invalid stylesheets gracefully.
+     */
+    private <W extends Writer> Optional<W> performTransformation(
+            DOMSource xmlSource, Supplier<Optional<Templates>> templates, W writer, GenerationRecorder recorder) {
+        return templates.get()
+            .flatMap(compiled -> recorder.time(Phase.TRANSFORM, () -> executeTransformation(xmlSource, compiled, writer, recorder)));
+    }
 
-            // Create transformer to convert DOM to SAX
-            TransformerFactory transformerFactory = TransformerFactory.newInstance();
-            Transformer transformer = transformerFactory.newTransformer();
+    /**
+     * Step 4: Executes the transformation, streaming trimmed output into the writer, and returns the writer.
+     * A fresh Transformer is created per call; Templates instances are thread-safe, Transformers are not.
+     */
+    private <W extends Writer> Optional<W> executeTransformation(
+            DOMSource xmlSource, Templates templates, W writer, GenerationRecorder recorder) {
+        try {
+            Transformer transformer = templates.newTransformer();
 
-            // Create a ByteArrayOutputStream to hold the XML
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            StreamResult result = new StreamResult(baos);
-            transformer.transform(domSource, result);
+            Writer trimmingWriter = recorder.output(writer);
+            Result result = new StreamResult(trimmingWriter);
 
-            // Convert back to InputSource
-            ByteArrayInputStream bais = new ByteArrayInputStream(baos.toByteArray());
-            InputSource processedInputSource = new InputSource(bais);
+            transformer.transform(xmlSource, result);
+            trimmingWriter.flush();
 
-            return new SAXSource(xmlReader, processedInputSource);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to create SAX source with XInclude support", e);
+            return Optional.of(writer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write generated content", e);
+        } catch (TransformerException e) {
+            logger.error("XSLT transformation failed: {}", e.getMessageAndLocation(), e);
+            return Optional.empty();
         }
     }
 
     /**
-     * Step 3: Performs the actual XSLT transformation.
-     * Returns Optional to handle transformation failures gracefully.
+     * Batch step: generates one rule with a shared stylesheet, optionally validates its structure, and records its timing.
+     * Failures are captured in the result rather than thrown so that the batch decides how to react.
      */
-    private Optional<String> performTransformation(SAXSource xmlSource, String xslFileName) {
-        return loadResource(xslFileName)
-            .flatMap(xslStream -> executeTransformation(xmlSource, xslStream));
+    private GenerationResult generateTimed(String baseName, String xslFileName, Templates templates, BatchOptions options) {
+        String xmlFileName = baseName + ".xml";
+        long start = System.nanoTime();
+        try {
+            String content = render(xmlFileName, xslFileName, () -> Optional.of(templates), new StringWriter()).toString();
+            if (options.validateStructure()) {
+                List<MdcStructureValidator.Violation> violations = STRUCTURE_VALIDATOR.validate(baseName, content);
+                if (!violations.isEmpty()) {
+                    throw new MdcStructureException(baseName, violations);
+                }
+            }
+            return GenerationResult.success(baseName, content, Duration.ofNanos(System.nanoTime() - start));
+        } catch (RuntimeException e) {
+            return GenerationResult.failure(baseName, e, Duration.ofNanos(System.nanoTime() - start));
+        }
     }
 
     /**
-     * Step 4: Executes the transformation and returns the result.
-     * Encapsulates the transformation logic in a pure function.
+     * Batch step: waits for every rule in completion order, so that fail-fast reacts to the
+     * first failure as soon as it happens, then returns results in submission order.
      */
-    private Optional<String> executeTransformation(SAXSource xmlSource, InputStream xslStream) {
+    private List<GenerationResult> awaitResults(
+            CompletionService<GenerationResult> completion,
+            List<Future<GenerationResult>> futures,
+            String xslFileName,
+            BatchOptions.FailureMode failureMode) {
         try {
-            TransformerFactory factory = TransformerFactory.newInstance();
-            Transformer transformer = factory.newTransformer(new StreamSource(xslStream));
-
-            StringWriter stringWriter = new StringWriter();
-            Result result = new StreamResult(stringWriter);
+            for (int i = 0; i < futures.size(); i++) {
+                GenerationResult result = completion.take().get();
+                if (failureMode == BatchOptions.FailureMode.FAIL_FAST && !result.succeeded()) {
+                    futures.forEach(future -> future.cancel(true));
+                    throw new RuntimeException(
+                        "Failed to generate cursor rules for: " + result.baseName() + ".xml, " + xslFileName,
+                        result.failure());
+                }
+            }
+            return futures.stream().map(Future::resultNow).toList();
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while generating cursor rules", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Unexpected failure while generating cursor rules", e.getCause());
+        }
+    }
 
-            transformer.transform(xmlSource, result);
+    /**
+     * Fan-out step: replays the recorded rule through one target's stylesheet into a temporary file next to its output.
+     */
+    private OutputSink.Staged renderTarget(String xmlFileName, SaxEventBuffer document, OutputTarget target, String baseName) {
+        Templates templates = templatesCache.get(target.xslFileName())
+            .orElseThrow(() -> generationFailure(xmlFileName, target.xslFileName()));
+        return outputSink.stage(target.outputFile(baseName), writer -> {
+            Writer trimmingWriter = new TrimmingWriter(writer);
+            try {
+                templates.newTransformer().transform(document.newSource(), new StreamResult(trimmingWriter));
+            } catch (TransformerException e) {
+                logger.error("XSLT transformation failed: {}", e.getMessageAndLocation(), e);
+                throw generationFailure(xmlFileName, target.xslFileName());
+            }
+            trimmingWriter.flush();
+        });
+    }
 
-            return Optional.of(stringWriter.toString().trim());
-        } catch (TransformerException e) {
-            // Log the exception in a real application
-            System.err.println("TransformerException in executeTransformation:");
-            e.printStackTrace();
-            return Optional.empty();
+    /**
+     * Fan-out step: once every target has rendered, moves all the temporary files into place; on any
+     * failure deletes only the temporary files, so that a rule is never left half-rendered across
+     * targets and the last good outputs survive.
+     */
+    private static List<Path> awaitTargets(List<Future<OutputSink.Staged>> futures) {
+        Optional<Throwable> failure = futures.stream()
+            .filter(future -> future.state() != Future.State.SUCCESS)
+            .map(Future::exceptionNow)
+            .findFirst();
+        if (failure.isPresent()) {
+            futures.stream()
+                .filter(future -> future.state() == Future.State.SUCCESS)
+                .forEach(future -> future.resultNow().discard());
+            throw failure.get() instanceof RuntimeException runtimeException
+                ? runtimeException
+                : new RuntimeException("Unexpected failure while generating cursor rules", failure.get());
         }
+        List<OutputSink.Staged> staged = futures.stream().map(Future::resultNow).toList();
+        for (int i = 0; i < staged.size(); i++) {
+            try {
+                staged.get(i).commit();
+            } catch (RuntimeException e) {
+                staged.subList(i + 1, staged.size()).forEach(OutputSink.Staged::discard);
+                throw e;
+            }
+        }
+        return staged.stream().map(OutputSink.Staged::file).toList();
+    }
+
+    /**
+     * Exposes the resource provider so that collaborators hash and scan the same sources the generator reads.
+     */
+    ResourceProvider resourceProvider() {
+        return resourceProvider;
+    }
+
+    /**
+     * Returns a generator identical to this one but resolving XInclude'd fragments through {@code fragmentCache}.
+     */
+    CursorRulesGenerator withFragmentCache(FragmentCache fragmentCache) {
+        return new CursorRulesGenerator(this, templatesCache, Objects.requireNonNull(fragmentCache, "fragmentCache"));
+    }
+
+    /**
+     * Returns a generator identical to this one but with empty stylesheet and fragment caches of its own,
+     * so that {@link #invalidateCaches()} on it does not affect other generators sharing this one's caches.
+     */
+    CursorRulesGenerator withPrivateCaches() {
+        return new CursorRulesGenerator(this, templatesCache.emptyCopy(), new FragmentCache(FragmentCache.DEFAULT_MAX_BYTES));
+    }
+
+    /**
+     * Drops the compiled stylesheets and the cached fragments, so that the next generation reads the sources again.
+     */
+    void invalidateCaches() {
+        templatesCache.invalidateAll();
+        fragmentCache.invalidateAll();
+    }
+
+    private static RuntimeException generationFailure(String xmlFileName, String xslFileName) {
+        return new RuntimeException("Failed to generate cursor rules for: " + xmlFileName + ", " + xslFileName);
     }
 
     // ===============================================================
-    // SUPPORTING CLASSES - Used by the main processing pipeline
+    // SUPPORTING CLASSES - Used to configure the generator
     // ===============================================================
 
     /**
-     * Record for holding transformation sources - immutable data transfer (internal use only).
-     * Used by loadTransformationSources to bundle XML and XSL streams together.
+     * Builder for {@link CursorRulesGenerator}. Unset collaborators default to the JVM-wide shared instances;
+     * with a non-classpath {@link ResourceProvider} the default stylesheet cache is private to the generator.
      */
-    private record TransformationSources(InputStream xmlStream, InputStream xslStream) {
-        private TransformationSources {
-            if (Objects.isNull(xmlStream) || Objects.isNull(xslStream)) {
-                throw new IllegalArgumentException("XML and XSL streams cannot be null");
-            }
+    public static final class Builder {
+
+        private ResourceProvider resourceProvider = ResourceProvider.classpath();
+        private XsltEngine xsltEngine = XsltEngine.configured();
+        private TemplatesCache templatesCache;
+        private FragmentCache fragmentCache = FragmentCache.shared();
+        private GenerationListener listener = GenerationListener.NONE;
+        private RuleSchemaValidator schemaValidator;
+        private OutputSink outputSink;
+
+        private Builder() {
+        }
+
+        /**
+         * @param resourceProvider the source of rule XMLs, fragments and stylesheets
+         * @return this builder
+         */
+        public Builder resourceProvider(ResourceProvider resourceProvider) {
+            this.resourceProvider = Objects.requireNonNull(resourceProvider, "resourceProvider");
+            return this;
+        }
+
+        /**
+         * Selects the XSLT engine of the default stylesheet cache. Ignored when
+         * {@link #templatesCache(TemplatesCache)} is set, since a cache carries its own engine.
+         *
+         * @param xsltEngine the engine compiling and running the stylesheet
+         * @return this builder
+         */
+        public Builder xsltEngine(XsltEngine xsltEngine) {
+            this.xsltEngine = Objects.requireNonNull(xsltEngine, "xsltEngine");
+            return this;
+        }
+
+        /**
+         * @param templatesCache the cache providing compiled stylesheets
+         * @return this builder
+         */
+        public Builder templatesCache(TemplatesCache templatesCache) {
+            this.templatesCache = Objects.requireNonNull(templatesCache, "templatesCache");
+            return this;
+        }
+
+        /**
+         * @param fragmentCache the cache serving XInclude'd fragments
+         * @return this builder
+         */
+        public Builder fragmentCache(FragmentCache fragmentCache) {
+            this.fragmentCache = Objects.requireNonNull(fragmentCache, "fragmentCache");
+            return this;
         }
-    }
 
-    // XSD schema validation has been intentionally removed; transformation strictly uses XSLT.
+        /**
+         * @param listener receives per-rule timings and sizes; must be thread-safe when used with batch generation
+         * @return this builder
+         */
+        public Builder listener(GenerationListener listener) {
+            this.listener = Objects.requireNonNull(listener, "listener");
+            return this;
+        }
+
+        /**
+         * Enables schema validation of each rule after XInclude resolution; a rule that does not
+         * conform fails before it is transformed. Disabled by default.
+         *
+         * @param schemaValidator the validator to apply, typically {@link RuleSchemaValidator#bundled()}
+         * @return this builder
+         */
+        public Builder schemaValidator(RuleSchemaValidator schemaValidator) {
+            this.schemaValidator = Objects.requireNonNull(schemaValidator, "schemaValidator");
+            return this;
+        }
+
+        /**
+         * Sets the sink behind {@link CursorRulesGenerator#generate(String, String, Path)} and
+         * {@link CursorRulesGenerator#generate(String, List)}; by default each generator has its own.
+         *
+         * @param outputSink the sink writing generated rules only when their content changed
+         * @return this builder
+         */
+        public Builder outputSink(OutputSink outputSink) {
+            this.outputSink = Objects.requireNonNull(outputSink, "outputSink");
+            return this;
+        }
+
+        public CursorRulesGenerator build() {
+            return new CursorRulesGenerator(this);
+        }
+    }
 }
@@ -0,0 +1,67 @@
+package info.jab.pml;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Reads resources from a directory on the file system.
+ */
+final class DirectoryResourceProvider implements ResourceProvider {
+
+    private static final String RULE_EXTENSION = ".xml";
+
+    private final Path root;
+    private final String baseUri;
+
+    DirectoryResourceProvider(Path root) {
+        this.root = Objects.requireNonNull(root, "root").toAbsolutePath().normalize();
+        String uri = this.root.toUri().toString();
+        this.baseUri = uri.endsWith("/") ? uri : uri + "/";
+    }
+
+    @Override
+    public Optional<InputStream> open(String name) {
+        Path resource = root.resolve(name).normalize();
+        if (!resource.startsWith(root) || !Files.isRegularFile(resource)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Files.newInputStream(resource));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open resource: " + resource, e);
+        }
+    }
+
+    @Override
+    public String baseUri() {
+        return baseUri;
+    }
+
+    Path root() {
+        return root;
+    }
+
+    /**
+     * Lists the rules of this directory: the base names of the {@code *.xml} files at its top level.
+     */
+    List<String> ruleBaseNames() {
+        try (Stream<Path> files = Files.list(root)) {
+            return files
+                .filter(Files::isRegularFile)
+                .map(file -> file.getFileName().toString())
+                .filter(name -> name.endsWith(RULE_EXTENSION))
+                .map(name -> name.substring(0, name.length() - RULE_EXTENSION.length()))
+                .sorted()
+                .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list rules in: " + root, e);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package info.jab.pml;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import org.xml.sax.EntityResolver;
+import org.xml.sax.InputSource;
+
+/**
+ * Bounded, thread-safe cache of XInclude'd fragments shared across generations.
+ * <p>
+ * Installed as the {@link EntityResolver} of the XInclude-aware parser, it serves each
+ * included resource (for example {@code fragments/java-maven-properties-template.md})
+ * from memory after the first read, keyed by its absolute system id. The cache is
+ * bounded by the total number of cached bytes and evicts the least recently used
+ * fragments first; fragments larger than the whole budget are served but never cached.
+ */
+public final class FragmentCache implements EntityResolver {
+
+    /** Default budget: comfortably holds every fragment shipped with the generator. */
+    public static final long DEFAULT_MAX_BYTES = 8L * 1024 * 1024;
+
+    private static final FragmentCache SHARED = new FragmentCache(DEFAULT_MAX_BYTES);
+
+    private final long maxBytes;
+    private final LinkedHashMap<String, byte[]> fragments = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes;
+
+    /**
+     * Creates an empty cache holding at most {@code maxBytes} bytes of fragment content.
+     *
+     * @param maxBytes the maximum total size of cached fragments, in bytes
+     */
+    public FragmentCache(long maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("maxBytes must not be negative, was: " + maxBytes);
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the JVM-wide cache used by default by {@link CursorRulesGenerator}.
+     *
+     * @return the shared cache instance
+     */
+    public static FragmentCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Resolves an included resource from the cache, reading and caching it on first use.
+     *
+     * @param publicId the public identifier, ignored
+     * @param systemId the absolute system identifier of the included resource
+     * @return an input source over the cached bytes, or {@code null} to let the parser
+     *         resolve identifiers that are not absolute URIs itself
+     * @throws IOException if the resource cannot be read
+     */
+    @Override
+    public InputSource resolveEntity(String publicId, String systemId) throws IOException {
+        if (Objects.isNull(systemId) || !URI.create(systemId).isAbsolute()) {
+            return null;
+        }
+        InputSource inputSource = new InputSource(new ByteArrayInputStream(get(systemId)));
+        inputSource.setSystemId(systemId);
+        return inputSource;
+    }
+
+    /**
+     * Removes a single fragment so that the next resolution reads it again.
+     *
+     * @param systemId the absolute system identifier of the fragment
+     */
+    public synchronized void invalidate(String systemId) {
+        byte[] removed = fragments.remove(systemId);
+        if (Objects.nonNull(removed)) {
+            cachedBytes -= removed.length;
+        }
+    }
+
+    /**
+     * Removes every cached fragment.
+     */
+    public synchronized void invalidateAll() {
+        fragments.clear();
+        cachedBytes = 0;
+    }
+
+    /**
+     * Returns the number of cached fragments.
+     *
+     * @return the cache size
+     */
+    public synchronized int size() {
+        return fragments.size();
+    }
+
+    /**
+     * Returns the total size of cached fragment content.
+     *
+     * @return the cached bytes
+     */
+    public synchronized long cachedBytes() {
+        return cachedBytes;
+    }
+
+    private byte[] get(String systemId) throws IOException {
+        synchronized (this) {
+            byte[] cached = fragments.get(systemId);
+            if (Objects.nonNull(cached)) {
+                return cached;
+            }
+        }
+        // Read outside the lock so that a slow resource does not block other lookups
+        byte[] content;
+        try (InputStream stream = URI.create(systemId).toURL().openStream()) {
+            content = stream.readAllBytes();
+        }
+        put(systemId, content);
+        return content;
+    }
+
+    private synchronized void put(String systemId, byte[] content) {
+        if (content.length > maxBytes) {
+            return;
+        }
+        byte[] previous = fragments.put(systemId, content);
+        cachedBytes += content.length - (Objects.isNull(previous) ? 0 : previous.length);
+        Iterator<Map.Entry<String, byte[]>> eldest = fragments.entrySet().iterator();
+        while (cachedBytes > maxBytes && eldest.hasNext()) {
+            cachedBytes -= eldest.next().getValue().length;
+            eldest.remove();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package info.jab.pml;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Receives per-rule {@link GenerationMetrics} from {@link CursorRulesGenerator}.
+ * <p>
+ * Register a listener with {@link CursorRulesGenerator.Builder#listener(GenerationListener)}.
+ * Batch generation reports from several worker threads at once, so implementations must be
+ * thread-safe.
+ */
+@FunctionalInterface
+public interface GenerationListener {
+
+    /** Listener ignoring every notification, the default of {@link CursorRulesGenerator}. */
+    GenerationListener NONE = metrics -> { };
+
+    /**
+     * Called after a rule has been generated.
+     *
+     * @param metrics timings and sizes of the generation
+     */
+    void onGenerated(GenerationMetrics metrics);
+
+    /**
+     * Called when generating a rule fails, before the failure is thrown or recorded.
+     *
+     * @param xmlFileName the rule XML that could not be generated
+     * @param failure the cause of the failure
+     */
+    default void onFailure(String xmlFileName, RuntimeException failure) {
+    }
+
+    /**
+     * Returns a listener logging the metrics of every rule at debug level and failures at warn level.
+     *
+     * @return a logging listener
+     */
+    static GenerationListener logging() {
+        Logger logger = LoggerFactory.getLogger(GenerationListener.class);
+        return new GenerationListener() {
+            @Override
+            public void onGenerated(GenerationMetrics metrics) {
+                logger.debug("Generated {} in {} ms (load {} µs, parse {} µs, transform {} µs, write {} µs), {} bytes written, {} bytes allocated",
+                    metrics.xmlFileName(),
+                    metrics.total().toMillis(),
+                    metrics.load().toNanos() / 1_000,
+                    metrics.parse().toNanos() / 1_000,
+                    metrics.transform().toNanos() / 1_000,
+                    metrics.write().toNanos() / 1_000,
+                    metrics.outputBytes(),
+                    metrics.allocatedBytes());
+            }
+
+            @Override
+            public void onFailure(String xmlFileName, RuntimeException failure) {
+                logger.warn("Failed to generate {}", xmlFileName, failure);
+            }
+        };
+    }
+}
@@ -0,0 +1,132 @@
+package info.jab.pml;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Content-hash manifest of a previous generation run.
+ * <p>
+ * For every generated rule the manifest records the transitive inputs it was rendered
+ * from (rule XML, XInclude'd fragments and stylesheet), and for every input its SHA-256
+ * hash at that time. An input that did not exist, such as an include covered by an
+ * {@code xi:fallback}, is recorded with the {@link #MISSING} hash, so that its later
+ * appearance is a change like any other. A rule only needs regenerating when one of its
+ * recorded inputs now hashes differently. The manifest is stored as a sorted properties file:
+ * <pre>
+ * input.fragments/adr-template.md=&lt;sha-256&gt;
+ * input.fragments/optional-notes.md=missing
+ * rule.170-java-documentation=170-java-documentation.xml,fragments/...,cursor-rules.xsl
+ * </pre>
+ *
+ * @param inputHashes SHA-256 hash per input resource name
+ * @param ruleInputs input resource names per rule base name
+ */
+record GenerationManifest(Map<String, String> inputHashes, Map<String, List<String>> ruleInputs) {
+
+    /** Hash recorded for an input that did not exist; never equal to a SHA-256 hex digest. */
+    static final String MISSING = "missing";
+
+    private static final String INPUT_PREFIX = "input.";
+    private static final String RULE_PREFIX = "rule.";
+
+    GenerationManifest {
+        inputHashes = Map.copyOf(Objects.requireNonNull(inputHashes, "inputHashes"));
+        ruleInputs = Map.copyOf(Objects.requireNonNull(ruleInputs, "ruleInputs"));
+    }
+
+    static GenerationManifest empty() {
+        return new GenerationManifest(Map.of(), Map.of());
+    }
+
+    /**
+     * Loads a manifest, returning an empty one if the file does not exist yet.
+     */
+    static GenerationManifest load(Path manifestFile) {
+        if (!Files.exists(manifestFile)) {
+            return empty();
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(manifestFile, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read generation manifest: " + manifestFile, e);
+        }
+        Map<String, String> inputHashes = new HashMap<>();
+        Map<String, List<String>> ruleInputs = new HashMap<>();
+        properties.stringPropertyNames().forEach(key -> {
+            String value = properties.getProperty(key);
+            if (key.startsWith(INPUT_PREFIX)) {
+                inputHashes.put(key.substring(INPUT_PREFIX.length()), value);
+            } else if (key.startsWith(RULE_PREFIX)) {
+                ruleInputs.put(key.substring(RULE_PREFIX.length()), Arrays.asList(value.split(",")));
+            }
+        });
+        return new GenerationManifest(inputHashes, ruleInputs);
+    }
+
+    /**
+     * Writes the manifest with sorted keys so that it diffs cleanly between runs.
+     */
+    void save(Path manifestFile) {
+        Map<String, String> lines = new TreeMap<>();
+        inputHashes.forEach((input, hash) -> lines.put(INPUT_PREFIX + input, hash));
+        ruleInputs.forEach((rule, inputs) -> lines.put(RULE_PREFIX + rule, String.join(",", inputs)));
+        String content = lines.entrySet().stream()
+            .map(entry -> entry.getKey() + "=" + entry.getValue())
+            .collect(Collectors.joining("\n", "# Cursor rules generation manifest\n", "\n"));
+        try {
+            Files.createDirectories(manifestFile.toAbsolutePath().getParent());
+            Files.writeString(manifestFile, content, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write generation manifest: " + manifestFile, e);
+        }
+    }
+
+    Optional<List<String>> inputsOf(String baseName) {
+        return Optional.ofNullable(ruleInputs.get(baseName));
+    }
+
+    Optional<String> hashOf(String input) {
+        return Optional.ofNullable(inputHashes.get(input));
+    }
+
+    /**
+     * Returns a manifest recording that {@code baseName} was rendered from the given inputs and hashes.
+     * Hashes of inputs no longer referenced by any rule are dropped.
+     */
+    GenerationManifest withRule(String baseName, Map<String, String> currentInputHashes) {
+        Map<String, List<String>> rules = new HashMap<>(ruleInputs);
+        rules.put(baseName, List.copyOf(currentInputHashes.keySet()));
+        Map<String, String> hashes = new HashMap<>(inputHashes);
+        hashes.putAll(currentInputHashes);
+        return new GenerationManifest(retainReferenced(hashes, rules), rules);
+    }
+
+    /**
+     * Returns a manifest without {@code baseName}, so that it is regenerated on the next run.
+     */
+    GenerationManifest withoutRule(String baseName) {
+        Map<String, List<String>> rules = new HashMap<>(ruleInputs);
+        rules.remove(baseName);
+        return new GenerationManifest(retainReferenced(inputHashes, rules), rules);
+    }
+
+    private static Map<String, String> retainReferenced(Map<String, String> hashes, Map<String, List<String>> rules) {
+        Map<String, String> retained = new HashMap<>(hashes);
+        retained.keySet().retainAll(rules.values().stream().flatMap(List::stream).collect(Collectors.toSet()));
+        return retained;
+    }
+}
@@ -0,0 +1,49 @@
+package info.jab.pml;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Where the time and memory of generating one rule went.
+ * <p>
+ * The phases follow the pipeline of {@link CursorRulesGenerator}: reading the rule XML,
+ * parsing it into a DOM with XInclude resolution (including reading fragments not yet
+ * cached), running the compiled stylesheet, and trimming and writing its output. Output is
+ * streamed while the stylesheet runs, so {@code transform} excludes the time spent inside
+ * the writer, which is reported as {@code write}. There is no serialization phase: the
+ * parsed DOM is handed to the stylesheet directly.
+ *
+ * @param xmlFileName the rule XML that was generated
+ * @param load time reading the rule XML
+ * @param parse time parsing the rule and resolving its XIncludes
+ * @param transform time running the stylesheet, excluding output writing
+ * @param write time trimming and writing the output
+ * @param outputBytes size of the output encoded as UTF-8, in bytes
+ * @param allocatedBytes bytes allocated by the generating thread, or {@code -1} if the JVM cannot measure it
+ */
+public record GenerationMetrics(
+        String xmlFileName,
+        Duration load,
+        Duration parse,
+        Duration transform,
+        Duration write,
+        long outputBytes,
+        long allocatedBytes) {
+
+    public GenerationMetrics {
+        Objects.requireNonNull(xmlFileName, "xmlFileName");
+        Objects.requireNonNull(load, "load");
+        Objects.requireNonNull(parse, "parse");
+        Objects.requireNonNull(transform, "transform");
+        Objects.requireNonNull(write, "write");
+    }
+
+    /**
+     * Returns the time spent across all phases.
+     *
+     * @return the sum of the phase durations
+     */
+    public Duration total() {
+        return load.plus(parse).plus(transform).plus(write);
+    }
+}
@@ -0,0 +1,137 @@
+package info.jab.pml;
+
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Collects the {@link GenerationMetrics} of a single generation on the calling thread.
+ * <p>
+ * For {@link GenerationListener#NONE} nothing is measured: phases run untimed, the output is
+ * only trimmed, and the metrics report zero durations and no allocation figure.
+ */
+final class GenerationRecorder {
+
+    private static final com.sun.management.ThreadMXBean ALLOCATION_BEAN = allocationBean();
+
+    private final String xmlFileName;
+    private final boolean measured;
+    private final long startAllocatedBytes;
+    private final long[] phaseNanos = new long[Phase.values().length];
+    private TimedWriter output;
+    private TrimmingWriter trimmed;
+
+    GenerationRecorder(String xmlFileName, GenerationListener listener) {
+        this.xmlFileName = xmlFileName;
+        this.measured = listener != GenerationListener.NONE;
+        this.startAllocatedBytes = measured ? allocatedBytes() : -1;
+    }
+
+    /**
+     * Runs a pipeline step, adding its duration to {@code phase}.
+     */
+    <T> T time(Phase phase, Supplier<T> step) {
+        if (!measured) {
+            return step.get();
+        }
+        long start = System.nanoTime();
+        try {
+            return step.get();
+        } finally {
+            phaseNanos[phase.ordinal()] += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Wraps the destination in a trimming writer whose output size, and when measured its time, are recorded.
+     */
+    Writer output(Writer writer) {
+        trimmed = new TrimmingWriter(writer);
+        if (!measured) {
+            return trimmed;
+        }
+        output = new TimedWriter(trimmed);
+        return output;
+    }
+
+    GenerationMetrics complete() {
+        long writeNanos = Objects.isNull(output) ? 0 : output.nanos;
+        long allocated = startAllocatedBytes < 0 ? -1 : allocatedBytes() - startAllocatedBytes;
+        return new GenerationMetrics(
+            xmlFileName,
+            Duration.ofNanos(phaseNanos[Phase.LOAD.ordinal()]),
+            Duration.ofNanos(phaseNanos[Phase.PARSE.ordinal()]),
+            Duration.ofNanos(Math.max(0, phaseNanos[Phase.TRANSFORM.ordinal()] - writeNanos)),
+            Duration.ofNanos(writeNanos),
+            Objects.isNull(trimmed) ? 0 : trimmed.writtenBytes(),
+            allocated);
+    }
+
+    private static long allocatedBytes() {
+        return Objects.isNull(ALLOCATION_BEAN) ? -1 : ALLOCATION_BEAN.getCurrentThreadAllocatedBytes();
+    }
+
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean allocationBean
+                && allocationBean.isThreadAllocatedMemorySupported()
+                && allocationBean.isThreadAllocatedMemoryEnabled()) {
+            return allocationBean;
+        }
+        return null;
+    }
+
+    /**
+     * Timed pipeline phases. Output writing happens inside {@link #TRANSFORM} and is measured by the writer.
+     */
+    enum Phase {
+        LOAD,
+        PARSE,
+        TRANSFORM
+    }
+
+    /**
+     * Accumulates the time spent in the wrapped writer.
+     */
+    private static final class TimedWriter extends FilterWriter {
+
+        private long nanos;
+
+        private TimedWriter(Writer out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            long start = System.nanoTime();
+            out.write(c);
+            nanos += System.nanoTime() - start;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            long start = System.nanoTime();
+            out.write(cbuf, off, len);
+            nanos += System.nanoTime() - start;
+        }
+
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            long start = System.nanoTime();
+            out.write(str, off, len);
+            nanos += System.nanoTime() - start;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            long start = System.nanoTime();
+            out.flush();
+            nanos += System.nanoTime() - start;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package info.jab.pml;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Outcome of generating a single rule within a batch.
+ * <p>
+ * Exactly one of {@code content} and {@code failure} is present: successful
+ * generations carry the rendered MDC content, failed ones carry the exception
+ * that stopped them. {@code elapsed} is the wall-clock time spent on the rule.
+ *
+ * @param baseName the rule base name (XML file name without extension)
+ * @param content the generated MDC content, or {@code null} if generation failed
+ * @param failure the failure cause, or {@code null} if generation succeeded
+ * @param elapsed the time spent generating this rule
+ */
+public record GenerationResult(String baseName, String content, RuntimeException failure, Duration elapsed) {
+
+    public GenerationResult {
+        Objects.requireNonNull(baseName, "baseName");
+        Objects.requireNonNull(elapsed, "elapsed");
+        if (Objects.isNull(content) == Objects.isNull(failure)) {
+            throw new IllegalArgumentException("Exactly one of content and failure must be present for: " + baseName);
+        }
+    }
+
+    public static GenerationResult success(String baseName, String content, Duration elapsed) {
+        return new GenerationResult(baseName, content, null, elapsed);
+    }
+
+    public static GenerationResult failure(String baseName, RuntimeException failure, Duration elapsed) {
+        return new GenerationResult(baseName, null, failure, elapsed);
+    }
+
+    public boolean succeeded() {
+        return Objects.nonNull(content);
+    }
+}
@@ -0,0 +1,51 @@
+package info.jab.pml;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Serves resources from an immutable in-memory map.
+ * <p>
+ * Resources live under the {@value #BASE_URI} scheme, which no {@link java.net.URL} handler
+ * understands, so included fragments are served through {@link #openIncluded(String)} and
+ * bypass the shared {@link FragmentCache}; two in-memory providers therefore never see
+ * each other's fragments.
+ */
+final class InMemoryResourceProvider implements ResourceProvider {
+
+    static final String BASE_URI = "memory:/";
+
+    private final Map<String, byte[]> resources;
+
+    InMemoryResourceProvider(Map<String, String> resources) {
+        this.resources = Objects.requireNonNull(resources, "resources").entrySet().stream()
+            .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, entry -> entry.getValue().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Override
+    public Optional<InputStream> open(String name) {
+        return Optional.ofNullable(resources.get(name)).map(ByteArrayInputStream::new);
+    }
+
+    @Override
+    public String baseUri() {
+        return BASE_URI;
+    }
+
+    @Override
+    public Optional<InputStream> openIncluded(String systemId) {
+        if (!systemId.startsWith(BASE_URI)) {
+            return Optional.empty();
+        }
+        String name = systemId.substring(BASE_URI.length());
+        return Optional.of(open(name).orElseThrow(() ->
+            new UncheckedIOException(new FileNotFoundException("In-memory resource not found: " + name))));
+    }
+}
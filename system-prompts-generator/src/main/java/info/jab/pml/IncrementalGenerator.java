@@ -0,0 +1,166 @@
+package info.jab.pml;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Incremental front end for {@link CursorRulesGenerator}.
+ * <p>
+ * Keeps a {@link GenerationManifest} next to the generated files recording the SHA-256
+ * hash of every rule XML, every XInclude'd fragment and the stylesheet used to render
+ * each output. On each run only the rules whose transitive inputs changed, or whose
+ * output file is missing, are regenerated; all others are left untouched. Editing a
+ * single fragment therefore only re-renders the rules that include it. Includes that do
+ * not exist are recorded as {@link GenerationManifest#MISSING}, so a rule rendered with
+ * an {@code xi:fallback} is regenerated once the included resource appears. The stylesheet
+ * is recorded as the last input of each rule, so asking for another stylesheet than the one
+ * a rule was rendered with regenerates it.
+ * <p>
+ * Every input of the stale rules is hashed before they are rendered, and each run renders
+ * through a fragment cache of its own, so a recorded hash is never newer than the content
+ * the output was rendered from: an input edited during a run regenerates its rules next time.
+ */
+public final class IncrementalGenerator {
+
+    /** Manifest file name, stored in the output directory. */
+    public static final String MANIFEST_FILE_NAME = "generation-manifest.properties";
+
+    private final CursorRulesGenerator generator;
+    private final Path outputDirectory;
+    private final Path manifestFile;
+    private final RuleDependencies ruleDependencies;
+    private final OutputSink outputSink;
+
+    /**
+     * @param generator the generator used to render stale rules
+     * @param outputDirectory the directory receiving {@code <baseName>.md} files and the manifest
+     */
+    public IncrementalGenerator(CursorRulesGenerator generator, Path outputDirectory) {
+        this(generator, outputDirectory, new OutputSink());
+    }
+
+    /**
+     * @param generator the generator used to render stale rules
+     * @param outputDirectory the directory receiving {@code <baseName>.md} files and the manifest
+     * @param outputSink writes regenerated rules, skipping those whose output did not change
+     */
+    public IncrementalGenerator(CursorRulesGenerator generator, Path outputDirectory, OutputSink outputSink) {
+        this.outputSink = Objects.requireNonNull(outputSink, "outputSink");
+        this.generator = Objects.requireNonNull(generator, "generator");
+        this.outputDirectory = Objects.requireNonNull(outputDirectory, "outputDirectory");
+        this.manifestFile = outputDirectory.resolve(MANIFEST_FILE_NAME);
+        this.ruleDependencies = new RuleDependencies(this::loadResource);
+    }
+
+    /**
+     * Regenerates the rules among {@code baseNames} whose inputs changed since the last run.
+     *
+     * @param baseNames the rule base names to bring up to date
+     * @param xslFileName the root-relative name of the XSLT stylesheet used for transformation
+     * @return which rules were regenerated or skipped, with the batch result of the regenerated ones
+     * @throws RuntimeException if the stylesheet cannot be loaded or outputs cannot be written
+     */
+    public IncrementalResult generate(List<String> baseNames, String xslFileName) {
+        return generate(baseNames, xslFileName, BatchOptions.defaults());
+    }
+
+    /**
+     * Regenerates the rules among {@code baseNames} whose inputs changed since the last run,
+     * generating the stale rules with {@code options}. Rules that fail, including structural
+     * validation, are dropped from the manifest so that the next run retries them.
+     *
+     * @param baseNames the rule base names to bring up to date
+     * @param xslFileName the root-relative name of the XSLT stylesheet used for transformation
+     * @param options parallelism, failure handling and validation of the regenerated rules
+     * @return which rules were regenerated or skipped, with the batch result of the regenerated ones
+     * @throws RuntimeException if the stylesheet cannot be loaded or outputs cannot be written
+     */
+    public IncrementalResult generate(List<String> baseNames, String xslFileName, BatchOptions options) {
+        Objects.requireNonNull(options, "options");
+        GenerationManifest manifest = GenerationManifest.load(manifestFile);
+        Map<String, String> currentHashes = new HashMap<>();
+
+        Map<Boolean, List<String>> partitioned = baseNames.stream()
+            .collect(Collectors.partitioningBy(baseName -> isStale(baseName, xslFileName, manifest, currentHashes)));
+        List<String> stale = partitioned.get(true);
+        List<String> upToDate = partitioned.get(false);
+        Map<String, Map<String, String>> staleInputs = new HashMap<>();
+        stale.forEach(baseName -> staleInputs.put(baseName, inputHashes(baseName, xslFileName, currentHashes)));
+
+        BatchGenerationResult batch = generator
+            .withFragmentCache(new FragmentCache(FragmentCache.DEFAULT_MAX_BYTES))
+            .generateAll(stale, xslFileName, options);
+        GenerationManifest updated = manifest;
+        for (GenerationResult result : batch.results()) {
+            if (result.succeeded()) {
+                writeOutput(result);
+                updated = updated.withRule(result.baseName(), staleInputs.get(result.baseName()));
+            } else {
+                updated = updated.withoutRule(result.baseName());
+            }
+        }
+        updated.save(manifestFile);
+        return new IncrementalResult(stale, upToDate, batch);
+    }
+
+    /**
+     * A rule is stale when it was never recorded, its output is missing, it was rendered with
+     * another stylesheet than {@code xslFileName}, or any recorded input changed.
+     */
+    private boolean isStale(String baseName, String xslFileName, GenerationManifest manifest,
+                            Map<String, String> currentHashes) {
+        if (!Files.exists(outputFile(baseName))) {
+            return true;
+        }
+        return manifest.inputsOf(baseName)
+            .map(inputs -> !inputs.contains(xslFileName) || inputs.stream().anyMatch(input ->
+                !manifest.hashOf(input).equals(Optional.of(currentHash(input, currentHashes)))))
+            .orElse(true);
+    }
+
+    /**
+     * Hashes the rule XML, its transitive includes and the stylesheet, preserving that order.
+     * Missing inputs are kept with the {@link GenerationManifest#MISSING} hash.
+     */
+    private Map<String, String> inputHashes(String baseName, String xslFileName, Map<String, String> currentHashes) {
+        Map<String, String> hashes = new LinkedHashMap<>();
+        List<String> inputs = new ArrayList<>(ruleDependencies.of(baseName + ".xml"));
+        inputs.add(xslFileName);
+        inputs.forEach(input -> hashes.put(input, currentHash(input, currentHashes)));
+        return hashes;
+    }
+
+    // The SHA-256 of the input, or GenerationManifest.MISSING when it does not exist
+    private String currentHash(String input, Map<String, String> currentHashes) {
+        return currentHashes.computeIfAbsent(input, name -> loadResource(name).map(stream -> {
+            try (stream) {
+                return ContentHash.sha256(stream.readAllBytes());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to hash input: " + name, e);
+            }
+        }).orElse(GenerationManifest.MISSING));
+    }
+
+    private Optional<InputStream> loadResource(String fileName) {
+        return generator.resourceProvider().open(fileName);
+    }
+
+    private void writeOutput(GenerationResult result) {
+        outputSink.write(outputFile(result.baseName()), result.content());
+    }
+
+    private Path outputFile(String baseName) {
+        return outputDirectory.resolve(baseName + ".md");
+    }
+}
@@ -0,0 +1,20 @@
+package info.jab.pml;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Outcome of an incremental generation run.
+ *
+ * @param regenerated base names of the rules whose inputs changed and were rendered again
+ * @param upToDate base names of the rules skipped because none of their inputs changed
+ * @param batch the batch result for the regenerated rules
+ */
+public record IncrementalResult(List<String> regenerated, List<String> upToDate, BatchGenerationResult batch) {
+
+    public IncrementalResult {
+        regenerated = List.copyOf(Objects.requireNonNull(regenerated, "regenerated"));
+        upToDate = List.copyOf(Objects.requireNonNull(upToDate, "upToDate"));
+        Objects.requireNonNull(batch, "batch");
+    }
+}
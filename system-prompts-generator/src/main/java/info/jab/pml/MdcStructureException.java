@@ -0,0 +1,25 @@
+package info.jab.pml;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Thrown, or reported as a batch failure, when generated content breaks the structural rules
+ * checked by {@link MdcStructureValidator}.
+ */
+public class MdcStructureException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient List<MdcStructureValidator.Violation> violations;
+
+    public MdcStructureException(String baseName, List<MdcStructureValidator.Violation> violations) {
+        super("Generated rule " + baseName + " has " + violations.size() + " structural violation(s):"
+            + violations.stream().map(violation -> "\n  " + violation).collect(Collectors.joining()));
+        this.violations = List.copyOf(violations);
+    }
+
+    public List<MdcStructureValidator.Violation> violations() {
+        return violations;
+    }
+}
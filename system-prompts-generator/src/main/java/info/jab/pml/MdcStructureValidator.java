@@ -0,0 +1,391 @@
+package info.jab.pml;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Structural checks for generated MDC content, run in a single streaming pass.
+ * <p>
+ * Each line is read once and fed to a small state machine covering the rules every generated
+ * rule must follow: frontmatter, a main title, the Role and Goal sections, a blank line before
+ * each {@code ##} heading, example headings with Title and Description, a table of contents
+ * matching the sequentially numbered examples, Good and Bad examples, fenced code blocks with a
+ * language, and bullet items under Output Format and Safeguards (with Maven commands for Maven rules).
+ * <p>
+ * The validator is stateless and thread-safe. Files are validated in parallel by
+ * {@link #validateAll(Collection)}, and batch generation validates each rule as it is
+ * generated when {@link BatchOptions#withStructureValidation()} is set.
+ */
+public final class MdcStructureValidator {
+
+    private static final Pattern EXAMPLE_HEADING = Pattern.compile("^### Example (\\d+):.*");
+    private static final Pattern TOC_ENTRY = Pattern.compile("^- Example (\\d+):.*");
+    private static final int FRONTMATTER_SEARCH_LINES = 10;
+
+    /**
+     * A broken structural rule.
+     *
+     * @param baseName the rule the content was generated for
+     * @param line the 1-based line the violation was found at, or 0 when it concerns the whole document
+     * @param message a description of the violation
+     */
+    public record Violation(String baseName, int line, String message) {
+
+        public Violation {
+            Objects.requireNonNull(baseName, "baseName");
+            Objects.requireNonNull(message, "message");
+        }
+
+        @Override
+        public String toString() {
+            return line > 0 ? baseName + ":" + line + ": " + message : baseName + ": " + message;
+        }
+    }
+
+    /**
+     * Validates generated content.
+     *
+     * @param baseName the rule base name, used in violations and to recognize Maven rules
+     * @param content the generated MDC content
+     * @return the violations found, in document order; empty if the content is well-formed
+     */
+    public List<Violation> validate(String baseName, String content) {
+        return validate(baseName, new StringReader(Objects.requireNonNull(content, "content")));
+    }
+
+    /**
+     * Validates a generated file. The rule base name is the file name without its extension.
+     *
+     * @param file the generated MDC file, read as UTF-8
+     * @return the violations found, in document order; empty if the file is well-formed
+     * @throws UncheckedIOException if the file cannot be read
+     */
+    public List<Violation> validate(Path file) {
+        String fileName = file.getFileName().toString();
+        int extension = fileName.lastIndexOf('.');
+        String baseName = extension > 0 ? fileName.substring(0, extension) : fileName;
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return validate(baseName, reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read generated rule: " + file, e);
+        }
+    }
+
+    /**
+     * Validates content streamed from {@code reader} without holding it in memory. The reader is not closed.
+     *
+     * @param baseName the rule base name, used in violations and to recognize Maven rules
+     * @param reader the generated MDC content
+     * @return the violations found, in document order; empty if the content is well-formed
+     * @throws UncheckedIOException if the content cannot be read
+     */
+    public List<Violation> validate(String baseName, Reader reader) {
+        Objects.requireNonNull(baseName, "baseName");
+        Scan scan = new Scan(baseName);
+        BufferedReader lines = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+        try {
+            String line;
+            while ((line = lines.readLine()) != null) {
+                scan.accept(line);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read generated rule: " + baseName, e);
+        }
+        return scan.finish();
+    }
+
+    /**
+     * Validates several generated files in parallel.
+     *
+     * @param files the generated MDC files
+     * @return the violations of all files, grouped by file in the order of {@code files}
+     * @throws UncheckedIOException if a file cannot be read
+     */
+    public List<Violation> validateAll(Collection<Path> files) {
+        return files.parallelStream()
+            .flatMap(file -> validate(file).stream())
+            .toList();
+    }
+
+    /**
+     * State of one validation pass. Checks that depend on later lines (for example whether the
+     * document has an Examples section) are decided in {@link #finish()}.
+     */
+    private static final class Scan {
+
+        private final String baseName;
+        private final boolean mavenRule;
+        private final List<Violation> violations = new ArrayList<>();
+
+        private int lineNumber;
+        private String previousLine;
+
+        private boolean frontmatterClosed;
+        private boolean hasMainTitle;
+        private boolean hasRole;
+        private boolean hasGoal;
+        private boolean hasExamplesSection;
+        private boolean hasTableOfContents;
+        private boolean hasGoodExample;
+        private boolean hasBadExample;
+        private boolean hasMavenCommand;
+
+        // Example headings: numbering, and the Title/Description lines expected after each
+        private final List<Integer> exampleNumbers = new ArrayList<>();
+        private final List<Violation> exampleViolations = new ArrayList<>();
+        private ExpectedLine expectedLine = ExpectedLine.NONE;
+        private int exampleLine;
+
+        // Table of contents: collected from its heading up to the next ### heading
+        private final List<Integer> tocNumbers = new ArrayList<>();
+        private boolean inToc;
+        private boolean tocClosed;
+
+        // Code blocks opened with a language and not closed yet
+        private final List<Integer> openCodeBlocks = new ArrayList<>();
+
+        private final BulletSection outputFormat = new BulletSection("## Output Format", "Output Format");
+        private final BulletSection safeguards = new BulletSection("## Safeguards", "Safeguards");
+
+        Scan(String baseName) {
+            this.baseName = baseName;
+            this.mavenRule = baseName.contains("maven");
+        }
+
+        void accept(String line) {
+            lineNumber++;
+            checkFrontmatter(line);
+            checkHeadings(line);
+            checkExamples(line);
+            checkTableOfContents(line);
+            checkCodeBlock(line);
+            outputFormat.accept(line);
+            safeguards.accept(line);
+            if (mavenRule && (line.contains("mvn") || line.contains("./mvnw"))) {
+                hasMavenCommand = true;
+            }
+            previousLine = line;
+        }
+
+        private void checkFrontmatter(String line) {
+            if (lineNumber == 1 && !line.equals("---")) {
+                violations.add(violation(1, "should start with frontmatter (---)"));
+            } else if (lineNumber > 1 && lineNumber <= FRONTMATTER_SEARCH_LINES && line.equals("---")) {
+                frontmatterClosed = true;
+            }
+        }
+
+        private void checkHeadings(String line) {
+            if (line.startsWith("# ")) {
+                hasMainTitle = true;
+            } else if (line.startsWith("## ")) {
+                if (lineNumber > 1 && !(previousLine.isBlank() || previousLine.equals("---"))) {
+                    violations.add(violation(lineNumber, "## heading '" + line + "' should have a blank line before it"));
+                }
+                switch (line) {
+                    case "## Role" -> hasRole = true;
+                    case "## Goal" -> hasGoal = true;
+                    case "## Examples" -> hasExamplesSection = true;
+                    default -> {
+                    }
+                }
+            } else if (line.equals("**Good example:**")) {
+                hasGoodExample = true;
+            } else if (line.equals("**Bad example:**")) {
+                hasBadExample = true;
+            }
+        }
+
+        private void checkExamples(String line) {
+            if (expectedLine != ExpectedLine.NONE && !line.isBlank()) {
+                if (!line.startsWith(expectedLine.prefix)) {
+                    exampleViolations.add(violation(exampleLine, expectedLine.message));
+                    expectedLine = ExpectedLine.NONE;
+                } else {
+                    expectedLine = expectedLine.next();
+                }
+            }
+            if (line.startsWith("### Example ")) {
+                Matcher matcher = EXAMPLE_HEADING.matcher(line);
+                if (matcher.matches()) {
+                    parseNumber(matcher.group(1), exampleNumbers);
+                    expectedLine = ExpectedLine.TITLE;
+                    exampleLine = lineNumber;
+                }
+            }
+        }
+
+        private void checkTableOfContents(String line) {
+            if (line.equals("### Table of contents")) {
+                hasTableOfContents = true;
+                inToc = !tocClosed;
+            } else if (inToc && line.startsWith("### ")) {
+                inToc = false;
+                tocClosed = true;
+            } else if (inToc && line.startsWith("- Example ")) {
+                Matcher matcher = TOC_ENTRY.matcher(line);
+                if (matcher.matches()) {
+                    parseNumber(matcher.group(1), tocNumbers);
+                }
+            }
+        }
+
+        private void checkCodeBlock(String line) {
+            if (line.equals("```")) {
+                openCodeBlocks.clear();
+            } else if (line.startsWith("```")) {
+                if (line.substring(3).isBlank()) {
+                    violations.add(violation(lineNumber, "code block should specify a language"));
+                }
+                openCodeBlocks.add(lineNumber);
+            }
+        }
+
+        List<Violation> finish() {
+            if (lineNumber == 0) {
+                violations.add(violation(0, "should start with frontmatter (---)"));
+            }
+            if (!frontmatterClosed) {
+                violations.add(violation(0, "should have closing frontmatter (---)"));
+            }
+            if (!hasMainTitle) {
+                violations.add(violation(0, "should have a main title (# heading)"));
+            }
+            if (!hasRole) {
+                violations.add(violation(0, "should have a ## Role section"));
+            }
+            if (!hasGoal) {
+                violations.add(violation(0, "should have a ## Goal section"));
+            }
+            openCodeBlocks.forEach(line -> violations.add(violation(line, "code block is not properly closed")));
+            if (hasExamplesSection) {
+                if (!hasTableOfContents) {
+                    violations.add(violation(0, "Examples section should have a Table of contents"));
+                }
+                if (exampleNumbers.isEmpty()) {
+                    violations.add(violation(0, "Examples section should have at least one '### Example N:' heading"));
+                }
+                violations.addAll(exampleViolations);
+            }
+            if (!exampleNumbers.isEmpty()) {
+                finishExamples();
+            }
+            outputFormat.finish();
+            if (safeguards.finish() && mavenRule && !hasMavenCommand) {
+                violations.add(violation(0, "Maven-related rule should contain Maven commands in Safeguards"));
+            }
+            return List.copyOf(violations);
+        }
+
+        private void finishExamples() {
+            if (!hasGoodExample) {
+                violations.add(violation(0, "examples should have at least one 'Good example:'"));
+            }
+            if (!hasBadExample) {
+                violations.add(violation(0, "examples should have at least one 'Bad example:'"));
+            }
+            if (exampleNumbers.getFirst() != 1) {
+                violations.add(violation(0, "first example should be numbered 1"));
+            }
+            for (int i = 1; i < exampleNumbers.size(); i++) {
+                if (exampleNumbers.get(i) != exampleNumbers.get(i - 1) + 1) {
+                    violations.add(violation(0, "example numbers should be sequential, found gap after " + exampleNumbers.get(i - 1)));
+                }
+            }
+            if (!tocNumbers.equals(exampleNumbers)) {
+                violations.add(violation(0, "table of contents " + tocNumbers + " should match example numbers " + exampleNumbers));
+            }
+        }
+
+        private Violation violation(int line, String message) {
+            return new Violation(baseName, line, message);
+        }
+
+        private static void parseNumber(String digits, List<Integer> numbers) {
+            try {
+                numbers.add(Integer.parseInt(digits));
+            } catch (NumberFormatException e) {
+                // Too large to be an example number; ignored like any other malformed heading
+            }
+        }
+
+        /**
+         * The line expected next (ignoring blank lines) after an example heading.
+         */
+        private enum ExpectedLine {
+            NONE("", ""),
+            TITLE("Title:", "example should be followed by a 'Title:' line"),
+            DESCRIPTION("Description:", "example should have a 'Description:' line after Title");
+
+            private final String prefix;
+            private final String message;
+
+            ExpectedLine(String prefix, String message) {
+                this.prefix = prefix;
+                this.message = message;
+            }
+
+            ExpectedLine next() {
+                return this == TITLE ? DESCRIPTION : NONE;
+            }
+        }
+
+        /**
+         * A section that, when present, must list at least one bullet item before the next {@code ##} heading.
+         */
+        private final class BulletSection {
+
+            private final String heading;
+            private final String name;
+            private boolean present;
+            private boolean inSection;
+            private boolean decided;
+
+            BulletSection(String heading, String name) {
+                this.heading = heading;
+                this.name = name;
+            }
+
+            void accept(String line) {
+                if (decided) {
+                    return;
+                }
+                if (line.equals(heading)) {
+                    present = true;
+                    inSection = true;
+                } else if (inSection && line.startsWith("## ")) {
+                    missingItems();
+                } else if (inSection && line.startsWith("- ")) {
+                    decided = true;
+                }
+            }
+
+            /**
+             * @return whether the section is present
+             */
+            boolean finish() {
+                if (inSection && !decided) {
+                    missingItems();
+                }
+                return present;
+            }
+
+            private void missingItems() {
+                violations.add(violation(0, name + " section should contain bullet point items"));
+                decided = true;
+            }
+        }
+    }
+}
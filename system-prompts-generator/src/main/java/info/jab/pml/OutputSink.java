@@ -0,0 +1,253 @@
+package info.jab.pml;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes generated rules to disk only when their content changed.
+ * <p>
+ * Rewriting an identical file still updates its modification time and wakes up whatever
+ * watches the output directory (a static site build, an IDE, a file watcher). The sink
+ * compares each render with the file already on disk, first by size and then chunk by chunk,
+ * and leaves the file untouched when they match, so a no-op regeneration performs no writes.
+ * <p>
+ * Changed content is written to a temporary file next to the output and moved over it
+ * atomically, so a failed render never damages the file already there. Content streamed
+ * through {@link #write(Path, Content)} is never held in memory as a whole.
+ * <p>
+ * The sink is thread-safe and counts written and unchanged files over its lifetime.
+ */
+public final class OutputSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutputSink.class);
+    private static final int CHUNK_SIZE = 8192;
+
+    /**
+     * What {@link #write(Path, String)} did with a file.
+     */
+    public enum Outcome {
+        /** The file was missing or different and has been written. */
+        WRITTEN,
+        /** The file already had the same content and was left untouched. */
+        UNCHANGED
+    }
+
+    /**
+     * Content streamed into the sink, typically a render into the given writer.
+     */
+    @FunctionalInterface
+    public interface Content {
+
+        /**
+         * Writes the content into {@code writer}; the sink closes the writer afterwards.
+         *
+         * @param writer the UTF-8 writer of the temporary file
+         * @throws IOException if the content cannot be written
+         */
+        void writeTo(Writer writer) throws IOException;
+    }
+
+    private final LongAdder written = new LongAdder();
+    private final LongAdder unchanged = new LongAdder();
+
+    /**
+     * Writes {@code content} as UTF-8 to {@code file} unless the file already holds exactly that content.
+     * Missing parent directories are created.
+     *
+     * @param file the output file
+     * @param content the generated content
+     * @return whether the file was written or left unchanged
+     * @throws UncheckedIOException if the file cannot be read or written
+     */
+    public Outcome write(Path file, String content) {
+        Objects.requireNonNull(file, "file");
+        byte[] bytes = Objects.requireNonNull(content, "content").getBytes(StandardCharsets.UTF_8);
+        try {
+            if (hasContent(file, bytes)) {
+                unchanged.increment();
+                return Outcome.UNCHANGED;
+            }
+            Path temporary = temporaryFile(file);
+            try {
+                Files.write(temporary, bytes, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+                replace(temporary, file);
+            } finally {
+                deleteTemporary(temporary);
+            }
+            written.increment();
+            return Outcome.WRITTEN;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write generated rule: " + file, e);
+        }
+    }
+
+    /**
+     * Streams {@code content} as UTF-8 into a temporary file next to {@code file}, then keeps
+     * whichever is current: the temporary file is deleted when it matches {@code file}, and
+     * otherwise moved over it. Missing parent directories are created. If {@code content} fails,
+     * the temporary file is deleted and {@code file} is left as it was.
+     *
+     * @param file the output file
+     * @param content writes the generated content
+     * @return whether the file was written or left unchanged
+     * @throws UncheckedIOException if the file cannot be read or written
+     * @throws RuntimeException whatever {@code content} throws
+     */
+    public Outcome write(Path file, Content content) {
+        return stage(file, content).commit();
+    }
+
+    /**
+     * First half of {@link #write(Path, Content)}: streams {@code content} into a temporary file
+     * next to {@code file} and returns it without touching {@code file}, so that several outputs
+     * can be rendered first and then all committed, or all discarded if one of them failed.
+     */
+    Staged stage(Path file, Content content) {
+        Objects.requireNonNull(file, "file");
+        Objects.requireNonNull(content, "content");
+        try {
+            Path temporary = temporaryFile(file);
+            boolean staged = false;
+            try {
+                try (Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                    content.writeTo(writer);
+                }
+                staged = true;
+                return new Staged(file, temporary);
+            } finally {
+                if (!staged) {
+                    deleteTemporary(temporary);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write generated rule: " + file, e);
+        }
+    }
+
+    /**
+     * Returns the number of files written so far.
+     *
+     * @return the written file count
+     */
+    public long written() {
+        return written.sum();
+    }
+
+    /**
+     * Returns the number of files left untouched so far because their content was unchanged.
+     *
+     * @return the unchanged file count
+     */
+    public long unchanged() {
+        return unchanged.sum();
+    }
+
+    // A hidden, not yet existing sibling of file, so that the final move stays on one file system
+    private static Path temporaryFile(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        return parent.resolve("." + file.getFileName() + "." + UUID.randomUUID() + ".tmp");
+    }
+
+    private static void replace(Path temporary, Path file) throws IOException {
+        try {
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    // A no-op once the temporary file has been moved into place
+    private static void deleteTemporary(Path temporary) {
+        try {
+            Files.deleteIfExists(temporary);
+        } catch (IOException e) {
+            // Keep the original outcome; a stray temporary file is the lesser problem
+            logger.warn("Failed to delete temporary output: {}", temporary, e);
+        }
+    }
+
+    private static boolean hasContent(Path file, byte[] bytes) throws IOException {
+        // The size check avoids reading files that certainly differ
+        if (!Files.isRegularFile(file) || Files.size(file) != bytes.length) {
+            return false;
+        }
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] chunk = new byte[CHUNK_SIZE];
+            int offset = 0;
+            for (int read = in.read(chunk); read > 0; read = in.read(chunk)) {
+                if (offset + read > bytes.length || !Arrays.equals(chunk, 0, read, bytes, offset, offset + read)) {
+                    return false;
+                }
+                offset += read;
+            }
+            return offset == bytes.length;
+        }
+    }
+
+    private static boolean sameContent(Path file, Path temporary) throws IOException {
+        // Files.mismatch compares chunk by chunk; the size check avoids reading files that certainly differ
+        return Files.isRegularFile(file)
+            && Files.size(file) == Files.size(temporary)
+            && Files.mismatch(file, temporary) == -1L;
+    }
+
+    /**
+     * Content rendered into a temporary file, waiting to be committed to its output file or discarded.
+     */
+    final class Staged {
+
+        private final Path file;
+        private final Path temporary;
+
+        private Staged(Path file, Path temporary) {
+            this.file = file;
+            this.temporary = temporary;
+        }
+
+        Path file() {
+            return file;
+        }
+
+        /**
+         * Deletes the temporary file when it matches the output file, and otherwise moves it over the output file.
+         */
+        Outcome commit() {
+            try {
+                if (sameContent(file, temporary)) {
+                    unchanged.increment();
+                    return Outcome.UNCHANGED;
+                }
+                replace(temporary, file);
+                written.increment();
+                return Outcome.WRITTEN;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write generated rule: " + file, e);
+            } finally {
+                deleteTemporary(temporary);
+            }
+        }
+
+        /**
+         * Deletes the temporary file, leaving the output file as it was.
+         */
+        void discard() {
+            deleteTemporary(temporary);
+        }
+    }
+}
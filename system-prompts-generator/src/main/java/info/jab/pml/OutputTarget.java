@@ -0,0 +1,34 @@
+package info.jab.pml;
+
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * One rendering of a rule: a stylesheet and where its output goes.
+ * <p>
+ * Used with {@link CursorRulesGenerator#generate(String, java.util.List)} to render the same
+ * rule for several targets, for example Cursor rules, site Markdown and a plain system prompt,
+ * from a single parse of the rule XML.
+ *
+ * @param xslFileName the root-relative name of the XSLT stylesheet for this target
+ * @param outputDirectory the directory receiving this target's files
+ * @param fileExtension the extension appended to the rule base name, including the dot (e.g. {@code .md})
+ */
+public record OutputTarget(String xslFileName, Path outputDirectory, String fileExtension) {
+
+    public OutputTarget {
+        Objects.requireNonNull(xslFileName, "xslFileName");
+        Objects.requireNonNull(outputDirectory, "outputDirectory");
+        Objects.requireNonNull(fileExtension, "fileExtension");
+    }
+
+    /**
+     * Returns the file this target writes for a rule.
+     *
+     * @param baseName the rule base name (XML file name without extension)
+     * @return the output file
+     */
+    public Path outputFile(String baseName) {
+        return outputDirectory.resolve(baseName + fileExtension);
+    }
+}
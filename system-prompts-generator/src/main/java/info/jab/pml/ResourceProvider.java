@@ -0,0 +1,76 @@
+package info.jab.pml;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Source of rule XMLs, XInclude'd fragments and stylesheets for {@link CursorRulesGenerator}.
+ * <p>
+ * Resources are addressed by root-relative names such as {@code 126-java-logging.xml} or
+ * {@code fragments/java-maven-properties-template.md}. The {@link #baseUri() base URI} is the
+ * absolute URI those names are resolved against when the parser follows XInclude references.
+ */
+public interface ResourceProvider {
+
+    /**
+     * Opens a resource by its root-relative name.
+     *
+     * @param name the root-relative resource name
+     * @return a stream over the resource content, or empty if the resource does not exist
+     */
+    Optional<InputStream> open(String name);
+
+    /**
+     * Returns the absolute URI, ending with {@code /}, against which XIncludes are resolved.
+     *
+     * @return the base URI of the resource root
+     */
+    String baseUri();
+
+    /**
+     * Opens a resource the parser is about to include, given its absolute system id.
+     * <p>
+     * Providers whose base URI can be read through {@link java.net.URL}, such as {@code file:}
+     * and {@code jar:} URIs, return empty and let the generator's {@link FragmentCache} read
+     * and cache it. Providers with their own URI scheme serve their resources here.
+     *
+     * @param systemId the absolute system id of the included resource
+     * @return a stream over the resource content, or empty to let the URI be read directly
+     */
+    default Optional<InputStream> openIncluded(String systemId) {
+        return Optional.empty();
+    }
+
+    /**
+     * Returns a provider reading resources from the classpath, the default of {@link CursorRulesGenerator}.
+     *
+     * @return the classpath provider
+     */
+    static ResourceProvider classpath() {
+        return ClasspathResourceProvider.INSTANCE;
+    }
+
+    /**
+     * Returns a provider reading resources from a directory, such as {@code src/main/resources}.
+     *
+     * @param root the directory holding rule XMLs, fragments and stylesheets
+     * @return a directory provider
+     */
+    static ResourceProvider directory(Path root) {
+        return new DirectoryResourceProvider(root);
+    }
+
+    /**
+     * Returns a provider serving resources from memory, keyed by root-relative name, for
+     * example to run tests and benchmarks without class loader or file system lookups.
+     * Its base URI is {@value InMemoryResourceProvider#BASE_URI}.
+     *
+     * @param resources UTF-8 resource content by root-relative name; copied
+     * @return an in-memory provider
+     */
+    static ResourceProvider inMemory(Map<String, String> resources) {
+        return new InMemoryResourceProvider(resources);
+    }
+}
@@ -0,0 +1,104 @@
+package info.jab.pml;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import javax.xml.parsers.SAXParserFactory;
+import org.xml.sax.Attributes;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Discovers the resources a rule XML depends on through XInclude.
+ * <p>
+ * Includes are collected without being resolved: the rule is scanned with a plain
+ * namespace-aware SAX parser and every {@code xi:include/@href} is resolved against
+ * the including resource. Includes with {@code parse="xml"} are scanned recursively,
+ * so the returned set is the transitive closure of the rule's inputs.
+ */
+final class RuleDependencies {
+
+    private static final String XINCLUDE_NAMESPACE = "http://www.w3.org/2001/XInclude";
+
+    private final Function<String, Optional<InputStream>> resourceLoader;
+
+    /**
+     * @param resourceLoader opens a resource by its root-relative name, or returns empty if it does not exist
+     */
+    RuleDependencies(Function<String, Optional<InputStream>> resourceLoader) {
+        this.resourceLoader = Objects.requireNonNull(resourceLoader, "resourceLoader");
+    }
+
+    /**
+     * Returns the rule XML itself followed by every resource it includes, directly or transitively.
+     * Missing includes are still listed so that their later appearance is detected as a change.
+     *
+     * @param xmlFileName the root-relative name of the rule XML
+     * @return the ordered, de-duplicated list of input resource names
+     */
+    List<String> of(String xmlFileName) {
+        Set<String> inputs = new LinkedHashSet<>();
+        Deque<String> pendingXml = new ArrayDeque<>();
+        inputs.add(xmlFileName);
+        pendingXml.push(xmlFileName);
+        while (!pendingXml.isEmpty()) {
+            String current = pendingXml.pop();
+            for (Include include : includesOf(current)) {
+                if (inputs.add(include.resource()) && include.xml()) {
+                    pendingXml.push(include.resource());
+                }
+            }
+        }
+        return List.copyOf(inputs);
+    }
+
+    private List<Include> includesOf(String resource) {
+        return resourceLoader.apply(resource)
+            .map(stream -> scan(resource, stream))
+            .orElse(List.of());
+    }
+
+    private List<Include> scan(String resource, InputStream stream) {
+        try (stream) {
+            SAXParserFactory factory = SAXParserFactory.newInstance();
+            factory.setNamespaceAware(true);
+            IncludeCollector collector = new IncludeCollector(resource);
+            factory.newSAXParser().parse(stream, collector);
+            return collector.includes;
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to scan XInclude dependencies of: " + resource, e);
+        }
+    }
+
+    private record Include(String resource, boolean xml) {
+    }
+
+    private static final class IncludeCollector extends DefaultHandler {
+
+        private final URI base;
+        private final List<Include> includes = new ArrayList<>();
+
+        private IncludeCollector(String resource) {
+            this.base = URI.create(resource);
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            if (XINCLUDE_NAMESPACE.equals(uri) && "include".equals(localName)) {
+                String href = attributes.getValue("href");
+                if (Objects.nonNull(href) && !href.isBlank()) {
+                    String parse = attributes.getValue("parse");
+                    boolean xml = Objects.isNull(parse) || "xml".equals(parse);
+                    includes.add(new Include(base.resolve(href).normalize().toString(), xml));
+                }
+            }
+        }
+    }
+}
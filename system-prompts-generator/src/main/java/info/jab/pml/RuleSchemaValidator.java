@@ -0,0 +1,216 @@
+package info.jab.pml;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.xml.XMLConstants;
+import javax.xml.transform.Source;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+import javax.xml.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+
+/**
+ * Validates rule definitions against an XML Schema compiled once and shared across threads.
+ * <p>
+ * The {@link #bundled() bundled} instance uses the schema shipped with the generator
+ * ({@value #BUNDLED_SCHEMA}), so validation never touches the network: external schema and
+ * DTD access is disabled both while compiling the schema and while validating. A compiled
+ * {@link Schema} is immutable and thread-safe; each validation creates its own cheap
+ * {@link Validator}.
+ * <p>
+ * Rules can be validated as stored, with {@link #validateAll(List, ResourceProvider)}, or after
+ * XInclude resolution as an optional stage of {@link CursorRulesGenerator}, enabled with
+ * {@link CursorRulesGenerator.Builder#schemaValidator(RuleSchemaValidator)}.
+ */
+public final class RuleSchemaValidator {
+
+    private static final Logger logger = LoggerFactory.getLogger(RuleSchemaValidator.class);
+
+    /** Classpath location of the schema used by {@link #bundled()}. */
+    public static final String BUNDLED_SCHEMA = "schemas/pml-cursor-rules.xsd";
+
+    private final Schema schema;
+
+    /**
+     * Compiles the schema at {@code schemaSource}. Imports and includes are not resolved.
+     *
+     * @param schemaSource the XML Schema to validate against
+     * @throws IllegalStateException if the schema cannot be compiled
+     */
+    public RuleSchemaValidator(Source schemaSource) {
+        Objects.requireNonNull(schemaSource, "schemaSource");
+        try {
+            SchemaFactory schemaFactory = SchemaFactory.newDefaultInstance();
+            schemaFactory.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+            schemaFactory.setProperty(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
+            this.schema = schemaFactory.newSchema(schemaSource);
+        } catch (SAXException e) {
+            throw new IllegalStateException("Failed to compile schema: " + schemaSource.getSystemId(), e);
+        }
+    }
+
+    /**
+     * Returns the JVM-wide validator for the bundled schema, compiled on first use.
+     *
+     * @return the shared validator instance
+     */
+    public static RuleSchemaValidator bundled() {
+        return Bundled.INSTANCE;
+    }
+
+    /**
+     * A schema violation.
+     *
+     * @param xmlFileName the validated rule
+     * @param line the 1-based line of the violation, or -1 when unknown (for example for a DOM)
+     * @param column the 1-based column of the violation, or -1 when unknown
+     * @param message the parser's description of the violation
+     */
+    public record Violation(String xmlFileName, int line, int column, String message) {
+
+        public Violation {
+            Objects.requireNonNull(xmlFileName, "xmlFileName");
+            Objects.requireNonNull(message, "message");
+        }
+
+        @Override
+        public String toString() {
+            return line > 0 ? xmlFileName + ":" + line + ":" + column + ": " + message : xmlFileName + ": " + message;
+        }
+    }
+
+    /**
+     * Validates a rule, reporting every violation rather than stopping at the first.
+     *
+     * @param xmlFileName the rule name used in violations
+     * @param source the rule document, as stored or XInclude-resolved
+     * @return the violations found; empty if the rule conforms to the schema
+     * @throws UncheckedIOException if the source cannot be read
+     */
+    public List<Violation> validate(String xmlFileName, Source source) {
+        Objects.requireNonNull(xmlFileName, "xmlFileName");
+        ValidationErrorHandler errorHandler = new ValidationErrorHandler(xmlFileName);
+        Validator validator = schema.newValidator();
+        try {
+            validator.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+            validator.setProperty(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
+            validator.setErrorHandler(errorHandler);
+            validator.validate(source);
+        } catch (SAXException e) {
+            // Fatal errors are already recorded by the handler; anything else is reported here
+            errorHandler.recordIfUnseen(e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read rule: " + xmlFileName, e);
+        }
+        return List.copyOf(errorHandler.violations);
+    }
+
+    /**
+     * Validates rules as stored, before XInclude resolution, on a pool of one thread per available processor.
+     * A rule the provider cannot find is reported as a violation.
+     *
+     * @param xmlFileNames the root-relative names of the rules to validate
+     * @param resourceProvider the source of the rules
+     * @return the violations of all rules, grouped by rule in the order of {@code xmlFileNames}
+     * @throws UncheckedIOException if a rule cannot be read
+     */
+    public List<Violation> validateAll(List<String> xmlFileNames, ResourceProvider resourceProvider) {
+        Objects.requireNonNull(xmlFileNames, "xmlFileNames");
+        Objects.requireNonNull(resourceProvider, "resourceProvider");
+        int parallelism = Math.max(1, Math.min(xmlFileNames.size(), Runtime.getRuntime().availableProcessors()));
+        List<Future<List<Violation>>> futures;
+        try (ExecutorService executor = Executors.newFixedThreadPool(parallelism)) {
+            futures = xmlFileNames.stream()
+                .map(xmlFileName -> executor.submit(() -> validateResource(xmlFileName, resourceProvider)))
+                .toList();
+        }
+        List<Violation> violations = new ArrayList<>();
+        for (Future<List<Violation>> future : futures) {
+            if (future.state() == Future.State.FAILED) {
+                throw future.exceptionNow() instanceof RuntimeException runtimeException
+                    ? runtimeException
+                    : new RuntimeException("Unexpected failure while validating rules", future.exceptionNow());
+            }
+            violations.addAll(future.resultNow());
+        }
+        return List.copyOf(violations);
+    }
+
+    private List<Violation> validateResource(String xmlFileName, ResourceProvider resourceProvider) {
+        return resourceProvider.open(xmlFileName)
+            .map(stream -> {
+                try (InputStream xml = stream) {
+                    return validate(xmlFileName, new StreamSource(xml, resourceProvider.baseUri() + xmlFileName));
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to read rule: " + xmlFileName, e);
+                }
+            })
+            .orElseGet(() -> List.of(new Violation(xmlFileName, -1, -1, "Rule not found")));
+    }
+
+    /**
+     * Collects errors and fatal errors as violations so that a single pass reports all of them.
+     */
+    private static final class ValidationErrorHandler implements ErrorHandler {
+
+        private final String xmlFileName;
+        private final List<Violation> violations = new ArrayList<>();
+        private SAXParseException fatal;
+
+        ValidationErrorHandler(String xmlFileName) {
+            this.xmlFileName = xmlFileName;
+        }
+
+        @Override
+        public void warning(SAXParseException exception) {
+            logger.warn("Schema warning in {}: {}", xmlFileName, exception.getMessage());
+        }
+
+        @Override
+        public void error(SAXParseException exception) {
+            violations.add(new Violation(xmlFileName, exception.getLineNumber(), exception.getColumnNumber(), exception.getMessage()));
+        }
+
+        @Override
+        public void fatalError(SAXParseException exception) throws SAXException {
+            error(exception);
+            fatal = exception;
+            throw exception;
+        }
+
+        void recordIfUnseen(SAXException exception) {
+            if (exception != fatal) {
+                violations.add(new Violation(xmlFileName, -1, -1, exception.getMessage()));
+            }
+        }
+    }
+
+    /**
+     * Holder compiling the bundled schema on first use.
+     */
+    private static final class Bundled {
+
+        private static final RuleSchemaValidator INSTANCE = new RuleSchemaValidator(bundledSchema());
+
+        private static Source bundledSchema() {
+            URL schema = RuleSchemaValidator.class.getClassLoader().getResource(BUNDLED_SCHEMA);
+            if (Objects.isNull(schema)) {
+                throw new IllegalStateException("Bundled schema not found on the classpath: " + BUNDLED_SCHEMA);
+            }
+            return new StreamSource(schema.toExternalForm());
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package info.jab.pml;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Embedded HTTP server rendering rules on demand.
+ * <p>
+ * Serves {@code GET /rules/{baseName}} (an optional {@code .md} suffix is accepted) with the
+ * rendered Markdown. Requests are handled on virtual threads; the server renders through
+ * private copies of the generator's stylesheet and fragment caches, keeping the stylesheet
+ * compiled and the fragments cached, and each rendered rule is memoized with a
+ * strong ETag, so repeated requests are answered from memory and clients revalidating with
+ * {@code If-None-Match} get {@code 304 Not Modified}. Call {@link #invalidateAll()} when the
+ * sources change, or {@link #invalidateOnChange(Path)} to have a source directory watched.
+ * <p>
+ * Responses: {@code 200} with the rule, {@code 304} when the ETag matches, {@code 404} for an
+ * unknown rule, {@code 405} for methods other than GET and HEAD, {@code 500} if rendering fails.
+ */
+public final class RuleServer implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(RuleServer.class);
+
+    private static final String CONTEXT = "/rules/";
+    private static final Pattern BASE_NAME = Pattern.compile("[A-Za-z0-9][A-Za-z0-9._-]*");
+    private static final String CONTENT_TYPE = "text/markdown; charset=utf-8";
+
+    private final CursorRulesGenerator generator;
+    private final String xslFileName;
+    private final ConcurrentMap<String, Rendered> rendered = new ConcurrentHashMap<>();
+    // Incremented by invalidateAll, so that a render started before an invalidation is never memoized after it
+    private final AtomicLong generation = new AtomicLong();
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private WatchService sourceWatch;
+
+    /**
+     * Binds the server; call {@link #start()} to accept requests.
+     *
+     * @param generator the generator rendering requested rules; its caches are not shared with the server
+     * @param xslFileName the root-relative name of the XSLT stylesheet used for transformation
+     * @param address the address to listen on; port 0 picks a free port
+     * @throws UncheckedIOException if the address cannot be bound
+     */
+    public RuleServer(CursorRulesGenerator generator, String xslFileName, InetSocketAddress address) {
+        this.generator = Objects.requireNonNull(generator, "generator").withPrivateCaches();
+        this.xslFileName = Objects.requireNonNull(xslFileName, "xslFileName");
+        try {
+            this.server = HttpServer.create(Objects.requireNonNull(address, "address"), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to bind rule server to: " + address, e);
+        }
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext(CONTEXT, this::handle);
+    }
+
+    /**
+     * Starts accepting requests in the background.
+     */
+    public void start() {
+        server.start();
+        logger.info("Serving rules on http://localhost:{}{}", port(), CONTEXT);
+    }
+
+    /**
+     * Returns the port the server listens on, useful when it was bound to port 0.
+     *
+     * @return the local port
+     */
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Drops every memoized render together with the server's compiled stylesheets and cached
+     * fragments, so that the next request for each rule renders it again from the current sources.
+     * The JVM-wide caches and those of other generators are left untouched.
+     */
+    public void invalidateAll() {
+        generator.invalidateCaches();
+        generation.incrementAndGet();
+        rendered.clear();
+    }
+
+    /**
+     * Watches a source directory, including its subdirectories, and calls {@link #invalidateAll()}
+     * after each burst of changes to its files until the server is closed.
+     *
+     * @param sourceDirectory the directory the generator reads rules, fragments and the stylesheet from
+     * @throws IllegalStateException if a directory is already watched
+     * @throws UncheckedIOException if the directory cannot be watched
+     */
+    public synchronized void invalidateOnChange(Path sourceDirectory) {
+        if (Objects.nonNull(sourceWatch)) {
+            throw new IllegalStateException("Already watching a source directory");
+        }
+        try {
+            sourceWatch = FileSystems.getDefault().newWatchService();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create watch service", e);
+        }
+        RuleWatcher.registerTree(sourceWatch, Objects.requireNonNull(sourceDirectory, "sourceDirectory"));
+        WatchService watchService = sourceWatch;
+        Thread.ofVirtual().name("rule-server-source-watch").start(() -> invalidateOnChange(watchService));
+    }
+
+    /**
+     * Stops the server, letting in-flight exchanges finish, and stops watching the source directory.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.close();
+        synchronized (this) {
+            if (Objects.nonNull(sourceWatch)) {
+                try {
+                    sourceWatch.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to close watch service", e);
+                }
+            }
+        }
+    }
+
+    private void invalidateOnChange(WatchService watchService) {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                // Collect the burst of events an editor emits for a single save
+                do {
+                    registerCreatedDirectories(watchService, key);
+                } while (Objects.nonNull(key = watchService.poll(RuleWatcher.DEBOUNCE.toMillis(), TimeUnit.MILLISECONDS)));
+                invalidateAll();
+                logger.debug("Sources changed, dropped memoized renders");
+            }
+        } catch (ClosedWatchServiceException e) {
+            // Stopped through close()
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void registerCreatedDirectories(WatchService watchService, WatchKey key) {
+        Path directory = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE) {
+                Path path = directory.resolve((Path) event.context());
+                if (Files.isDirectory(path)) {
+                    RuleWatcher.registerTree(watchService, path);
+                }
+            }
+        }
+        key.reset();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String method = exchange.getRequestMethod();
+            if (!method.equals("GET") && !method.equals("HEAD")) {
+                exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            Optional<Rendered> rule;
+            try {
+                rule = baseNameOf(exchange.getRequestURI().getPath()).flatMap(this::render);
+            } catch (RuntimeException e) {
+                logger.error("Failed to render {}", exchange.getRequestURI(), e);
+                exchange.sendResponseHeaders(500, -1);
+                return;
+            }
+            if (rule.isEmpty()) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            respond(exchange, rule.get(), method.equals("HEAD"));
+        }
+    }
+
+    private Optional<String> baseNameOf(String path) {
+        String name = path.substring(CONTEXT.length());
+        String baseName = name.endsWith(".md") ? name.substring(0, name.length() - ".md".length()) : name;
+        return BASE_NAME.matcher(baseName).matches() ? Optional.of(baseName) : Optional.empty();
+    }
+
+    /**
+     * Returns the memoized render of a rule, rendering it on first request; failures are not memoized.
+     * <p>
+     * Rendering runs outside the map, so a slow render does not block requests for other rules.
+     * Concurrent first requests for the same rule may each render it; the first memoized render wins.
+     */
+    private Optional<Rendered> render(String baseName) {
+        long current = generation.get();
+        Rendered cached = rendered.get(baseName);
+        if (Objects.nonNull(cached) && cached.generation() == current) {
+            return Optional.of(cached);
+        }
+        String xmlFileName = baseName + ".xml";
+        if (!exists(xmlFileName)) {
+            return Optional.empty();
+        }
+        Rendered fresh = Rendered.of(generator.generate(xmlFileName, xslFileName), current);
+        // A render of an older generation is replaced, never kept over this one
+        Rendered memoized = rendered.merge(baseName, fresh,
+            (existing, candidate) -> existing.generation() >= candidate.generation() ? existing : candidate);
+        return Optional.of(memoized.generation() == current ? memoized : fresh);
+    }
+
+    private boolean exists(String xmlFileName) {
+        return generator.resourceProvider().open(xmlFileName)
+            .map(stream -> {
+                try (stream) {
+                    return true;
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to open rule: " + xmlFileName, e);
+                }
+            })
+            .orElse(false);
+    }
+
+    private static void respond(HttpExchange exchange, Rendered rule, boolean headOnly) throws IOException {
+        Headers headers = exchange.getResponseHeaders();
+        headers.set("ETag", rule.etag());
+        headers.set("Cache-Control", "no-cache");
+        if (matches(exchange.getRequestHeaders().getFirst("If-None-Match"), rule.etag())) {
+            exchange.sendResponseHeaders(304, -1);
+            return;
+        }
+        headers.set("Content-Type", CONTENT_TYPE);
+        if (headOnly) {
+            headers.set("Content-Length", String.valueOf(rule.body().length));
+            exchange.sendResponseHeaders(200, -1);
+            return;
+        }
+        exchange.sendResponseHeaders(200, rule.body().length);
+        try (OutputStream body = exchange.getResponseBody()) {
+            body.write(rule.body());
+        }
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (Objects.isNull(ifNoneMatch)) {
+            return false;
+        }
+        return Arrays.stream(ifNoneMatch.split(","))
+            .map(String::trim)
+            .anyMatch(candidate -> candidate.equals("*") || candidate.equals(etag) || candidate.equals("W/" + etag));
+    }
+
+    /**
+     * A rendered rule with its strong ETag, the SHA-256 of its UTF-8 bytes, and the invalidation
+     * generation it was rendered in.
+     */
+    private record Rendered(byte[] body, String etag, long generation) {
+
+        static Rendered of(String content, long generation) {
+            byte[] body = content.getBytes(StandardCharsets.UTF_8);
+            return new Rendered(body, "\"" + ContentHash.sha256(body) + "\"", generation);
+        }
+    }
+}
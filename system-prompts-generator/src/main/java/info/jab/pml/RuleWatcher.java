@@ -0,0 +1,298 @@
+package info.jab.pml;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Long-running watch mode for rule authors.
+ * <p>
+ * Watches a source directory such as {@code src/main/resources} and regenerates only the
+ * outputs affected by each save, within the same JVM:
+ * <ul>
+ * <li>a changed rule XML regenerates that rule; a new one is picked up, a deleted one has its output removed</li>
+ * <li>a changed fragment is evicted from the {@link FragmentCache} and regenerates the rules including it</li>
+ * <li>a changed stylesheet is evicted from the {@link TemplatesCache} and regenerates every rule</li>
+ * </ul>
+ * Compiled templates and unchanged fragments stay warm in memory between edits, so a
+ * save costs one parse and one transformation per affected rule instead of a JVM start
+ * and a full-inventory run.
+ * <p>
+ * Rules are the {@code *.xml} files at the top level of the source directory. Instances
+ * are meant to be driven by a single thread through {@link #run()} and stopped with
+ * {@link #close()} from any thread.
+ */
+public final class RuleWatcher implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(RuleWatcher.class);
+
+    /** Quiet period collecting the burst of events an editor emits for a single save. */
+    static final Duration DEBOUNCE = Duration.ofMillis(50);
+
+    private static final String RULE_EXTENSION = ".xml";
+
+    private final Path sourceDirectory;
+    private final Path outputDirectory;
+    private final String xslFileName;
+    private final Consumer<BatchGenerationResult> listener;
+    private final DirectoryResourceProvider resourceProvider;
+    private final TemplatesCache templatesCache;
+    private final FragmentCache fragmentCache;
+    private final CursorRulesGenerator generator;
+    private final RuleDependencies ruleDependencies;
+    private final Map<String, List<String>> ruleInputs = new HashMap<>();
+    private final OutputSink outputSink = new OutputSink();
+    private final WatchService watchService;
+
+    /**
+     * Creates a watcher compiling the stylesheet with the {@link XsltEngine#configured() configured} engine.
+     *
+     * @param sourceDirectory the directory holding rule XMLs, fragments and the stylesheet
+     * @param outputDirectory the directory receiving {@code <baseName>.md} files
+     * @param xslFileName the name of the XSLT stylesheet within {@code sourceDirectory}
+     * @param listener notified with the result of the initial generation and of every regeneration
+     * @throws UncheckedIOException if the file system cannot be watched
+     */
+    public RuleWatcher(Path sourceDirectory, Path outputDirectory, String xslFileName, Consumer<BatchGenerationResult> listener) {
+        this(sourceDirectory, outputDirectory, xslFileName, XsltEngine.configured(), listener);
+    }
+
+    /**
+     * @param sourceDirectory the directory holding rule XMLs, fragments and the stylesheet
+     * @param outputDirectory the directory receiving {@code <baseName>.md} files
+     * @param xslFileName the name of the XSLT stylesheet within {@code sourceDirectory}
+     * @param xsltEngine the engine compiling the stylesheet
+     * @param listener notified with the result of the initial generation and of every regeneration
+     * @throws UncheckedIOException if the file system cannot be watched
+     */
+    public RuleWatcher(
+            Path sourceDirectory,
+            Path outputDirectory,
+            String xslFileName,
+            XsltEngine xsltEngine,
+            Consumer<BatchGenerationResult> listener) {
+        this.sourceDirectory = Objects.requireNonNull(sourceDirectory, "sourceDirectory").toAbsolutePath().normalize();
+        this.outputDirectory = Objects.requireNonNull(outputDirectory, "outputDirectory");
+        this.xslFileName = Objects.requireNonNull(xslFileName, "xslFileName");
+        this.listener = Objects.requireNonNull(listener, "listener");
+        this.resourceProvider = new DirectoryResourceProvider(this.sourceDirectory);
+        this.templatesCache = new TemplatesCache(
+            Objects.requireNonNull(xsltEngine, "xsltEngine").newTransformerFactory(), resourceProvider);
+        this.fragmentCache = new FragmentCache(FragmentCache.DEFAULT_MAX_BYTES);
+        this.generator = CursorRulesGenerator.builder()
+            .resourceProvider(resourceProvider)
+            .templatesCache(templatesCache)
+            .fragmentCache(fragmentCache)
+            .build();
+        this.ruleDependencies = new RuleDependencies(resourceProvider::open);
+        try {
+            this.watchService = FileSystems.getDefault().newWatchService();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create watch service", e);
+        }
+    }
+
+    /**
+     * Generates every rule, then blocks regenerating affected rules on each change until
+     * {@link #close()} is called or the thread is interrupted.
+     *
+     * @throws UncheckedIOException if the source directory cannot be watched or outputs cannot be written
+     */
+    public void run() {
+        // Register before the initial generation so that no edit made meanwhile is missed
+        registerTree(watchService, sourceDirectory);
+        listener.accept(generateAll());
+        try {
+            while (true) {
+                Set<String> changed = new TreeSet<>();
+                collectChanges(watchService.take(), changed);
+                WatchKey next;
+                while (Objects.nonNull(next = watchService.poll(DEBOUNCE.toMillis(), TimeUnit.MILLISECONDS))) {
+                    collectChanges(next, changed);
+                }
+                if (!changed.isEmpty()) {
+                    refreshAndNotify(changed);
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            // Stopped through close()
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Generates every rule found in the source directory.
+     *
+     * @return the batch result of the generation
+     */
+    public synchronized BatchGenerationResult generateAll() {
+        return generate(resourceProvider.ruleBaseNames());
+    }
+
+    /**
+     * Stops {@link #run()} and releases the watch service.
+     */
+    @Override
+    public void close() {
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to close watch service", e);
+        }
+    }
+
+    /**
+     * Evicts the changed resources from the caches and regenerates the rules depending on them.
+     *
+     * @param changedResources root-relative names of created, modified or deleted resources
+     * @return the batch result of the regenerated rules
+     */
+    synchronized BatchGenerationResult refresh(Collection<String> changedResources) {
+        Set<String> affected = new TreeSet<>();
+        for (String resource : changedResources) {
+            if (resource.equals(xslFileName)) {
+                templatesCache.invalidate(xslFileName);
+                affected.addAll(ruleInputs.keySet());
+            } else {
+                // Same form as the system ids the parser derives from the directory provider's base URI
+                fragmentCache.invalidate(sourceDirectory.resolve(resource).toUri().toString());
+            }
+            if (isRule(resource)) {
+                affected.add(resource.substring(0, resource.length() - RULE_EXTENSION.length()));
+            }
+            ruleInputs.forEach((baseName, inputs) -> {
+                if (inputs.contains(resource)) {
+                    affected.add(baseName);
+                }
+            });
+        }
+
+        List<String> stale = new ArrayList<>();
+        for (String baseName : affected) {
+            if (Files.isRegularFile(sourceDirectory.resolve(baseName + RULE_EXTENSION))) {
+                stale.add(baseName);
+            } else {
+                removeRule(baseName);
+            }
+        }
+        return generate(stale);
+    }
+
+    private void refreshAndNotify(Set<String> changed) {
+        try {
+            listener.accept(refresh(changed));
+        } catch (RuntimeException e) {
+            // Keep watching: the next save may fix a broken or missing stylesheet
+            logger.error("Failed to regenerate rules for {}", changed, e);
+        }
+    }
+
+    private BatchGenerationResult generate(List<String> baseNames) {
+        if (baseNames.isEmpty()) {
+            return new BatchGenerationResult(List.of(), Duration.ZERO);
+        }
+        BatchGenerationResult batch = generator.generateAll(baseNames, xslFileName);
+        for (GenerationResult result : batch.results()) {
+            if (result.succeeded()) {
+                writeOutput(result);
+            }
+            // Track inputs of failed rules too, so that fixing an included fragment triggers a retry
+            ruleInputs.put(result.baseName(), dependenciesOf(result.baseName()));
+        }
+        return batch;
+    }
+
+    private List<String> dependenciesOf(String baseName) {
+        try {
+            return ruleDependencies.of(baseName + RULE_EXTENSION);
+        } catch (RuntimeException e) {
+            // A malformed rule is still watched through its own file
+            return List.of(baseName + RULE_EXTENSION);
+        }
+    }
+
+    private boolean isRule(String resource) {
+        return resource.endsWith(RULE_EXTENSION) && !resource.contains("/");
+    }
+
+    private void collectChanges(WatchKey key, Set<String> changed) {
+        Path directory = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                // Events were lost: treat every known input as changed
+                ruleInputs.values().forEach(changed::addAll);
+                changed.add(xslFileName);
+                continue;
+            }
+            Path path = directory.resolve((Path) event.context());
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)) {
+                registerTree(watchService, path);
+                continue;
+            }
+            changed.add(toResourceName(path));
+        }
+        key.reset();
+    }
+
+    private String toResourceName(Path path) {
+        return sourceDirectory.relativize(path).toString().replace(path.getFileSystem().getSeparator(), "/");
+    }
+
+    /**
+     * Registers a directory and every directory below it for creations, modifications and deletions.
+     */
+    static void registerTree(WatchService watchService, Path root) {
+        try (Stream<Path> directories = Files.walk(root)) {
+            for (Path directory : directories.filter(Files::isDirectory).toList()) {
+                directory.register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to watch: " + root, e);
+        }
+    }
+
+    private void removeRule(String baseName) {
+        ruleInputs.remove(baseName);
+        try {
+            Files.deleteIfExists(outputFile(baseName));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to delete generated rule: " + baseName, e);
+        }
+    }
+
+    private void writeOutput(GenerationResult result) {
+        // Saving a file without a change that affects the output leaves the output untouched
+        if (outputSink.write(outputFile(result.baseName()), result.content()) == OutputSink.Outcome.UNCHANGED) {
+            logger.debug("Output of {} unchanged", result.baseName());
+        }
+    }
+
+    private Path outputFile(String baseName) {
+        return outputDirectory.resolve(baseName + ".md");
+    }
+}
@@ -0,0 +1,381 @@
+package info.jab.pml;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import javax.xml.transform.Source;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.sax.SAXResult;
+import javax.xml.transform.sax.SAXSource;
+import org.xml.sax.Attributes;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.DTDHandler;
+import org.xml.sax.EntityResolver;
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.InputSource;
+import org.xml.sax.Locator;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXNotRecognizedException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.ext.LexicalHandler;
+import org.xml.sax.helpers.AttributesImpl;
+
+/**
+ * Immutable recording of the SAX events of a parsed document, replayable any number of times.
+ * <p>
+ * A DOM may not be read from several threads at once, so a document that feeds several
+ * stylesheets concurrently is recorded once and each transformation replays the events
+ * through its own {@link #newSource() source}. Replays share the recorded arrays and never
+ * touch the original tree.
+ */
+final class SaxEventBuffer {
+
+    private static final String NAMESPACES_FEATURE = "http://xml.org/sax/features/namespaces";
+    private static final String NAMESPACE_PREFIXES_FEATURE = "http://xml.org/sax/features/namespace-prefixes";
+    private static final String LEXICAL_HANDLER_PROPERTY = "http://xml.org/sax/properties/lexical-handler";
+
+    private static final TransformerFactory IDENTITY_FACTORY = TransformerFactory.newDefaultInstance();
+
+    private final List<Event> events;
+    private final String systemId;
+
+    private SaxEventBuffer(List<Event> events, String systemId) {
+        this.events = List.copyOf(events);
+        this.systemId = systemId;
+    }
+
+    /**
+     * Records the events of {@code source}, typically the XInclude-resolved {@link javax.xml.transform.dom.DOMSource}.
+     *
+     * @param source the document to record
+     * @return the recorded document, keeping the system id of {@code source} as base URI
+     */
+    static SaxEventBuffer record(Source source) {
+        Recorder recorder = new Recorder();
+        try {
+            Transformer identity;
+            // TransformerFactory is not thread-safe
+            synchronized (IDENTITY_FACTORY) {
+                identity = IDENTITY_FACTORY.newTransformer();
+            }
+            SAXResult result = new SAXResult(recorder);
+            result.setLexicalHandler(recorder);
+            identity.transform(source, result);
+        } catch (TransformerException e) {
+            throw new RuntimeException("Failed to record document: " + source.getSystemId(), e);
+        }
+        return new SaxEventBuffer(recorder.events, source.getSystemId());
+    }
+
+    /**
+     * Returns a new source replaying the recorded events. Each transformation needs its own source.
+     *
+     * @return a source backed by a replaying reader
+     */
+    SAXSource newSource() {
+        InputSource inputSource = new InputSource();
+        inputSource.setSystemId(systemId);
+        return new SAXSource(new ReplayingReader(), inputSource);
+    }
+
+    // ===============================================================
+    // RECORDED EVENTS
+    // ===============================================================
+
+    private sealed interface Event {
+        void replay(ContentHandler content, LexicalHandler lexical) throws SAXException;
+    }
+
+    private record StartDocument() implements Event {
+        public void replay(ContentHandler content, LexicalHandler lexical) throws SAXException {
+            content.startDocument();
+        }
+    }
+
+    private record EndDocument() implements Event {
+        public void replay(ContentHandler content, LexicalHandler lexical) throws SAXException {
+            content.endDocument();
+        }
+    }
+
+    private record StartPrefixMapping(String prefix, String uri) implements Event {
+        public void replay(ContentHandler content, LexicalHandler lexical) throws SAXException {
+            content.startPrefixMapping(prefix, uri);
+        }
+    }
+
+    private record EndPrefixMapping(String prefix) implements Event {
+        public void replay(ContentHandler content, LexicalHandler lexical) throws SAXException {
+            content.endPrefixMapping(prefix);
+        }
+    }
+
+    private record StartElement(String uri, String localName, String qName, Attributes attributes) implements Event {
+        public void replay(ContentHandler content, LexicalHandler lexical) throws SAXException {
+            // A fresh copy per replay, since handlers may hold on to or modify what they receive
+            content.startElement(uri, localName, qName, new AttributesImpl(attributes));
+        }
+    }
+
+    private record EndElement(String uri, String localName, String qName) implements Event {
+        public void replay(ContentHandler content, LexicalHandler lexical) throws SAXException {
+            content.endElement(uri, localName, qName);
+        }
+    }
+
+    private record Characters(char[] text) implements Event {
+        public void replay(ContentHandler content, LexicalHandler lexical) throws SAXException {
+            content.characters(text, 0, text.length);
+        }
+    }
+
+    private record IgnorableWhitespace(char[] text) implements Event {
+        public void replay(ContentHandler content, LexicalHandler lexical) throws SAXException {
+            content.ignorableWhitespace(text, 0, text.length);
+        }
+    }
+
+    private record ProcessingInstruction(String target, String data) implements Event {
+        public void replay(ContentHandler content, LexicalHandler lexical) throws SAXException {
+            content.processingInstruction(target, data);
+        }
+    }
+
+    private record Comment(char[] text) implements Event {
+        public void replay(ContentHandler content, LexicalHandler lexical) throws SAXException {
+            if (Objects.nonNull(lexical)) {
+                lexical.comment(text, 0, text.length);
+            }
+        }
+    }
+
+    private record StartCdata() implements Event {
+        public void replay(ContentHandler content, LexicalHandler lexical) throws SAXException {
+            if (Objects.nonNull(lexical)) {
+                lexical.startCDATA();
+            }
+        }
+    }
+
+    private record EndCdata() implements Event {
+        public void replay(ContentHandler content, LexicalHandler lexical) throws SAXException {
+            if (Objects.nonNull(lexical)) {
+                lexical.endCDATA();
+            }
+        }
+    }
+
+    // ===============================================================
+    // RECORDING AND REPLAY
+    // ===============================================================
+
+    /**
+     * Appends every received event to a list. DTD events are not recorded.
+     */
+    private static final class Recorder implements ContentHandler, LexicalHandler {
+
+        private final List<Event> events = new ArrayList<>();
+        private final StringBuilder text = new StringBuilder();
+
+        private void add(Event event) {
+            if (!text.isEmpty()) {
+                char[] chars = new char[text.length()];
+                text.getChars(0, chars.length, chars, 0);
+                events.add(new Characters(chars));
+                text.setLength(0);
+            }
+            events.add(event);
+        }
+
+        @Override
+        public void setDocumentLocator(Locator locator) {
+        }
+
+        @Override
+        public void startDocument() {
+            add(new StartDocument());
+        }
+
+        @Override
+        public void endDocument() {
+            add(new EndDocument());
+        }
+
+        @Override
+        public void startPrefixMapping(String prefix, String uri) {
+            add(new StartPrefixMapping(prefix, uri));
+        }
+
+        @Override
+        public void endPrefixMapping(String prefix) {
+            add(new EndPrefixMapping(prefix));
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes atts) {
+            add(new StartElement(uri, localName, qName, new AttributesImpl(atts)));
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            add(new EndElement(uri, localName, qName));
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            // Merge adjacent chunks, as a parser may split text arbitrarily
+            text.append(ch, start, length);
+        }
+
+        @Override
+        public void ignorableWhitespace(char[] ch, int start, int length) {
+            add(new IgnorableWhitespace(copy(ch, start, length)));
+        }
+
+        @Override
+        public void processingInstruction(String target, String data) {
+            add(new ProcessingInstruction(target, data));
+        }
+
+        @Override
+        public void skippedEntity(String name) {
+        }
+
+        @Override
+        public void startDTD(String name, String publicId, String systemId) {
+        }
+
+        @Override
+        public void endDTD() {
+        }
+
+        @Override
+        public void startEntity(String name) {
+        }
+
+        @Override
+        public void endEntity(String name) {
+        }
+
+        @Override
+        public void startCDATA() {
+            add(new StartCdata());
+        }
+
+        @Override
+        public void endCDATA() {
+            add(new EndCdata());
+        }
+
+        @Override
+        public void comment(char[] ch, int start, int length) {
+            add(new Comment(copy(ch, start, length)));
+        }
+
+        private static char[] copy(char[] ch, int start, int length) {
+            char[] copy = new char[length];
+            System.arraycopy(ch, start, copy, 0, length);
+            return copy;
+        }
+    }
+
+    /**
+     * XMLReader replaying the recorded events instead of parsing its input.
+     * Reports namespace-aware events, as the namespace-aware parser that built the document did.
+     */
+    private final class ReplayingReader implements XMLReader {
+
+        private ContentHandler contentHandler;
+        private LexicalHandler lexicalHandler;
+        private DTDHandler dtdHandler;
+        private EntityResolver entityResolver;
+        private ErrorHandler errorHandler;
+
+        @Override
+        public boolean getFeature(String name) throws SAXNotRecognizedException {
+            return switch (name) {
+                case NAMESPACES_FEATURE -> true;
+                case NAMESPACE_PREFIXES_FEATURE -> false;
+                default -> throw new SAXNotRecognizedException(name);
+            };
+        }
+
+        @Override
+        public void setFeature(String name, boolean value) throws SAXNotRecognizedException {
+            if (getFeature(name) != value) {
+                throw new SAXNotRecognizedException("Recorded events cannot change " + name + " to " + value);
+            }
+        }
+
+        @Override
+        public Object getProperty(String name) throws SAXNotRecognizedException {
+            if (LEXICAL_HANDLER_PROPERTY.equals(name)) {
+                return lexicalHandler;
+            }
+            throw new SAXNotRecognizedException(name);
+        }
+
+        @Override
+        public void setProperty(String name, Object value) throws SAXNotRecognizedException {
+            if (!LEXICAL_HANDLER_PROPERTY.equals(name)) {
+                throw new SAXNotRecognizedException(name);
+            }
+            lexicalHandler = (LexicalHandler) value;
+        }
+
+        @Override
+        public void setEntityResolver(EntityResolver resolver) {
+            this.entityResolver = resolver;
+        }
+
+        @Override
+        public EntityResolver getEntityResolver() {
+            return entityResolver;
+        }
+
+        @Override
+        public void setDTDHandler(DTDHandler handler) {
+            this.dtdHandler = handler;
+        }
+
+        @Override
+        public DTDHandler getDTDHandler() {
+            return dtdHandler;
+        }
+
+        @Override
+        public void setContentHandler(ContentHandler handler) {
+            this.contentHandler = handler;
+        }
+
+        @Override
+        public ContentHandler getContentHandler() {
+            return contentHandler;
+        }
+
+        @Override
+        public void setErrorHandler(ErrorHandler handler) {
+            this.errorHandler = handler;
+        }
+
+        @Override
+        public ErrorHandler getErrorHandler() {
+            return errorHandler;
+        }
+
+        @Override
+        public void parse(InputSource input) throws SAXException {
+            Objects.requireNonNull(contentHandler, "contentHandler");
+            for (Event event : events) {
+                event.replay(contentHandler, lexicalHandler);
+            }
+        }
+
+        @Override
+        public void parse(String systemId) throws SAXException {
+            parse(new InputSource(systemId));
+        }
+    }
+}
@@ -2,6 +2,9 @@ package info.jab.pml;
 
 import java.util.stream.Stream;
 
+/**
+ * Inventory of the rule definitions shipped with the generator, shared by tests and benchmarks.
+ */
 public final class SystemPromptsInventory {
 
     private SystemPromptsInventory() {
@@ -0,0 +1,175 @@
+package info.jab.pml;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.xml.transform.Templates;
+import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.stream.StreamSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Thread-safe cache of compiled XSLT stylesheets.
+ * <p>
+ * Compiling a stylesheet is by far the most expensive part of an XSLT run, while a
+ * compiled {@link Templates} instance is immutable and can be shared freely between
+ * threads. This cache compiles each stylesheet once, keyed by its name within the
+ * {@link ResourceProvider}, and hands out the same {@link Templates} until the entry is explicitly
+ * invalidated. Callers obtain a cheap, per-call {@link javax.xml.transform.Transformer}
+ * via {@link Templates#newTransformer()}.
+ */
+public final class TemplatesCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(TemplatesCache.class);
+
+    private static final ConcurrentMap<XsltEngine, TemplatesCache> SHARED = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, Templates> templates = new ConcurrentHashMap<>();
+    private final TransformerFactory transformerFactory;
+    private final ResourceProvider resourceProvider;
+
+    /**
+     * Creates an empty cache backed by the {@link XsltEngine#configured() configured} XSLT engine.
+     */
+    public TemplatesCache() {
+        this(XsltEngine.configured().newTransformerFactory());
+    }
+
+    /**
+     * Creates an empty cache that compiles stylesheets with the given factory.
+     *
+     * @param transformerFactory the factory used to compile stylesheets
+     */
+    public TemplatesCache(TransformerFactory transformerFactory) {
+        this(transformerFactory, ResourceProvider.classpath());
+    }
+
+    /**
+     * Creates an empty cache that reads stylesheets from the given provider.
+     *
+     * @param resourceProvider the source of stylesheets
+     */
+    public TemplatesCache(ResourceProvider resourceProvider) {
+        this(XsltEngine.configured().newTransformerFactory(), resourceProvider);
+    }
+
+    /**
+     * Creates an empty cache that reads stylesheets from the given provider and compiles them with the given factory.
+     *
+     * @param transformerFactory the factory used to compile stylesheets
+     * @param resourceProvider the source of stylesheets
+     */
+    public TemplatesCache(TransformerFactory transformerFactory, ResourceProvider resourceProvider) {
+        this.transformerFactory = Objects.requireNonNull(transformerFactory, "transformerFactory");
+        this.resourceProvider = Objects.requireNonNull(resourceProvider, "resourceProvider");
+    }
+
+    /**
+     * Returns the JVM-wide cache of the {@link XsltEngine#configured() configured} engine,
+     * used by default by {@link CursorRulesGenerator}.
+     *
+     * @return the shared cache instance
+     */
+    public static TemplatesCache shared() {
+        return shared(XsltEngine.configured());
+    }
+
+    /**
+     * Returns the JVM-wide cache of classpath stylesheets compiled with the given engine.
+     *
+     * @param engine the XSLT engine compiling the stylesheets
+     * @return the shared cache instance for {@code engine}
+     * @throws IllegalStateException if the engine is not on the classpath
+     */
+    public static TemplatesCache shared(XsltEngine engine) {
+        Objects.requireNonNull(engine, "engine");
+        return SHARED.computeIfAbsent(engine, key -> new TemplatesCache(key.newTransformerFactory()));
+    }
+
+    /**
+     * Returns the compiled stylesheet for the given resource, compiling it on first use.
+     *
+     * @param xslFileName the root-relative name of the XSLT stylesheet
+     * @return the compiled stylesheet, or empty if the resource does not exist or cannot be compiled
+     */
+    public Optional<Templates> get(String xslFileName) {
+        Objects.requireNonNull(xslFileName, "xslFileName");
+        try {
+            return Optional.ofNullable(templates.computeIfAbsent(xslFileName, this::compile));
+        } catch (StylesheetCompilationException e) {
+            logger.error("Failed to compile stylesheet: {}", xslFileName, e.getCause());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Removes a single stylesheet so that the next lookup recompiles it.
+     *
+     * @param xslFileName the root-relative name of the XSLT stylesheet
+     */
+    public void invalidate(String xslFileName) {
+        templates.remove(Objects.requireNonNull(xslFileName, "xslFileName"));
+    }
+
+    /**
+     * Removes every compiled stylesheet from the cache.
+     */
+    public void invalidateAll() {
+        templates.clear();
+    }
+
+    /**
+     * Returns the number of compiled stylesheets currently held.
+     *
+     * @return the cache size
+     */
+    public int size() {
+        return templates.size();
+    }
+
+    /**
+     * Returns an empty cache compiling with the same factory and reading from the same provider,
+     * so that a component can invalidate its stylesheets without affecting other users of this cache.
+     */
+    TemplatesCache emptyCopy() {
+        return new TemplatesCache(transformerFactory, resourceProvider);
+    }
+
+    /**
+     * Loads and compiles a stylesheet. Returns {@code null} for missing resources so that
+     * {@link ConcurrentMap#computeIfAbsent} records nothing and a later lookup retries.
+     * TransformerFactory is not thread-safe, so compilation is serialized on it.
+     */
+    private Templates compile(String xslFileName) {
+        Optional<InputStream> resource = resourceProvider.open(xslFileName);
+        if (resource.isEmpty()) {
+            return null;
+        }
+        try (InputStream xslStream = resource.get()) {
+            synchronized (transformerFactory) {
+                return transformerFactory.newTemplates(new StreamSource(xslStream));
+            }
+        } catch (TransformerConfigurationException e) {
+            throw new StylesheetCompilationException(e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read stylesheet: " + xslFileName, e);
+        }
+    }
+
+    /**
+     * Carries a compilation failure out of {@link ConcurrentMap#computeIfAbsent}.
+     */
+    private static final class StylesheetCompilationException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private StylesheetCompilationException(TransformerConfigurationException cause) {
+            super(cause);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package info.jab.pml;
+
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writer filter that drops leading and trailing whitespace as the content streams through,
+ * matching {@link String#trim()} without materializing the whole document.
+ * <p>
+ * Leading characters up to {@code U+0020} are discarded. Whitespace after the last
+ * non-whitespace character seen so far is held back and only written once more content
+ * follows, so whatever is still pending when the stream ends is never emitted.
+ * {@link #flush()} flushes the underlying writer but keeps pending whitespace back.
+ */
+final class TrimmingWriter extends FilterWriter {
+
+    // Strings and single characters are copied through this buffer a slice at a time
+    private final char[] buffer = new char[1024];
+    private final StringBuilder pendingWhitespace = new StringBuilder();
+    private boolean started;
+    private long writtenBytes;
+
+    TrimmingWriter(Writer out) {
+        super(out);
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        buffer[0] = (char) c;
+        write(buffer, 0, 1);
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        int end = off + len;
+        for (int start = off; start < end; start += buffer.length) {
+            int chunk = Math.min(buffer.length, end - start);
+            str.getChars(start, start + chunk, buffer, 0);
+            write(buffer, 0, chunk);
+        }
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        int start = off;
+        int end = off + len;
+        if (!started) {
+            while (start < end && isWhitespace(cbuf[start])) {
+                start++;
+            }
+            if (start == end) {
+                return;
+            }
+            started = true;
+        }
+        int last = end - 1;
+        while (last >= start && isWhitespace(cbuf[last])) {
+            last--;
+        }
+        if (last < start) {
+            pendingWhitespace.append(cbuf, start, end - start);
+            return;
+        }
+        if (!pendingWhitespace.isEmpty()) {
+            out.append(pendingWhitespace);
+            // Whitespace is at most U+0020, one byte each
+            writtenBytes += pendingWhitespace.length();
+            pendingWhitespace.setLength(0);
+        }
+        out.write(cbuf, start, last + 1 - start);
+        writtenBytes += utf8Length(cbuf, start, last + 1);
+        pendingWhitespace.append(cbuf, last + 1, end - last - 1);
+    }
+
+    /**
+     * Returns the number of bytes passed on to the underlying writer so far, once encoded as UTF-8,
+     * the encoding generated rules are written in.
+     */
+    long writtenBytes() {
+        return writtenBytes;
+    }
+
+    // Each half of a surrogate pair counts 2, so a pair counts the 4 bytes of its code point
+    private static long utf8Length(char[] cbuf, int start, int end) {
+        long bytes = 0;
+        for (int i = start; i < end; i++) {
+            char c = cbuf[i];
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800 || Character.isSurrogate(c)) {
+                bytes += 2;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c <= ' ';
+    }
+}
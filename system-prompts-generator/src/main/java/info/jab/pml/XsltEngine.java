@@ -0,0 +1,73 @@
+package info.jab.pml;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Objects;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.TransformerFactoryConfigurationError;
+
+/**
+ * XSLT processors the generator can compile and run stylesheets with.
+ * <p>
+ * The engine is chosen per generator through {@link CursorRulesGenerator.Builder#xsltEngine(XsltEngine)},
+ * or JVM-wide with the {@value #PROPERTY} system property ({@code jdk} or {@code saxon}).
+ * Each engine gets its own factory, independent of the {@code javax.xml.transform.TransformerFactory}
+ * service lookup, so adding Saxon to the classpath never silently changes the default.
+ */
+public enum XsltEngine {
+
+    /** The XSLTC compiler bundled with the JDK. No extra dependency. */
+    JDK(null),
+
+    /** Saxon-HE. Requires {@code net.sf.saxon:Saxon-HE} on the classpath. */
+    SAXON("net.sf.saxon.TransformerFactoryImpl");
+
+    /** System property selecting the default engine. */
+    public static final String PROPERTY = "cursor-rules.xslt-engine";
+
+    private static final String NATIVE_IMAGE_PROPERTY = "org.graalvm.nativeimage.imagecode";
+
+    private final String factoryClassName;
+
+    XsltEngine(String factoryClassName) {
+        this.factoryClassName = factoryClassName;
+    }
+
+    /**
+     * Returns the engine selected by the {@value #PROPERTY} system property. When unset, this is
+     * {@link #JDK}, or {@link #SAXON} inside a GraalVM native image.
+     *
+     * @return the configured engine
+     * @throws IllegalArgumentException if the property names an unknown engine
+     */
+    public static XsltEngine configured() {
+        String value = System.getProperty(PROPERTY);
+        if (Objects.isNull(value) || value.isBlank()) {
+            // XSLTC compiles stylesheets to bytecode at run time, which a native image cannot load
+            return Objects.isNull(System.getProperty(NATIVE_IMAGE_PROPERTY)) ? JDK : SAXON;
+        }
+        return Arrays.stream(values())
+            .filter(engine -> engine.name().equalsIgnoreCase(value.trim()))
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException(
+                "Unknown XSLT engine '" + value + "' in " + PROPERTY + ", expected one of: "
+                    + Arrays.toString(values()).toLowerCase(Locale.ROOT)));
+    }
+
+    /**
+     * Creates a new factory for this engine.
+     *
+     * @return a transformer factory backed by this engine
+     * @throws IllegalStateException if the engine is not on the classpath
+     */
+    public TransformerFactory newTransformerFactory() {
+        if (Objects.isNull(factoryClassName)) {
+            return TransformerFactory.newDefaultInstance();
+        }
+        try {
+            return TransformerFactory.newInstance(factoryClassName, XsltEngine.class.getClassLoader());
+        } catch (TransformerFactoryConfigurationError e) {
+            throw new IllegalStateException("XSLT engine " + this + " is not available: " + factoryClassName + " not found", e);
+        }
+    }
+}
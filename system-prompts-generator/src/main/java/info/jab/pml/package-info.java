@@ -11,16 +11,41 @@
  * <ul>
  * <li>{@link info.jab.pml.CursorRulesGenerator} - The primary transformation engine that orchestrates
  * the entire rule generation process using functional programming principles and immutable data structures</li>
- * <li>{@link info.jab.pml.CursorRulesGenerator.TransformationSources} - Immutable record encapsulating
- * XML and XSLT input streams for thread-safe resource management throughout the transformation pipeline</li>
- * <li>{@link info.jab.pml.CursorRulesGenerator.ValidationErrorHandler} - Specialized error handler
- * providing comprehensive XSD validation reporting for precise schema violation identification</li>
+ * <li>{@link info.jab.pml.TemplatesCache} - Thread-safe cache of compiled XSLT stylesheets so that each
+ * stylesheet is compiled once per JVM and only a cheap per-call transformer is created for each rule</li>
+ * <li>{@link info.jab.pml.XsltEngine} - XSLT processors stylesheets can be compiled with (JDK XSLTC or
+ * Saxon-HE), chosen per generator or through the {@code cursor-rules.xslt-engine} system property</li>
+ * <li>{@link info.jab.pml.FragmentCache} - Bounded, LRU-evicting cache of XInclude'd fragments, installed as
+ * the parser's entity resolver so each fragment is read once and shared by all generations in a JVM</li>
+ * <li>{@link info.jab.pml.BatchOptions}, {@link info.jab.pml.BatchGenerationResult} and
+ * {@link info.jab.pml.GenerationResult} - Options and per-rule results of concurrent batch generation</li>
+ * <li>{@link info.jab.pml.MdcStructureValidator} - Single-pass structural checks of generated MDC content,
+ * run per file, in parallel over files, or by batch generation on each rule it generates</li>
+ * <li>{@link info.jab.pml.GenerationListener} and {@link info.jab.pml.GenerationMetrics} - Per-rule timings of
+ * the load, XInclude parse, transform and write phases, with output size and bytes allocated</li>
+ * <li>{@link info.jab.pml.OutputTarget} - A stylesheet and destination for rendering one rule for several
+ * targets from a single XInclude parse</li>
+ * <li>{@link info.jab.pml.OutputSink} - Writes generated rules only when their content differs from the
+ * file on disk, counting written and unchanged files</li>
+ * <li>{@link info.jab.pml.IncrementalGenerator} - Regenerates only the rules whose rule XML, XInclude'd
+ * fragments or stylesheet changed, tracked through a SHA-256 content-hash manifest</li>
+ * <li>{@link info.jab.pml.ResourceProvider} - Source of rule XMLs, fragments and stylesheets, read from the
+ * classpath by default, from a directory such as {@code src/main/resources}, or from memory</li>
+ * <li>{@link info.jab.pml.RuleWatcher} - Watch mode regenerating only the rules affected by each saved rule,
+ * fragment or stylesheet, with compiled templates kept warm between edits</li>
+ * <li>{@link info.jab.pml.RuleServer} - Embedded HTTP server rendering rules on request, memoizing each
+ * render with an ETag so that unchanged rules are answered from memory or with {@code 304 Not Modified}</li>
+ * <li>{@link info.jab.pml.CursorRulesCli} - Standalone command line entry point for full, incremental,
+ * watch-mode and server-mode generation, packaged with an AppCDS archive or as a native image</li>
+ * <li>{@link info.jab.pml.RuleSchemaValidator} - Offline validation of rule XMLs against the bundled XSD,
+ * compiled once and shared across threads, reporting every violation with its location; applied to all
+ * rules in parallel or as an optional generation stage after XInclude resolution</li>
  * </ul>
  *
  * <h2>Dependencies</h2>
  * The package leverages standard Java XML processing capabilities including DOM and SAX parsers
- * for XInclude processing, javax.xml.transform for XSLT transformations, and comprehensive XSD
- * schema validation. Logging is implemented through SLF4J with Logback for operation tracking
+ * for XInclude processing, javax.xml.transform for XSLT transformations, and javax.xml.validation
+ * for the optional XSD schema validation. Logging is implemented through SLF4J with Logback for operation tracking
  * and debugging support.
  *
  * @since 0.10.0
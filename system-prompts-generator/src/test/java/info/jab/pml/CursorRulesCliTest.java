@@ -0,0 +1,111 @@
+package info.jab.pml;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Cursor Rules CLI Tests")
+class CursorRulesCliTest {
+
+    @TempDir
+    Path outputDirectory;
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+    private final CursorRulesCli cli = new CursorRulesCli(
+        new PrintStream(out, true, StandardCharsets.UTF_8),
+        new PrintStream(err, true, StandardCharsets.UTF_8));
+
+    @Test
+    @DisplayName("Should write the requested rules with the same content as the generator")
+    void should_writeRequestedRules_when_baseNamesGiven() throws Exception {
+        // When
+        int status = cli.run(new String[] {"--output", outputDirectory.toString(), "126-java-logging", "171-java-diagrams.xml"});
+
+        // Then
+        assertThat(status).isEqualTo(CursorRulesCli.EXIT_OK);
+        assertThat(Files.readString(outputDirectory.resolve("126-java-logging.md")))
+            .isEqualTo(new CursorRulesGenerator().generate("126-java-logging.xml", "cursor-rules.xsl"));
+        assertThat(outputDirectory.resolve("171-java-diagrams.md")).isNotEmptyFile();
+        assertThat(out.toString(StandardCharsets.UTF_8)).contains("Generated 2 rule(s)");
+    }
+
+    @Test
+    @DisplayName("Should leave unchanged rules untouched when generating again")
+    void should_skipUnchangedFiles_when_generatingTwice() {
+        // Given
+        String[] args = {"--output", outputDirectory.toString(), "126-java-logging", "171-java-diagrams"};
+        cli.run(args);
+        out.reset();
+
+        // When
+        int status = cli.run(args);
+
+        // Then
+        assertThat(status).isEqualTo(CursorRulesCli.EXIT_OK);
+        assertThat(out.toString(StandardCharsets.UTF_8)).contains("0 file(s) written, 2 unchanged");
+    }
+
+    @Test
+    @DisplayName("Should generate every rule of a source directory when no base name is given")
+    void should_generateAllRules_when_sourceDirectoryGiven() throws Exception {
+        // When
+        int status = cli.run(new String[] {"--source", "src/main/resources", "--output", outputDirectory.toString()});
+
+        // Then
+        assertThat(status).isEqualTo(CursorRulesCli.EXIT_OK);
+        assertThat(SystemPromptsInventory.baseNames())
+            .allSatisfy(baseName -> assertThat(outputDirectory.resolve(baseName + ".md")).isNotEmptyFile());
+    }
+
+    @Test
+    @DisplayName("Should exit with failure status when a rule cannot be generated")
+    void should_returnFailureStatus_when_ruleDoesNotExist() {
+        // When
+        int status = cli.run(new String[] {"--output", outputDirectory.toString(), "non-existent"});
+
+        // Then
+        assertThat(status).isEqualTo(CursorRulesCli.EXIT_FAILURES);
+        assertThat(err.toString(StandardCharsets.UTF_8)).contains("Failed to generate non-existent");
+    }
+
+    @Test
+    @DisplayName("Should exit with usage status on an unknown option")
+    void should_returnUsageStatus_when_optionUnknown() {
+        // When
+        int status = cli.run(new String[] {"--fast"});
+
+        // Then
+        assertThat(status).isEqualTo(CursorRulesCli.EXIT_USAGE);
+        assertThat(err.toString(StandardCharsets.UTF_8)).contains("Unknown option: --fast").contains("Usage:");
+    }
+
+    @Test
+    @DisplayName("Should exit with usage status on an invalid server port")
+    void should_returnUsageStatus_when_servePortInvalid() {
+        // When
+        int status = cli.run(new String[] {"--serve", "http"});
+
+        // Then
+        assertThat(status).isEqualTo(CursorRulesCli.EXIT_USAGE);
+        assertThat(err.toString(StandardCharsets.UTF_8)).contains("--serve port must be a number, was: http");
+    }
+
+    @Test
+    @DisplayName("Should exit with usage status when watching and serving are combined")
+    void should_returnUsageStatus_when_watchAndServeCombined() {
+        // When
+        int status = cli.run(new String[] {"--source", "src/main/resources", "--watch", "--serve", "8080"});
+
+        // Then
+        assertThat(status).isEqualTo(CursorRulesCli.EXIT_USAGE);
+        assertThat(err.toString(StandardCharsets.UTF_8)).contains("--watch and --serve cannot be combined");
+    }
+}
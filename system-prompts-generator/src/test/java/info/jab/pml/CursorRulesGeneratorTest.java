@@ -1,15 +1,20 @@
 package info.jab.pml;
 
 import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.ArrayList;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.slf4j.Logger;
@@ -57,414 +62,406 @@ class CursorRulesGeneratorTest {
     }
 
     @Nested
-    @DisplayName("Unified XSLT Generator Tests")
-    class UnifiedXsltGeneratorTests {
+    @DisplayName("Streaming Generate Method Tests")
+    class StreamingGenerateMethodTests {
 
-        /**
-         * Provides the base file names for parameterized tests.
-         * Each base name corresponds to both an XML file and expected MDC file.
-         */
-        private static Stream<String> provideXmlFileNames() {
-            return SystemPromptsInventory.baseNames();
-        }
+        @TempDir
+        Path outputDirectory;
 
-        @ParameterizedTest
-        @MethodSource("provideXmlFileNames")
-        @DisplayName("Should validate semantic structure of generated MDC files")
-        void should_validateSemanticStructure_when_generatingMdcFiles(String baseFileName) throws IOException {
+        @Test
+        @DisplayName("Should stream the same content to a Writer as the String overload returns")
+        void should_streamTrimmedContent_when_generatingToWriter() {
             // Given
             CursorRulesGenerator generator = new CursorRulesGenerator();
+            StringWriter writer = new StringWriter();
 
-            // When - Generate content (no schema validation)
-            String generatedContent = generator.generate(
-                baseFileName + ".xml",
-                "cursor-rules.xsl"
-            );
-
-            // Save generated content to target for inspection
-            saveGeneratedContentToTarget(generatedContent, baseFileName + ".md");
+            // When
+            generator.generate("112-java-maven-plugins.xml", "cursor-rules.xsl", writer);
 
-            // Then - Validate the generated content structure
-            String[] lines = generatedContent.split("\\n");
-
-            validateHasMainTitle(lines, baseFileName);
-            validateRequiredSections(lines, baseFileName);
-            validateHeadingFormatting(lines, baseFileName);
-            validateFrontmatterStructure(lines, baseFileName);
-            validateExamplesStructure(lines, baseFileName);
-            validateCodeBlockFormatting(lines, baseFileName);
-            validateOutputFormatSection(lines, baseFileName);
-            validateSafeguardsSection(lines, baseFileName);
-            validateExampleNumberingConsistency(lines, baseFileName);
+            // Then
+            assertThat(writer.toString())
+                .isEqualTo(generator.generate("112-java-maven-plugins.xml", "cursor-rules.xsl"));
+        }
 
+        @Test
+        @DisplayName("Should keep the output file's modification time when the content is unchanged")
+        void should_skipWrite_when_generatingIdenticalContentTwice() throws IOException {
+            // Given
+            CursorRulesGenerator generator = new CursorRulesGenerator();
+            Path output = outputDirectory.resolve("112-java-maven-plugins.md");
+            generator.generate("112-java-maven-plugins.xml", "cursor-rules.xsl", output);
+            FileTime lastModified = FileTime.from(Instant.parse("2024-01-01T00:00:00Z"));
+            Files.setLastModifiedTime(output, lastModified);
+
+            // When
+            OutputSink.Outcome outcome = generator.generate("112-java-maven-plugins.xml", "cursor-rules.xsl", output);
+
+            // Then
+            assertThat(outcome).isEqualTo(OutputSink.Outcome.UNCHANGED);
+            assertThat(Files.getLastModifiedTime(output)).isEqualTo(lastModified);
+            assertThat(Files.readString(output))
+                .isEqualTo(generator.generate("112-java-maven-plugins.xml", "cursor-rules.xsl"));
+            assertThat(generator.outputSink().written()).isEqualTo(1);
+            assertThat(generator.outputSink().unchanged()).isEqualTo(1);
         }
 
-        /**
-         * Validates that the MDC file has a main title (# heading).
-         */
-        private void validateHasMainTitle(String[] lines, String baseFileName) {
-            boolean hasMainTitle = Stream.of(lines)
-                .anyMatch(line -> line.startsWith("# ") && !line.startsWith("## "));
+        @Test
+        @DisplayName("Should not create the output file when generation fails")
+        void should_notLeaveOutputFile_when_xmlFileDoesNotExist() {
+            // Given
+            CursorRulesGenerator generator = new CursorRulesGenerator();
+            Path output = outputDirectory.resolve("non-existent.md");
 
-            assertThat(hasMainTitle)
-                .withFailMessage("MDC file %s.mdc should have a main title (# heading)", baseFileName)
-                .isTrue();
+            // When & Then
+            assertThatThrownBy(() -> generator.generate("non-existent.xml", "cursor-rules.xsl", output))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("non-existent.xml");
+            assertThat(output).doesNotExist();
         }
 
-        /**
-         * Validates that required sections are present in the MDC file.
-         */
-        private void validateRequiredSections(String[] lines, String baseFileName) {
-            boolean hasRole = Stream.of(lines)
-                .anyMatch(line -> line.equals("## Role"));
-
-            boolean hasGoal = Stream.of(lines)
-                .anyMatch(line -> line.equals("## Goal"));
+        @Test
+        @DisplayName("Should keep the existing output file and leave no temporary file when generation fails")
+        void should_keepExistingOutput_when_generationFails() throws IOException {
+            // Given
+            CursorRulesGenerator generator = new CursorRulesGenerator();
+            Path output = Files.writeString(outputDirectory.resolve("112-java-maven-plugins.md"), "# Last good render");
+
+            // When & Then
+            assertThatThrownBy(() -> generator.generate("112-java-maven-plugins.xml", "non-existent.xsl", output))
+                .isInstanceOf(RuntimeException.class);
+            assertThat(output).hasContent("# Last good render");
+            try (Stream<Path> files = Files.list(outputDirectory)) {
+                assertThat(files).containsExactly(output);
+            }
+        }
+    }
 
-            assertThat(hasRole)
-                .withFailMessage("MDC file %s.mdc should have a ## Role section", baseFileName)
-                .isTrue();
+    @Nested
+    @DisplayName("Batch Generate Method Tests")
+    class BatchGenerateMethodTests {
 
-            assertThat(hasGoal)
-                .withFailMessage("MDC file %s.mdc should have a ## Goal section", baseFileName)
-                .isTrue();
+        @Test
+        @DisplayName("Should generate the whole inventory with the same content as single-file generation")
+        void should_generateAllRules_when_batchGeneratingInventory() {
+            // Given
+            CursorRulesGenerator generator = new CursorRulesGenerator();
+            List<String> baseNames = SystemPromptsInventory.baseNames().toList();
+
+            // When
+            BatchGenerationResult batch = generator.generateAll(baseNames, "cursor-rules.xsl");
+
+            // Then
+            assertThat(batch.hasFailures()).isFalse();
+            assertThat(batch.results())
+                .extracting(GenerationResult::baseName)
+                .containsExactlyElementsOf(baseNames);
+            assertThat(batch.results()).allSatisfy(result -> {
+                assertThat(result.elapsed()).isPositive();
+                assertThat(result.content())
+                    .isEqualTo(generator.generate(result.baseName() + ".xml", "cursor-rules.xsl"));
+            });
         }
 
-        /**
-         * Validates that every ## heading has a blank line before it (except the first one).
-         */
-        private void validateHeadingFormatting(String[] lines, String baseFileName) {
-            Stream.iterate(1, i -> i < lines.length, i -> i + 1)
-                .filter(i -> lines[i].startsWith("## "))
-                .forEach(i -> {
-                    String currentLine = lines[i];
-                    String previousLine = lines[i - 1];
-
-                    // Previous line should be empty (blank line) or be the frontmatter end
-                    assertThat(previousLine.trim().isEmpty() || previousLine.equals("---"))
-                        .withFailMessage("MDC file %s.mdc: ## heading '%s' at line %d should have a blank line before it",
-                                       baseFileName, currentLine, i + 1)
-                        .isTrue();
-                });
+        @Test
+        @DisplayName("Should collect failures and keep generating remaining rules")
+        void should_collectFailures_when_ruleDoesNotExist() {
+            // Given
+            CursorRulesGenerator generator = new CursorRulesGenerator();
+            List<String> baseNames = List.of("110-java-maven-best-practices", "non-existent", "126-java-logging");
+
+            // When
+            BatchGenerationResult batch = generator.generateAll(baseNames, "cursor-rules.xsl",
+                BatchOptions.defaults().withFailureMode(BatchOptions.FailureMode.COLLECT_ERRORS));
+
+            // Then
+            assertThat(batch.successes())
+                .extracting(GenerationResult::baseName)
+                .containsExactly("110-java-maven-best-practices", "126-java-logging");
+            assertThat(batch.failures()).singleElement().satisfies(failure -> {
+                assertThat(failure.baseName()).isEqualTo("non-existent");
+                assertThat(failure.failure()).hasMessageContaining("non-existent.xml");
+            });
         }
 
-        /**
-         * Validates that the MDC file has proper frontmatter structure.
-         */
-        private void validateFrontmatterStructure(String[] lines, String baseFileName) {
-            // Should start with frontmatter
-            assertThat(lines[0])
-                .withFailMessage("MDC file %s.mdc should start with frontmatter (---)", baseFileName)
-                .isEqualTo("---");
-
-            // Should have closing frontmatter
-            boolean hasFrontmatterEnd = Stream.iterate(1, i -> i < Math.min(10, lines.length), i -> i + 1)
-                .anyMatch(i -> lines[i].equals("---"));
-
-            assertThat(hasFrontmatterEnd)
-                .withFailMessage("MDC file %s.mdc should have closing frontmatter (---)", baseFileName)
-                .isTrue();
-        }
+        @Test
+        @DisplayName("Should throw on first failure when failing fast")
+        void should_throwException_when_failingFastOnMissingRule() {
+            // Given
+            CursorRulesGenerator generator = new CursorRulesGenerator();
+            List<String> baseNames = List.of("non-existent", "126-java-logging");
 
-        /**
-         * Validates that the Examples section has proper structure when present.
-         */
-        private void validateExamplesStructure(String[] lines, String baseFileName) {
-            boolean hasExamplesSection = Stream.of(lines)
-                .anyMatch(line -> line.equals("## Examples"));
+            // When & Then
+            assertThatThrownBy(() -> generator.generateAll(baseNames, "cursor-rules.xsl",
+                    BatchOptions.defaults().withFailureMode(BatchOptions.FailureMode.FAIL_FAST)))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Failed to generate cursor rules for")
+                .hasMessageContaining("non-existent.xml");
+        }
 
-            if (hasExamplesSection) {
-                // Should have table of contents
-                boolean hasTableOfContents = Stream.of(lines)
-                    .anyMatch(line -> line.equals("### Table of contents"));
+        @Test
+        @DisplayName("Should validate the structure of every rule when requested")
+        void should_validateStructure_when_batchGeneratingWithValidation() {
+            // Given
+            CursorRulesGenerator generator = new CursorRulesGenerator();
+            List<String> baseNames = SystemPromptsInventory.baseNames().toList();
 
-                assertThat(hasTableOfContents)
-                    .withFailMessage("MDC file %s.mdc with Examples section should have a Table of contents", baseFileName)
-                    .isTrue();
+            // When
+            BatchGenerationResult batch = generator.generateAll(baseNames, "cursor-rules.xsl",
+                BatchOptions.defaults().withStructureValidation());
 
-                // Should have at least one example
-                boolean hasExampleHeading = Stream.of(lines)
-                    .anyMatch(line -> line.matches("^### Example \\d+:.*"));
+            // Then
+            assertThat(batch.failures()).isEmpty();
+            assertThat(batch.successes()).hasSameSizeAs(baseNames);
+        }
 
-                assertThat(hasExampleHeading)
-                    .withFailMessage("MDC file %s.mdc should have at least one example with proper heading format", baseFileName)
-                    .isTrue();
+        @Test
+        @DisplayName("Should throw exception when XSLT file does not exist")
+        void should_throwException_when_batchXsltFileDoesNotExist() {
+            // Given
+            CursorRulesGenerator generator = new CursorRulesGenerator();
 
-                // Each example should have Title and Description
-                validateExampleTitleDescriptionPattern(lines, baseFileName);
-            }
+            // When & Then
+            assertThatThrownBy(() -> generator.generateAll(List.of("126-java-logging"), "non-existent.xsl"))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("non-existent.xsl");
         }
+    }
 
-        /**
-         * Validates that examples follow the Title/Description pattern.
-         */
-        private void validateExampleTitleDescriptionPattern(String[] lines, String baseFileName) {
-            for (int i = 0; i < lines.length - 2; i++) {
-                if (lines[i].matches("^### Example \\d+:.*")) {
-                    // Next non-empty line should start with "Title:"
-                    int nextLineIndex = i + 1;
-                    while (nextLineIndex < lines.length && lines[nextLineIndex].trim().isEmpty()) {
-                        nextLineIndex++;
-                    }
+    @Nested
+    @DisplayName("Generation Listener Tests")
+    class GenerationListenerTests {
 
-                    if (nextLineIndex < lines.length) {
-                        assertThat(lines[nextLineIndex])
-                            .withFailMessage("MDC file %s.mdc: Example at line %d should be followed by 'Title:' line",
-                                           baseFileName, i + 1)
-                            .startsWith("Title:");
-
-                        // Find next non-empty line after Title, should be Description
-                        int descLineIndex = nextLineIndex + 1;
-                        while (descLineIndex < lines.length && lines[descLineIndex].trim().isEmpty()) {
-                            descLineIndex++;
-                        }
-
-                        if (descLineIndex < lines.length) {
-                            assertThat(lines[descLineIndex])
-                                .withFailMessage("MDC file %s.mdc: Example at line %d should have 'Description:' after Title",
-                                               baseFileName, i + 1)
-                                .startsWith("Description:");
-                        }
-                    }
-                }
-            }
+        @Test
+        @DisplayName("Should report per-phase timings and output size of a generated rule")
+        void should_reportMetrics_when_ruleGenerated() {
+            // Given
+            List<GenerationMetrics> reported = new CopyOnWriteArrayList<>();
+            CursorRulesGenerator generator = CursorRulesGenerator.builder().listener(reported::add).build();
+
+            // When
+            String content = generator.generate("126-java-logging.xml", "cursor-rules.xsl");
+
+            // Then
+            assertThat(reported).singleElement().satisfies(metrics -> {
+                assertThat(metrics.xmlFileName()).isEqualTo("126-java-logging.xml");
+                assertThat(metrics.parse()).isPositive();
+                assertThat(metrics.transform()).isPositive();
+                assertThat(metrics.write()).isPositive();
+                assertThat(metrics.outputBytes()).isEqualTo(content.getBytes(StandardCharsets.UTF_8).length);
+                assertThat(metrics.allocatedBytes()).isPositive();
+                assertThat(metrics.total()).isGreaterThanOrEqualTo(metrics.parse().plus(metrics.transform()));
+            });
         }
 
-        /**
-         * Validates proper code block formatting with language specification.
-         */
-        private void validateCodeBlockFormatting(String[] lines, String baseFileName) {
-            for (int i = 0; i < lines.length; i++) {
-                String line = lines[i];
-
-                // Check for code block start
-                if (line.startsWith("```") && line.length() > 3) {
-                    String language = line.substring(3);
-
-                    // Should specify a language (not empty)
-                    assertThat(language.trim())
-                        .withFailMessage("MDC file %s.mdc: Code block at line %d should specify a language",
-                                       baseFileName, i + 1)
-                        .isNotEmpty();
-
-                    // Find corresponding closing ```
-                    boolean hasClosing = false;
-                    for (int j = i + 1; j < lines.length; j++) {
-                        if (lines[j].equals("```")) {
-                            hasClosing = true;
-                            break;
-                        }
+        @Test
+        @DisplayName("Should report a failure for a missing rule")
+        void should_reportFailure_when_ruleDoesNotExist() {
+            // Given
+            List<String> failed = new CopyOnWriteArrayList<>();
+            CursorRulesGenerator generator = CursorRulesGenerator.builder()
+                .listener(new GenerationListener() {
+                    @Override
+                    public void onGenerated(GenerationMetrics metrics) {
                     }
 
-                    assertThat(hasClosing)
-                        .withFailMessage("MDC file %s.mdc: Code block at line %d is not properly closed",
-                                       baseFileName, i + 1)
-                        .isTrue();
-                }
-            }
+                    @Override
+                    public void onFailure(String xmlFileName, RuntimeException failure) {
+                        failed.add(xmlFileName);
+                    }
+                })
+                .build();
 
-            // Validate Good/Bad example pattern
-            validateGoodBadExamplePattern(lines, baseFileName);
+            // When & Then
+            assertThatThrownBy(() -> generator.generate("non-existent.xml", "cursor-rules.xsl"))
+                .isInstanceOf(RuntimeException.class);
+            assertThat(failed).containsExactly("non-existent.xml");
         }
 
-        /**
-         * Validates that examples follow the Good/Bad example pattern.
-         */
-        private void validateGoodBadExamplePattern(String[] lines, String baseFileName) {
-            boolean hasGoodExample = Stream.of(lines)
-                .anyMatch(line -> line.equals("**Good example:**"));
-            boolean hasBadExample = Stream.of(lines)
-                .anyMatch(line -> line.equals("**Bad example:**"));
-
-            // If there are examples, they should have both good and bad
-            boolean hasExamples = Stream.of(lines)
-                .anyMatch(line -> line.matches("^### Example \\d+:.*"));
-
-            if (hasExamples) {
-                assertThat(hasGoodExample)
-                    .withFailMessage("MDC file %s.mdc with examples should have at least one 'Good example:'", baseFileName)
-                    .isTrue();
-
-                assertThat(hasBadExample)
-                    .withFailMessage("MDC file %s.mdc with examples should have at least one 'Bad example:'", baseFileName)
-                    .isTrue();
-            }
-        }
+        @Test
+        @DisplayName("Should report metrics of every rule generated in a batch")
+        void should_reportMetricsPerRule_when_batchGenerating() {
+            // Given
+            List<GenerationMetrics> reported = new CopyOnWriteArrayList<>();
+            CursorRulesGenerator generator = CursorRulesGenerator.builder().listener(reported::add).build();
+            List<String> baseNames = List.of("110-java-maven-best-practices", "126-java-logging", "171-java-diagrams");
 
-        /**
-         * Validates the Output Format section when present.
-         */
-        private void validateOutputFormatSection(String[] lines, String baseFileName) {
-            boolean hasOutputFormat = Stream.of(lines)
-                .anyMatch(line -> line.equals("## Output Format"));
-
-            if (hasOutputFormat) {
-                // Should have bullet points after the heading
-                boolean hasOutputFormatItems = false;
-                boolean foundSection = false;
-
-                for (String line : lines) {
-                    if (line.equals("## Output Format")) {
-                        foundSection = true;
-                        continue;
-                    }
-                    if (foundSection) {
-                        if (line.startsWith("## ")) {
-                            // Reached next section
-                            break;
-                        }
-                        if (line.startsWith("- ")) {
-                            hasOutputFormatItems = true;
-                            break;
-                        }
-                    }
-                }
+            // When
+            generator.generateAll(baseNames, "cursor-rules.xsl");
 
-                assertThat(hasOutputFormatItems)
-                    .withFailMessage("MDC file %s.mdc Output Format section should contain bullet point items", baseFileName)
-                    .isTrue();
-            }
+            // Then
+            assertThat(reported)
+                .extracting(GenerationMetrics::xmlFileName)
+                .containsExactlyInAnyOrder("110-java-maven-best-practices.xml", "126-java-logging.xml", "171-java-diagrams.xml");
         }
+    }
 
-        /**
-         * Validates the Safeguards section when present.
-         */
-        private void validateSafeguardsSection(String[] lines, String baseFileName) {
-            boolean hasSafeguards = Stream.of(lines)
-                .anyMatch(line -> line.equals("## Safeguards"));
-
-            if (hasSafeguards) {
-                // Should have bullet points after the heading
-                boolean hasSafeguardItems = false;
-                boolean foundSection = false;
-
-                for (String line : lines) {
-                    if (line.equals("## Safeguards")) {
-                        foundSection = true;
-                        continue;
-                    }
-                    if (foundSection) {
-                        if (line.startsWith("## ")) {
-                            // Reached next section
-                            break;
-                        }
-                        if (line.startsWith("- ")) {
-                            hasSafeguardItems = true;
-                            break;
-                        }
-                    }
-                }
-
-                assertThat(hasSafeguardItems)
-                    .withFailMessage("MDC file %s.mdc Safeguards section should contain bullet point items", baseFileName)
-                    .isTrue();
+    @Nested
+    @DisplayName("Multi-Target Generation Tests")
+    class MultiTargetGenerationTests {
+
+        private static final String TITLE_XSL = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <xsl:stylesheet version="1.0" xmlns:xsl="http://www.w3.org/1999/XSL/Transform">
+                <xsl:output method="text" encoding="UTF-8"/>
+                <xsl:template match="/prompt">
+                    <xsl:value-of select="metadata/title"/>
+                </xsl:template>
+            </xsl:stylesheet>
+            """;
+
+        @TempDir
+        Path tempDir;
 
-                // For Maven-related rules, should contain Maven commands
-                if (baseFileName.contains("maven")) {
-                    boolean hasMavenCommand = Stream.of(lines)
-                        .anyMatch(line -> line.contains("mvn") || line.contains("./mvnw"));
+        @Test
+        @DisplayName("Should write the same content for every target as single-target generation")
+        void should_writeIdenticalContent_when_fanningOutToSeveralTargets() throws IOException {
+            // Given
+            CursorRulesGenerator generator = new CursorRulesGenerator();
+            List<OutputTarget> targets = List.of(
+                new OutputTarget("cursor-rules.xsl", tempDir.resolve("cursor"), ".mdc"),
+                new OutputTarget("cursor-rules.xsl", tempDir.resolve("site"), ".md"));
+
+            // When
+            List<Path> outputs = generator.generate("126-java-logging.xml", targets);
+
+            // Then
+            String expected = generator.generate("126-java-logging.xml", "cursor-rules.xsl");
+            assertThat(outputs).containsExactly(
+                tempDir.resolve("cursor/126-java-logging.mdc"),
+                tempDir.resolve("site/126-java-logging.md"));
+            assertThat(outputs).allSatisfy(output -> assertThat(Files.readString(output)).isEqualTo(expected));
+        }
 
-                    assertThat(hasMavenCommand)
-                        .withFailMessage("MDC file %s.mdc Maven-related rule should contain Maven commands in Safeguards", baseFileName)
-                        .isTrue();
-                }
+        @Test
+        @DisplayName("Should leave identical target outputs untouched and count them as unchanged")
+        void should_skipWrites_when_fanningOutIdenticalContentAgain() throws IOException {
+            // Given
+            CursorRulesGenerator generator = new CursorRulesGenerator();
+            List<OutputTarget> targets = List.of(
+                new OutputTarget("cursor-rules.xsl", tempDir.resolve("cursor"), ".mdc"),
+                new OutputTarget("cursor-rules.xsl", tempDir.resolve("site"), ".md"));
+            List<Path> outputs = generator.generate("126-java-logging.xml", targets);
+            FileTime lastModified = FileTime.from(Instant.parse("2024-01-01T00:00:00Z"));
+            for (Path output : outputs) {
+                Files.setLastModifiedTime(output, lastModified);
             }
-        }
 
-        /**
-         * Determines if a rule is a template generation rule rather than a code analysis rule.
-         */
-        private boolean isTemplateGenerationRule(String content, String baseFileName) {
-            // Check for template generation indicators
-            boolean hasTemplateReference = content.contains("embedded template") ||
-                                         content.contains("template EXACTLY") ||
-                                         content.contains("markdown file named");
+            // When
+            generator.generate("126-java-logging.xml", targets);
 
-            boolean isChecklistGuide = baseFileName.contains("checklist-guide");
-            boolean isDocumentationRule = baseFileName.contains("documentation");
+            // Then
+            assertThat(outputs).allSatisfy(output ->
+                assertThat(Files.getLastModifiedTime(output)).isEqualTo(lastModified));
+            assertThat(generator.outputSink().written()).isEqualTo(2);
+            assertThat(generator.outputSink().unchanged()).isEqualTo(2);
+        }
 
-            return hasTemplateReference || isChecklistGuide || isDocumentationRule;
+        @Test
+        @DisplayName("Should apply each target's own stylesheet to the rule")
+        void should_applyEachStylesheet_when_targetsUseDifferentStylesheets() throws IOException {
+            // Given
+            Path sources = Files.createDirectories(tempDir.resolve("sources"));
+            Files.copy(Paths.get("src/main/resources/cursor-rules.xsl"), sources.resolve("cursor-rules.xsl"));
+            Files.writeString(sources.resolve("title.xsl"), TITLE_XSL);
+            Files.writeString(sources.resolve("sample.xml"), """
+                <prompt><metadata><title>Sample Rule</title></metadata><role>Reviewer</role></prompt>
+                """);
+            CursorRulesGenerator generator = CursorRulesGenerator.builder()
+                .resourceProvider(ResourceProvider.directory(sources))
+                .build();
+
+            // When
+            List<Path> outputs = generator.generate("sample.xml", List.of(
+                new OutputTarget("cursor-rules.xsl", tempDir.resolve("rules"), ".md"),
+                new OutputTarget("title.xsl", tempDir.resolve("titles"), ".txt")));
+
+            // Then
+            assertThat(Files.readString(outputs.get(0)))
+                .isEqualTo(generator.generate("sample.xml", "cursor-rules.xsl"))
+                .contains("# Sample Rule");
+            assertThat(Files.readString(outputs.get(1))).isEqualTo("Sample Rule");
         }
 
-        /**
-         * Validates that example numbering is consistent and sequential.
-         */
-        private void validateExampleNumberingConsistency(String[] lines, String baseFileName) {
-            List<Integer> exampleNumbers = new ArrayList<>();
-
-            for (String line : lines) {
-                if (line.matches("^### Example \\d+:.*")) {
-                    String numberStr = line.replaceAll("^### Example (\\d+):.*", "$1");
-                    try {
-                        exampleNumbers.add(Integer.parseInt(numberStr));
-                    } catch (NumberFormatException e) {
-                        // Skip invalid numbers
-                    }
-                }
-            }
+        @Test
+        @DisplayName("Should write no target output when one target fails")
+        void should_writeNoOutputs_when_oneTargetFails() {
+            // Given
+            CursorRulesGenerator generator = new CursorRulesGenerator();
+            OutputTarget valid = new OutputTarget("cursor-rules.xsl", tempDir, ".md");
+            OutputTarget missing = new OutputTarget("non-existent.xsl", tempDir, ".txt");
 
-            if (!exampleNumbers.isEmpty()) {
-                // Should start with 1
-                assertThat(exampleNumbers.get(0))
-                    .withFailMessage("MDC file %s.mdc: First example should be numbered 1", baseFileName)
-                    .isEqualTo(1);
-
-                // Should be sequential
-                for (int i = 1; i < exampleNumbers.size(); i++) {
-                    assertThat(exampleNumbers.get(i))
-                        .withFailMessage("MDC file %s.mdc: Example numbers should be sequential, found gap after %d",
-                                       baseFileName, exampleNumbers.get(i-1))
-                        .isEqualTo(exampleNumbers.get(i-1) + 1);
-                }
-
-                // Table of contents should match example numbers
-                validateTableOfContentsMatchesExamples(lines, baseFileName, exampleNumbers);
+            // When & Then
+            assertThatThrownBy(() -> generator.generate("126-java-logging.xml", List.of(valid, missing)))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("non-existent.xsl");
+            assertThat(tempDir).isEmptyDirectory();
+        }
+
+        @Test
+        @DisplayName("Should keep the last good output of every target when one target fails")
+        void should_keepExistingOutputs_when_oneTargetFails() throws IOException {
+            // Given
+            CursorRulesGenerator generator = new CursorRulesGenerator();
+            OutputTarget valid = new OutputTarget("cursor-rules.xsl", tempDir, ".md");
+            OutputTarget missing = new OutputTarget("non-existent.xsl", tempDir, ".txt");
+            Path validOutput = Files.writeString(valid.outputFile("126-java-logging"), "# Last good render");
+            Path missingOutput = Files.writeString(missing.outputFile("126-java-logging"), "Last good title");
+            Path untouched = Files.writeString(tempDir.resolve("127-java-exception-handling.md"), "# Other rule");
+
+            // When & Then
+            assertThatThrownBy(() -> generator.generate("126-java-logging.xml", List.of(valid, missing)))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("non-existent.xsl");
+            assertThat(validOutput).hasContent("# Last good render");
+            assertThat(missingOutput).hasContent("Last good title");
+            assertThat(untouched).hasContent("# Other rule");
+            try (Stream<Path> files = Files.list(tempDir)) {
+                assertThat(files).containsExactlyInAnyOrder(validOutput, missingOutput, untouched);
             }
         }
+    }
+
+    @Nested
+    @DisplayName("Unified XSLT Generator Tests")
+    class UnifiedXsltGeneratorTests {
 
         /**
-         * Validates that table of contents entries match actual examples.
+         * Provides the base file names for parameterized tests.
+         * Each base name corresponds to both an XML file and expected MDC file.
          */
-        private void validateTableOfContentsMatchesExamples(String[] lines, String baseFileName, List<Integer> exampleNumbers) {
-            List<Integer> tocNumbers = new ArrayList<>();
-
-            boolean inToc = false;
-            for (String line : lines) {
-                if (line.equals("### Table of contents")) {
-                    inToc = true;
-                    continue;
-                }
-                if (inToc && line.startsWith("### ")) {
-                    // End of TOC
-                    break;
-                }
-                if (inToc && line.matches("^- Example \\d+:.*")) {
-                    String numberStr = line.replaceAll("^- Example (\\d+):.*", "$1");
-                    try {
-                        tocNumbers.add(Integer.parseInt(numberStr));
-                    } catch (NumberFormatException e) {
-                        // Skip invalid numbers
-                    }
-                }
-            }
+        private static Stream<String> provideXmlFileNames() {
+            return SystemPromptsInventory.baseNames();
+        }
+
+        @ParameterizedTest
+        @MethodSource("provideXmlFileNames")
+        @DisplayName("Should validate semantic structure of generated MDC files")
+        void should_validateSemanticStructure_when_generatingMdcFiles(String baseFileName) throws IOException {
+            // Given
+            CursorRulesGenerator generator = new CursorRulesGenerator();
+
+            // When - Generate content (no schema validation) straight to target for inspection
+            Path outputPath = saveGeneratedContentToTarget(generator, baseFileName);
 
-            assertThat(tocNumbers)
-                .withFailMessage("MDC file %s.mdc: Table of contents should match actual example numbers", baseFileName)
-                .isEqualTo(exampleNumbers);
+            // Then - Validate the generated content structure in a single pass
+            assertThat(new MdcStructureValidator().validate(outputPath))
+                .as("Structural violations of MDC file %s.md", baseFileName)
+                .isEmpty();
         }
 
         /**
-         * Pure function to save generated content to target directory.
-         * Follows functional programming principles with clear input/output relationship.
+         * Streams the generated content for a rule into the target directory, without an intermediate
+         * String copy. Unchanged files are left untouched, so repeated builds do not refresh their timestamps.
          */
-        private void saveGeneratedContentToTarget(String content, String filename) throws IOException {
+        private Path saveGeneratedContentToTarget(CursorRulesGenerator generator, String baseFileName) throws IOException {
             Path targetDir = Paths.get("target");
             if (!Files.exists(targetDir)) {
                 Files.createDirectories(targetDir);
             }
-            Path outputPath = targetDir.resolve(filename);
-            Files.writeString(outputPath, content);
+            Path outputPath = targetDir.resolve(baseFileName + ".md");
+            generator.generate(baseFileName + ".xml", "cursor-rules.xsl", outputPath);
             logger.info("Generated content saved to: {}", outputPath.toAbsolutePath());
+            return outputPath;
         }
 
     }
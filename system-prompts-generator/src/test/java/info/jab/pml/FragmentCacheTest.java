@@ -0,0 +1,111 @@
+package info.jab.pml;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.xml.sax.InputSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Fragment Cache Tests")
+class FragmentCacheTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should serve a fragment from memory after the first read")
+    void should_serveCachedContent_when_fragmentChangesOnDisk() throws IOException {
+        // Given
+        FragmentCache cache = new FragmentCache(1024);
+        String systemId = fragment("a.md", "first").toUri().toString();
+        cache.resolveEntity(null, systemId);
+
+        // When
+        Files.writeString(directory.resolve("a.md"), "second");
+        InputSource resolved = cache.resolveEntity(null, systemId);
+
+        // Then
+        assertThat(resolved.getByteStream()).hasContent("first");
+        assertThat(resolved.getSystemId()).isEqualTo(systemId);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should read a fragment again after invalidation")
+    void should_rereadFragment_when_invalidated() throws IOException {
+        // Given
+        FragmentCache cache = new FragmentCache(1024);
+        String systemId = fragment("a.md", "first").toUri().toString();
+        cache.resolveEntity(null, systemId);
+        Files.writeString(directory.resolve("a.md"), "second");
+
+        // When
+        cache.invalidate(systemId);
+
+        // Then
+        assertThat(cache.resolveEntity(null, systemId).getByteStream()).hasContent("second");
+    }
+
+    @Test
+    @DisplayName("Should evict least recently used fragments when over budget")
+    void should_evictLeastRecentlyUsed_when_budgetExceeded() throws IOException {
+        // Given
+        FragmentCache cache = new FragmentCache(10);
+        String a = fragment("a.md", "aaaa").toUri().toString();
+        String b = fragment("b.md", "bbbb").toUri().toString();
+        String c = fragment("c.md", "cccc").toUri().toString();
+        cache.resolveEntity(null, a);
+        cache.resolveEntity(null, b);
+        cache.resolveEntity(null, a);
+
+        // When
+        cache.resolveEntity(null, c);
+
+        // Then - b was least recently used
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.cachedBytes()).isEqualTo(8);
+        Files.writeString(directory.resolve("a.md"), "AAAA");
+        Files.writeString(directory.resolve("b.md"), "BBBB");
+        assertThat(cache.resolveEntity(null, a).getByteStream()).hasContent("aaaa");
+        assertThat(cache.resolveEntity(null, b).getByteStream()).hasContent("BBBB");
+    }
+
+    @Test
+    @DisplayName("Should not cache fragments larger than the budget")
+    void should_notCache_when_fragmentLargerThanBudget() throws IOException {
+        // Given
+        FragmentCache cache = new FragmentCache(3);
+        String systemId = fragment("a.md", "too large").toUri().toString();
+
+        // When
+        InputSource resolved = cache.resolveEntity(null, systemId);
+
+        // Then
+        assertThat(resolved.getByteStream()).hasContent("too large");
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should cache every fragment included by a generated rule")
+    void should_cacheIncludedFragments_when_generatingRule() {
+        // Given
+        FragmentCache cache = new FragmentCache(FragmentCache.DEFAULT_MAX_BYTES);
+        CursorRulesGenerator generator = CursorRulesGenerator.builder().fragmentCache(cache).build();
+
+        // When
+        String first = generator.generate("171-java-diagrams.xml", "cursor-rules.xsl");
+        String second = generator.generate("171-java-diagrams.xml", "cursor-rules.xsl");
+
+        // Then
+        assertThat(cache.size()).isEqualTo(5);
+        assertThat(second).isEqualTo(first);
+    }
+
+    private Path fragment(String name, String content) throws IOException {
+        return Files.writeString(directory.resolve(name), content);
+    }
+}
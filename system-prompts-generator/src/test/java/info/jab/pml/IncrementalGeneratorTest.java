@@ -0,0 +1,181 @@
+package info.jab.pml;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Incremental Generator Tests")
+class IncrementalGeneratorTest {
+
+    private static final String XSL = "cursor-rules.xsl";
+    private static final List<String> RULES = List.of(
+        "126-java-logging",
+        "170-java-documentation",
+        "171-java-diagrams"
+    );
+
+    @TempDir
+    Path outputDirectory;
+
+    @Test
+    @DisplayName("Should generate every rule on first run and none on an unchanged second run")
+    void should_skipAllRules_when_inputsUnchanged() {
+        // Given
+        IncrementalGenerator generator = new IncrementalGenerator(new CursorRulesGenerator(), outputDirectory);
+
+        // When
+        IncrementalResult first = generator.generate(RULES, XSL);
+        IncrementalResult second = generator.generate(RULES, XSL);
+
+        // Then
+        assertThat(first.regenerated()).containsExactlyElementsOf(RULES);
+        assertThat(second.regenerated()).isEmpty();
+        assertThat(second.upToDate()).containsExactlyElementsOf(RULES);
+        assertThat(outputDirectory.resolve("126-java-logging.md")).isNotEmptyFile();
+    }
+
+    @Test
+    @DisplayName("Should regenerate only rules including a changed fragment")
+    void should_regenerateDependentRules_when_fragmentChanges() throws IOException {
+        // Given
+        IncrementalGenerator generator = new IncrementalGenerator(new CursorRulesGenerator(), outputDirectory);
+        generator.generate(RULES, XSL);
+        Path manifest = outputDirectory.resolve(IncrementalGenerator.MANIFEST_FILE_NAME);
+        String fragment = "fragments/java-uml-class-diagram-template.md";
+        assertThat(Files.readString(manifest)).contains("input." + fragment + "=");
+
+        // When - simulate an edit by recording a different hash for the fragment
+        Files.writeString(manifest, Files.readString(manifest)
+            .replaceAll("(?m)^input\\." + fragment + "=.*$", "input." + fragment + "=changed"));
+        IncrementalResult result = generator.generate(RULES, XSL);
+
+        // Then
+        assertThat(result.regenerated()).containsExactly("171-java-diagrams");
+        assertThat(result.upToDate()).containsExactly("126-java-logging", "170-java-documentation");
+    }
+
+    @Test
+    @DisplayName("Should regenerate every rule when the stylesheet changes")
+    void should_regenerateAllRules_when_stylesheetChanges() throws IOException {
+        // Given
+        IncrementalGenerator generator = new IncrementalGenerator(new CursorRulesGenerator(), outputDirectory);
+        generator.generate(RULES, XSL);
+        Path manifest = outputDirectory.resolve(IncrementalGenerator.MANIFEST_FILE_NAME);
+
+        // When
+        Files.writeString(manifest, Files.readString(manifest)
+            .replaceAll("(?m)^input\\.cursor-rules\\.xsl=.*$", "input.cursor-rules.xsl=changed"));
+        IncrementalResult result = generator.generate(RULES, XSL);
+
+        // Then
+        assertThat(result.regenerated()).containsExactlyElementsOf(RULES);
+    }
+
+    @Test
+    @DisplayName("Should regenerate every rule when asked for another stylesheet than the recorded one")
+    void should_regenerateAllRules_when_stylesheetIsReplaced(@TempDir Path sourceDirectory) throws IOException {
+        // Given
+        Files.copy(Path.of("src/main/resources").resolve(XSL), sourceDirectory.resolve(XSL));
+        Files.copy(Path.of("src/main/resources").resolve(XSL), sourceDirectory.resolve("site-rules.xsl"));
+        Files.writeString(sourceDirectory.resolve("sample.xml"), """
+            <prompt><metadata><title>Sample Rule</title></metadata><role>Reviewer</role></prompt>
+            """);
+        CursorRulesGenerator rulesGenerator = CursorRulesGenerator.builder()
+            .resourceProvider(ResourceProvider.directory(sourceDirectory))
+            .build();
+        IncrementalGenerator generator = new IncrementalGenerator(rulesGenerator, outputDirectory);
+        generator.generate(List.of("sample"), XSL);
+
+        // When
+        IncrementalResult result = generator.generate(List.of("sample"), "site-rules.xsl");
+
+        // Then
+        assertThat(result.regenerated()).containsExactly("sample");
+        assertThat(outputDirectory.resolve(IncrementalGenerator.MANIFEST_FILE_NAME)).content()
+            .contains("rule.sample=sample.xml,site-rules.xsl");
+        assertThat(generator.generate(List.of("sample"), "site-rules.xsl").regenerated()).isEmpty();
+        assertThat(generator.generate(List.of("sample"), XSL).regenerated()).containsExactly("sample");
+    }
+
+    @Test
+    @DisplayName("Should regenerate a rule whose output was deleted")
+    void should_regenerateRule_when_outputMissing() throws IOException {
+        // Given
+        IncrementalGenerator generator = new IncrementalGenerator(new CursorRulesGenerator(), outputDirectory);
+        generator.generate(RULES, XSL);
+
+        // When
+        Files.delete(outputDirectory.resolve("170-java-documentation.md"));
+        IncrementalResult result = generator.generate(RULES, XSL);
+
+        // Then
+        assertThat(result.regenerated()).containsExactly("170-java-documentation");
+    }
+
+    @Test
+    @DisplayName("Should render an edited fragment even when the generator's fragment cache holds the old content")
+    void should_renderEditedFragment_when_generatorCacheIsWarm(@TempDir Path sourceDirectory) throws IOException {
+        // Given
+        String fragment = "fragments/java-maven-documentation-template.md";
+        String rule = "113-java-maven-documentation";
+        Files.createDirectories(sourceDirectory.resolve("fragments"));
+        for (String resource : List.of(XSL, fragment, rule + ".xml")) {
+            Files.copy(Path.of("src/main/resources").resolve(resource), sourceDirectory.resolve(resource));
+        }
+        CursorRulesGenerator rulesGenerator = CursorRulesGenerator.builder()
+            .resourceProvider(ResourceProvider.directory(sourceDirectory))
+            .fragmentCache(new FragmentCache(FragmentCache.DEFAULT_MAX_BYTES))
+            .build();
+        rulesGenerator.generate(rule + ".xml", XSL);
+        IncrementalGenerator generator = new IncrementalGenerator(rulesGenerator, outputDirectory);
+        generator.generate(List.of(rule), XSL);
+
+        // When
+        Files.writeString(sourceDirectory.resolve(fragment), "\nEdited fragment marker\n", StandardOpenOption.APPEND);
+        IncrementalResult result = generator.generate(List.of(rule), XSL);
+
+        // Then
+        assertThat(result.regenerated()).containsExactly(rule);
+        assertThat(outputDirectory.resolve(rule + ".md")).content().contains("Edited fragment marker");
+        assertThat(generator.generate(List.of(rule), XSL).regenerated()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should regenerate a rule once an include it fell back from appears")
+    void should_regenerateRule_when_missingIncludeAppears(@TempDir Path sourceDirectory) throws IOException {
+        // Given
+        Files.copy(Path.of("src/main/resources").resolve(XSL), sourceDirectory.resolve(XSL));
+        Files.writeString(sourceDirectory.resolve("sample.xml"), """
+            <prompt xmlns:xi="http://www.w3.org/2001/XInclude">
+                <metadata><title>Sample Rule</title></metadata>
+                <role><xi:include href="fragments/role.md" parse="text"><xi:fallback>Fallback role</xi:fallback></xi:include></role>
+            </prompt>
+            """);
+        CursorRulesGenerator rulesGenerator = CursorRulesGenerator.builder()
+            .resourceProvider(ResourceProvider.directory(sourceDirectory))
+            .fragmentCache(new FragmentCache(FragmentCache.DEFAULT_MAX_BYTES))
+            .build();
+        IncrementalGenerator generator = new IncrementalGenerator(rulesGenerator, outputDirectory);
+        generator.generate(List.of("sample"), XSL);
+        assertThat(outputDirectory.resolve("sample.md")).content().contains("Fallback role");
+        assertThat(outputDirectory.resolve(IncrementalGenerator.MANIFEST_FILE_NAME)).content()
+            .contains("input.fragments/role.md=" + GenerationManifest.MISSING);
+
+        // When
+        Files.createDirectories(sourceDirectory.resolve("fragments"));
+        Files.writeString(sourceDirectory.resolve("fragments/role.md"), "Included role");
+        IncrementalResult result = generator.generate(List.of("sample"), XSL);
+
+        // Then
+        assertThat(result.regenerated()).containsExactly("sample");
+        assertThat(outputDirectory.resolve("sample.md")).content().contains("Included role");
+        assertThat(generator.generate(List.of("sample"), XSL).regenerated()).isEmpty();
+    }
+}
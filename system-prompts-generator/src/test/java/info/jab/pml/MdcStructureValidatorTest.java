@@ -0,0 +1,163 @@
+package info.jab.pml;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("MDC Structure Validator Tests")
+class MdcStructureValidatorTest {
+
+    private static final String VALID_RULE = """
+        ---
+        author: Juan Antonio Breña Moral
+        version: 0.10.0
+        ---
+        # Sample rule
+
+        ## Role
+
+        You are a reviewer.
+
+        ## Goal
+
+        Review code.
+
+        ## Examples
+
+        ### Table of contents
+
+        - Example 1: First
+        - Example 2: Second
+
+        ### Example 1: First
+
+        Title: First example
+        Description: Shows the first case.
+
+        **Good example:**
+
+        ```java
+        class Good {}
+        ```
+
+        **Bad example:**
+
+        ```java
+        class Bad {}
+        ```
+
+        ### Example 2: Second
+
+        Title: Second example
+        Description: Shows the second case.
+
+        ## Output Format
+
+        - A list of findings
+
+        ## Safeguards
+
+        - Run the tests
+        """;
+
+    private final MdcStructureValidator validator = new MdcStructureValidator();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should report no violations for a well-formed rule")
+    void should_returnNoViolations_when_ruleIsWellFormed() {
+        // When
+        List<MdcStructureValidator.Violation> violations = validator.validate("sample", VALID_RULE);
+
+        // Then
+        assertThat(violations).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should report each broken rule with its line")
+    void should_reportViolations_when_ruleIsMalformed() {
+        // Given
+        String malformed = VALID_RULE
+            .replace("\n## Goal", "## Goal")
+            .replace("- Example 2: Second\n", "")
+            .replace("Title: Second example\n", "")
+            .replace("```java\nclass Bad {}\n```", "``` \nclass Bad {}");
+
+        // When
+        List<MdcStructureValidator.Violation> violations = validator.validate("sample", malformed);
+
+        // Then
+        assertThat(violations).extracting(MdcStructureValidator.Violation::message).containsExactlyInAnyOrder(
+            "## heading '## Goal' should have a blank line before it",
+            "code block should specify a language",
+            "code block is not properly closed",
+            "example should be followed by a 'Title:' line",
+            "table of contents [1] should match example numbers [1, 2]");
+        assertThat(violations)
+            .filteredOn(violation -> violation.message().startsWith("## heading"))
+            .singleElement()
+            .extracting(MdcStructureValidator.Violation::line)
+            .isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Should require Maven commands in the Safeguards of Maven rules")
+    void should_reportMissingMavenCommand_when_mavenRuleHasNone() {
+        // When
+        List<MdcStructureValidator.Violation> violations = validator.validate("110-java-maven-sample", VALID_RULE);
+
+        // Then
+        assertThat(violations).singleElement()
+            .extracting(MdcStructureValidator.Violation::message)
+            .isEqualTo("Maven-related rule should contain Maven commands in Safeguards");
+    }
+
+    @Test
+    @DisplayName("Should validate files in parallel and report violations in file order")
+    void should_validateAllFiles_when_validatingSeveralFiles() throws IOException {
+        // Given
+        Path valid = Files.writeString(tempDir.resolve("valid.md"), VALID_RULE);
+        Path empty = Files.writeString(tempDir.resolve("empty.md"), "");
+        Path untitled = Files.writeString(tempDir.resolve("untitled.md"), VALID_RULE.replace("# Sample rule", ""));
+
+        // When
+        List<MdcStructureValidator.Violation> violations = validator.validateAll(List.of(valid, empty, untitled));
+
+        // Then
+        assertThat(violations).extracting(MdcStructureValidator.Violation::baseName)
+            .containsSubsequence("empty", "untitled")
+            .doesNotContain("valid");
+        assertThat(violations).last().hasToString("untitled: should have a main title (# heading)");
+    }
+
+    @Test
+    @DisplayName("Should fail a batch rule whose content breaks the structure")
+    void should_throwException_when_failingFastOnInvalidStructure() throws IOException {
+        // Given
+        Files.copy(Path.of("src/main/resources/cursor-rules.xsl"), tempDir.resolve("cursor-rules.xsl"));
+        Files.writeString(tempDir.resolve("sample.xml"), "<prompt><metadata><title>Sample</title></metadata></prompt>");
+        CursorRulesGenerator generator = CursorRulesGenerator.builder()
+            .resourceProvider(ResourceProvider.directory(tempDir))
+            .build();
+        BatchOptions options = BatchOptions.defaults()
+            .withFailureMode(BatchOptions.FailureMode.FAIL_FAST)
+            .withStructureValidation();
+
+        // When & Then
+        assertThatThrownBy(() -> generator.generateAll(List.of("sample"), "cursor-rules.xsl", options))
+            .isInstanceOf(RuntimeException.class)
+            .hasMessageContaining("sample.xml")
+            .cause()
+            .isInstanceOf(MdcStructureException.class)
+            .hasMessageContaining("should have a ## Goal section");
+    }
+}
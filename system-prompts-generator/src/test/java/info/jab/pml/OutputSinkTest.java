@@ -0,0 +1,129 @@
+package info.jab.pml;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Output Sink Tests")
+class OutputSinkTest {
+
+    private static final FileTime EARLIER = FileTime.from(Instant.parse("2024-01-01T00:00:00Z"));
+
+    @TempDir
+    Path tempDir;
+
+    private final OutputSink sink = new OutputSink();
+
+    @Test
+    @DisplayName("Should write a missing file, creating its directories")
+    void should_writeFile_when_fileIsMissing() throws IOException {
+        // Given
+        Path file = tempDir.resolve("rules/126-java-logging.md");
+
+        // When
+        OutputSink.Outcome outcome = sink.write(file, "# Logging ✓");
+
+        // Then
+        assertThat(outcome).isEqualTo(OutputSink.Outcome.WRITTEN);
+        assertThat(Files.readString(file)).isEqualTo("# Logging ✓");
+        assertThat(sink.written()).isEqualTo(1);
+        assertThat(sink.unchanged()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should leave a file with identical content untouched")
+    void should_skipWrite_when_contentUnchanged() throws IOException {
+        // Given
+        Path file = Files.writeString(tempDir.resolve("rule.md"), "# Logging");
+        Files.setLastModifiedTime(file, EARLIER);
+
+        // When
+        OutputSink.Outcome outcome = sink.write(file, "# Logging");
+
+        // Then
+        assertThat(outcome).isEqualTo(OutputSink.Outcome.UNCHANGED);
+        assertThat(Files.getLastModifiedTime(file)).isEqualTo(EARLIER);
+        assertThat(sink.written()).isZero();
+        assertThat(sink.unchanged()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should rewrite a file whose content differs but has the same size")
+    void should_writeFile_when_contentDiffersWithSameSize() throws IOException {
+        // Given
+        Path file = Files.writeString(tempDir.resolve("rule.md"), "# Logging");
+
+        // When
+        OutputSink.Outcome outcome = sink.write(file, "# Loggin!");
+
+        // Then
+        assertThat(outcome).isEqualTo(OutputSink.Outcome.WRITTEN);
+        assertThat(Files.readString(file)).isEqualTo("# Loggin!");
+    }
+
+    @Test
+    @DisplayName("Should leave a file untouched when streamed content is identical")
+    void should_skipWrite_when_streamedContentUnchanged() throws IOException {
+        // Given
+        Path file = Files.writeString(tempDir.resolve("rule.md"), "# Logging ✓");
+        Files.setLastModifiedTime(file, EARLIER);
+
+        // When
+        OutputSink.Outcome outcome = sink.write(file, writer -> writer.write("# Logging ✓"));
+
+        // Then
+        assertThat(outcome).isEqualTo(OutputSink.Outcome.UNCHANGED);
+        assertThat(Files.getLastModifiedTime(file)).isEqualTo(EARLIER);
+        assertThat(sink.unchanged()).isEqualTo(1);
+        assertThat(files()).containsExactly(file);
+    }
+
+    @Test
+    @DisplayName("Should replace a file with streamed content that differs")
+    void should_replaceFile_when_streamedContentDiffers() throws IOException {
+        // Given
+        Path file = Files.writeString(tempDir.resolve("rule.md"), "# Logging");
+
+        // When
+        OutputSink.Outcome outcome = sink.write(file, writer -> writer.write("# Loggin!"));
+
+        // Then
+        assertThat(outcome).isEqualTo(OutputSink.Outcome.WRITTEN);
+        assertThat(file).hasContent("# Loggin!");
+        assertThat(sink.written()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should keep the existing file and delete the temporary file when streaming fails")
+    void should_keepFile_when_streamingFails() throws IOException {
+        // Given
+        Path file = Files.writeString(tempDir.resolve("rule.md"), "# Logging");
+
+        // When & Then
+        assertThatThrownBy(() -> sink.write(file, writer -> {
+            writer.write("# Half a rul");
+            throw new UncheckedIOException(new IOException("render failed"));
+        })).isInstanceOf(UncheckedIOException.class);
+        assertThat(file).hasContent("# Logging");
+        assertThat(files()).containsExactly(file);
+        assertThat(sink.written()).isZero();
+        assertThat(sink.unchanged()).isZero();
+    }
+
+    private List<Path> files() throws IOException {
+        try (Stream<Path> files = Files.list(tempDir)) {
+            return files.toList();
+        }
+    }
+}
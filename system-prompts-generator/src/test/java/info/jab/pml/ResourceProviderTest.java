@@ -0,0 +1,69 @@
+package info.jab.pml;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Resource Provider Tests")
+class ResourceProviderTest {
+
+    private static final Path RESOURCES = Path.of("src/main/resources");
+
+    @Test
+    @DisplayName("Should resolve the classpath base URI to the main classes directory")
+    void should_pointToMainClasses_when_resolvingClasspathBaseUri() {
+        // When
+        String baseUri = ResourceProvider.classpath().baseUri();
+
+        // Then
+        assertThat(baseUri).endsWith("/classes/").doesNotContain("test-classes");
+        assertThat(ResourceProvider.classpath().baseUri()).isSameAs(baseUri);
+        assertThat(Path.of(URI.create(baseUri)).resolve("fragments")).isDirectory();
+    }
+
+    @Test
+    @DisplayName("Should generate a rule with XIncludes from in-memory sources as from the classpath")
+    void should_generateIdenticalContent_when_readingFromMemory() throws IOException {
+        // Given
+        ResourceProvider inMemory = ResourceProvider.inMemory(Map.of(
+            "112-java-maven-plugins.xml", read("112-java-maven-plugins.xml"),
+            "cursor-rules.xsl", read("cursor-rules.xsl"),
+            "fragments/java-maven-plugins-questions-template.md", read("fragments/java-maven-plugins-questions-template.md"),
+            "fragments/java-maven-properties-template.md", read("fragments/java-maven-properties-template.md")));
+        CursorRulesGenerator generator = CursorRulesGenerator.builder().resourceProvider(inMemory).build();
+
+        // When
+        String content = generator.generate("112-java-maven-plugins.xml", "cursor-rules.xsl");
+
+        // Then
+        assertThat(inMemory.baseUri()).isEqualTo("memory:/");
+        assertThat(content).isEqualTo(new CursorRulesGenerator().generate("112-java-maven-plugins.xml", "cursor-rules.xsl"));
+    }
+
+    @Test
+    @DisplayName("Should fail when an in-memory rule includes a missing fragment")
+    void should_throwException_when_inMemoryFragmentIsMissing() throws IOException {
+        // Given
+        ResourceProvider inMemory = ResourceProvider.inMemory(Map.of(
+            "112-java-maven-plugins.xml", read("112-java-maven-plugins.xml"),
+            "cursor-rules.xsl", read("cursor-rules.xsl")));
+        CursorRulesGenerator generator = CursorRulesGenerator.builder().resourceProvider(inMemory).build();
+
+        // When & Then
+        assertThatThrownBy(() -> generator.generate("112-java-maven-plugins.xml", "cursor-rules.xsl"))
+            .isInstanceOf(RuntimeException.class)
+            .rootCause()
+            .hasMessageContaining("In-memory resource not found: fragments/java-maven-plugins-questions-template.md");
+    }
+
+    private static String read(String name) throws IOException {
+        return Files.readString(RESOURCES.resolve(name));
+    }
+}
@@ -0,0 +1,111 @@
+package info.jab.pml;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import javax.xml.transform.stream.StreamSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Rule Schema Validator Tests")
+class RuleSchemaValidatorTest {
+
+    private static final String INVALID_RULE = """
+        <prompt>
+            <metadata><title>Sample</title></metadata>
+            <goal>Review code.</goal>
+            <safeguards><safeguards-list/></safeguards>
+        </prompt>
+        """;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should validate every rule against the bundled schema without network access")
+    void should_returnNoViolations_when_validatingInventory() {
+        // Given
+        List<String> xmlFileNames = SystemPromptsInventory.xmlFilenames().toList();
+
+        // When
+        List<RuleSchemaValidator.Violation> violations =
+            RuleSchemaValidator.bundled().validateAll(xmlFileNames, ResourceProvider.classpath());
+
+        // Then
+        assertThat(violations).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should report every violation of a rule with its location")
+    void should_reportAllViolations_when_ruleIsInvalid() {
+        // When
+        List<RuleSchemaValidator.Violation> violations = RuleSchemaValidator.bundled()
+            .validate("sample.xml", new StreamSource(new StringReader(INVALID_RULE)));
+
+        // Then
+        assertThat(violations).hasSize(2).allSatisfy(violation -> {
+            assertThat(violation.xmlFileName()).isEqualTo("sample.xml");
+            assertThat(violation.line()).isPositive();
+        });
+        assertThat(violations.get(0).message()).contains("goal").contains("role");
+        assertThat(violations.get(1).message()).contains("safeguards-list").contains("safeguards-item");
+    }
+
+    @Test
+    @DisplayName("Should report a malformed or missing rule as a violation")
+    void should_reportViolation_when_ruleIsMalformedOrMissing() throws IOException {
+        // Given
+        Files.writeString(tempDir.resolve("malformed.xml"), "<prompt><metadata>");
+
+        // When
+        List<RuleSchemaValidator.Violation> violations = RuleSchemaValidator.bundled()
+            .validateAll(List.of("malformed.xml", "missing.xml"), ResourceProvider.directory(tempDir));
+
+        // Then
+        assertThat(violations).extracting(RuleSchemaValidator.Violation::xmlFileName)
+            .containsExactly("malformed.xml", "missing.xml");
+        assertThat(violations.get(1).message()).isEqualTo("Rule not found");
+    }
+
+    @Test
+    @DisplayName("Should generate rules unchanged when validating them after XInclude resolution")
+    void should_generateIdenticalContent_when_schemaValidationEnabled() {
+        // Given
+        CursorRulesGenerator validating = CursorRulesGenerator.builder()
+            .schemaValidator(RuleSchemaValidator.bundled())
+            .build();
+        List<String> baseNames = SystemPromptsInventory.baseNames().toList();
+
+        // When
+        BatchGenerationResult batch = validating.generateAll(baseNames, "cursor-rules.xsl");
+
+        // Then
+        assertThat(batch.failures()).isEmpty();
+        assertThat(batch.successes()).allSatisfy(result -> assertThat(result.content())
+            .isEqualTo(new CursorRulesGenerator().generate(result.baseName() + ".xml", "cursor-rules.xsl")));
+    }
+
+    @Test
+    @DisplayName("Should fail generation of a rule that does not conform to the schema")
+    void should_throwException_when_generatingInvalidRule() throws IOException {
+        // Given
+        Files.copy(Path.of("src/main/resources/cursor-rules.xsl"), tempDir.resolve("cursor-rules.xsl"));
+        Files.writeString(tempDir.resolve("sample.xml"), INVALID_RULE);
+        CursorRulesGenerator generator = CursorRulesGenerator.builder()
+            .resourceProvider(ResourceProvider.directory(tempDir))
+            .schemaValidator(RuleSchemaValidator.bundled())
+            .build();
+
+        // When & Then
+        assertThatThrownBy(() -> generator.generate("sample.xml", "cursor-rules.xsl"))
+            .isInstanceOf(RuntimeException.class)
+            .hasMessageContaining("Rule does not conform to the schema: sample.xml")
+            .hasMessageContaining("safeguards-item");
+    }
+}
@@ -0,0 +1,186 @@
+package info.jab.pml;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Rule Server Tests")
+class RuleServerTest {
+
+    private static final String XSL = "cursor-rules.xsl";
+    private static final String FRAGMENT = "fragments/java-maven-documentation-template.md";
+    private static final String RULE = "113-java-maven-documentation";
+    private static final Path RESOURCES = Path.of("src/main/resources");
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private RuleServer server;
+
+    @TempDir
+    Path sourceDirectory;
+
+    @BeforeEach
+    void startServer() {
+        server = new RuleServer(new CursorRulesGenerator(), XSL, new InetSocketAddress("localhost", 0));
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.close();
+        client.close();
+    }
+
+    @Test
+    @DisplayName("Should serve a rendered rule with an ETag")
+    void should_serveRule_when_ruleExists() throws Exception {
+        // When
+        HttpResponse<String> response = get("/rules/126-java-logging", null);
+
+        // Then
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).isEqualTo(new CursorRulesGenerator().generate("126-java-logging.xml", "cursor-rules.xsl"));
+        assertThat(response.headers().firstValue("Content-Type")).hasValue("text/markdown; charset=utf-8");
+        assertThat(response.headers().firstValue("ETag")).hasValueSatisfying(etag -> assertThat(etag).matches("\"[0-9a-f]{64}\""));
+        assertThat(get("/rules/126-java-logging.md", null).body()).isEqualTo(response.body());
+    }
+
+    @Test
+    @DisplayName("Should answer Not Modified when the client already has the current render")
+    void should_returnNotModified_when_etagMatches() throws Exception {
+        // Given
+        String etag = get("/rules/171-java-diagrams", null).headers().firstValue("ETag").orElseThrow();
+
+        // When
+        HttpResponse<String> response = get("/rules/171-java-diagrams", etag);
+
+        // Then
+        assertThat(response.statusCode()).isEqualTo(304);
+        assertThat(response.body()).isEmpty();
+        assertThat(response.headers().firstValue("ETag")).hasValue(etag);
+    }
+
+    @Test
+    @DisplayName("Should answer Not Found for an unknown or malformed rule name")
+    void should_returnNotFound_when_ruleDoesNotExist() throws Exception {
+        // When & Then
+        assertThat(get("/rules/non-existent", null).statusCode()).isEqualTo(404);
+        assertThat(get("/rules/..%2Fpom", null).statusCode()).isEqualTo(404);
+        assertThat(get("/rules/", null).statusCode()).isEqualTo(404);
+    }
+
+    @Test
+    @DisplayName("Should reject methods other than GET and HEAD")
+    void should_returnMethodNotAllowed_when_posting() throws Exception {
+        // Given
+        HttpRequest request = HttpRequest.newBuilder(uri("/rules/126-java-logging"))
+            .POST(HttpRequest.BodyPublishers.noBody())
+            .build();
+
+        // When
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+
+        // Then
+        assertThat(response.statusCode()).isEqualTo(405);
+        assertThat(response.headers().firstValue("Allow")).hasValue("GET, HEAD");
+    }
+
+    @Test
+    @DisplayName("Should render edited sources again with a new ETag once invalidated")
+    void should_serveEditedFragment_when_invalidated() throws Exception {
+        // Given
+        serveFromSourceDirectory();
+        String etag = get("/rules/" + RULE, null).headers().firstValue("ETag").orElseThrow();
+        Files.writeString(sourceDirectory.resolve(FRAGMENT), "\nEdited fragment marker\n", StandardOpenOption.APPEND);
+
+        // When
+        server.invalidateAll();
+        HttpResponse<String> response = get("/rules/" + RULE, etag);
+
+        // Then
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).contains("Edited fragment marker");
+        assertThat(response.headers().firstValue("ETag")).isPresent().get().isNotEqualTo(etag);
+    }
+
+    @Test
+    @DisplayName("Should serve edited sources once saved when watching the source directory")
+    void should_serveEditedFragment_when_sourceDirectoryWatched() throws Exception {
+        // Given
+        serveFromSourceDirectory();
+        server.invalidateOnChange(sourceDirectory);
+        assertThat(get("/rules/" + RULE, null).body()).doesNotContain("Edited fragment marker");
+
+        // When
+        Files.writeString(sourceDirectory.resolve(FRAGMENT), "\nEdited fragment marker\n", StandardOpenOption.APPEND);
+
+        // Then
+        Instant deadline = Instant.now().plus(Duration.ofSeconds(10));
+        String body = get("/rules/" + RULE, null).body();
+        while (!body.contains("Edited fragment marker") && Instant.now().isBefore(deadline)) {
+            Thread.sleep(50);
+            body = get("/rules/" + RULE, null).body();
+        }
+        assertThat(body).contains("Edited fragment marker");
+    }
+
+    @Test
+    @DisplayName("Should keep the JVM-wide caches of other generators when invalidated")
+    void should_keepSharedCaches_when_invalidated() throws Exception {
+        // Given
+        new CursorRulesGenerator().generate(RULE + ".xml", XSL);
+        get("/rules/" + RULE, null);
+        int sharedStylesheets = TemplatesCache.shared().size();
+        int sharedFragments = FragmentCache.shared().size();
+
+        // When
+        server.invalidateAll();
+
+        // Then
+        assertThat(sharedStylesheets).isPositive();
+        assertThat(sharedFragments).isPositive();
+        assertThat(TemplatesCache.shared().size()).isEqualTo(sharedStylesheets);
+        assertThat(FragmentCache.shared().size()).isEqualTo(sharedFragments);
+    }
+
+    private void serveFromSourceDirectory() throws IOException {
+        Files.createDirectories(sourceDirectory.resolve("fragments"));
+        for (String resource : List.of(XSL, FRAGMENT, RULE + ".xml")) {
+            Files.copy(RESOURCES.resolve(resource), sourceDirectory.resolve(resource));
+        }
+        server.close();
+        CursorRulesGenerator generator = CursorRulesGenerator.builder()
+            .resourceProvider(ResourceProvider.directory(sourceDirectory))
+            .build();
+        server = new RuleServer(generator, XSL, new InetSocketAddress("localhost", 0));
+        server.start();
+    }
+
+    private HttpResponse<String> get(String path, String ifNoneMatch) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri(path)).GET();
+        if (Objects.nonNull(ifNoneMatch)) {
+            request.header("If-None-Match", ifNoneMatch);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + server.port() + path);
+    }
+}
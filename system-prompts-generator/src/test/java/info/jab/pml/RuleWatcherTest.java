@@ -0,0 +1,117 @@
+package info.jab.pml;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Rule Watcher Tests")
+class RuleWatcherTest {
+
+    private static final String XSL = "cursor-rules.xsl";
+    private static final String FRAGMENT = "fragments/java-maven-documentation-template.md";
+    private static final String RULE_WITH_FRAGMENT = "113-java-maven-documentation";
+    private static final String RULE_WITHOUT_FRAGMENT = "behaviour-consultative-interaction";
+    private static final Path RESOURCES = Path.of("src/main/resources");
+
+    @TempDir
+    Path sourceDirectory;
+
+    @TempDir
+    Path outputDirectory;
+
+    @BeforeEach
+    void copySources() throws IOException {
+        Files.createDirectories(sourceDirectory.resolve("fragments"));
+        for (String resource : List.of(XSL, FRAGMENT, RULE_WITH_FRAGMENT + ".xml", RULE_WITHOUT_FRAGMENT + ".xml")) {
+            Files.copy(RESOURCES.resolve(resource), sourceDirectory.resolve(resource));
+        }
+    }
+
+    @Test
+    @DisplayName("Should generate every rule in the source directory as the classpath generator does")
+    void should_generateEveryRule_when_generatingAll() throws IOException {
+        // Given
+        RuleWatcher watcher = new RuleWatcher(sourceDirectory, outputDirectory, XSL, batch -> { });
+
+        // When
+        BatchGenerationResult result = watcher.generateAll();
+
+        // Then
+        assertThat(result.hasFailures()).isFalse();
+        assertThat(result.results()).extracting(GenerationResult::baseName)
+            .containsExactly(RULE_WITH_FRAGMENT, RULE_WITHOUT_FRAGMENT);
+        assertThat(Files.readString(outputDirectory.resolve(RULE_WITH_FRAGMENT + ".md")))
+            .isEqualTo(new CursorRulesGenerator().generate(RULE_WITH_FRAGMENT + ".xml", XSL));
+    }
+
+    @Test
+    @DisplayName("Should regenerate only rules including a changed fragment, with the new content")
+    void should_regenerateDependentRulesOnly_when_fragmentChanges() throws IOException {
+        // Given
+        RuleWatcher watcher = new RuleWatcher(sourceDirectory, outputDirectory, XSL, batch -> { });
+        watcher.generateAll();
+
+        // When
+        Files.writeString(sourceDirectory.resolve(FRAGMENT), "\nEdited fragment marker\n", StandardOpenOption.APPEND);
+        BatchGenerationResult result = watcher.refresh(Set.of(FRAGMENT));
+
+        // Then
+        assertThat(result.results()).extracting(GenerationResult::baseName).containsExactly(RULE_WITH_FRAGMENT);
+        assertThat(outputDirectory.resolve(RULE_WITH_FRAGMENT + ".md")).content().contains("Edited fragment marker");
+    }
+
+    @Test
+    @DisplayName("Should recompile the stylesheet and regenerate every rule when the stylesheet changes")
+    void should_regenerateAllRules_when_stylesheetChanges() throws IOException {
+        // Given
+        RuleWatcher watcher = new RuleWatcher(sourceDirectory, outputDirectory, XSL, batch -> { });
+        watcher.generateAll();
+
+        // When
+        Path stylesheet = sourceDirectory.resolve(XSL);
+        Files.writeString(stylesheet, Files.readString(stylesheet)
+            .replace("<xsl:text>---</xsl:text>", "<xsl:text>+++</xsl:text>"));
+        BatchGenerationResult result = watcher.refresh(Set.of(XSL));
+
+        // Then
+        assertThat(result.results()).extracting(GenerationResult::baseName)
+            .containsExactly(RULE_WITH_FRAGMENT, RULE_WITHOUT_FRAGMENT);
+        assertThat(outputDirectory.resolve(RULE_WITHOUT_FRAGMENT + ".md")).content().startsWith("+++");
+    }
+
+    @Test
+    @DisplayName("Should regenerate a rule within the watch loop after it is saved")
+    void should_regenerateRule_when_savedWhileRunning() throws Exception {
+        // Given
+        BlockingQueue<BatchGenerationResult> results = new LinkedBlockingQueue<>();
+        RuleWatcher watcher = new RuleWatcher(sourceDirectory, outputDirectory, XSL, results::add);
+        Thread thread = Thread.ofVirtual().start(watcher::run);
+        assertThat(results.poll(30, TimeUnit.SECONDS)).isNotNull();
+
+        try {
+            // When
+            Files.writeString(sourceDirectory.resolve(FRAGMENT), "\nSaved while watching\n", StandardOpenOption.APPEND);
+            BatchGenerationResult result = results.poll(30, TimeUnit.SECONDS);
+
+            // Then
+            assertThat(result).isNotNull();
+            assertThat(result.results()).extracting(GenerationResult::baseName).containsExactly(RULE_WITH_FRAGMENT);
+            assertThat(outputDirectory.resolve(RULE_WITH_FRAGMENT + ".md")).content().contains("Saved while watching");
+        } finally {
+            watcher.close();
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package info.jab.pml;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+import javax.xml.transform.Templates;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Templates Cache Tests")
+class TemplatesCacheTest {
+
+    @Test
+    @DisplayName("Should compile stylesheet once and reuse it")
+    void should_returnSameTemplates_when_stylesheetRequestedTwice() {
+        // Given
+        TemplatesCache cache = new TemplatesCache();
+
+        // When
+        Templates first = cache.get("cursor-rules.xsl").orElseThrow();
+        Templates second = cache.get("cursor-rules.xsl").orElseThrow();
+
+        // Then
+        assertThat(second).isSameAs(first);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should recompile stylesheet after invalidation")
+    void should_recompileStylesheet_when_invalidated() {
+        // Given
+        TemplatesCache cache = new TemplatesCache();
+        Templates before = cache.get("cursor-rules.xsl").orElseThrow();
+
+        // When
+        cache.invalidate("cursor-rules.xsl");
+        Templates after = cache.get("cursor-rules.xsl").orElseThrow();
+
+        // Then
+        assertThat(after).isNotSameAs(before);
+    }
+
+    @Test
+    @DisplayName("Should return empty and cache nothing when stylesheet does not exist")
+    void should_returnEmpty_when_stylesheetDoesNotExist() {
+        // Given
+        TemplatesCache cache = new TemplatesCache();
+
+        // When
+        Optional<Templates> templates = cache.get("non-existent.xsl");
+
+        // Then
+        assertThat(templates).isEmpty();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should hand out a single compiled stylesheet to concurrent callers")
+    void should_shareTemplates_when_accessedConcurrently() throws Exception {
+        // Given
+        TemplatesCache cache = new TemplatesCache();
+        Callable<Templates> lookup = () -> cache.get("cursor-rules.xsl").orElseThrow();
+        List<Callable<Templates>> lookups = IntStream.range(0, 16).mapToObj(i -> lookup).toList();
+
+        // When
+        List<Future<Templates>> results;
+        try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+            results = executor.invokeAll(lookups);
+        }
+
+        // Then
+        Templates expected = results.getFirst().get();
+        for (Future<Templates> result : results) {
+            assertThat(result.get()).isSameAs(expected);
+        }
+    }
+}
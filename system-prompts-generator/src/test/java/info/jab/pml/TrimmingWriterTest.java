@@ -0,0 +1,66 @@
+package info.jab.pml;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Trimming Writer Tests")
+class TrimmingWriterTest {
+
+    private static Stream<Arguments> provideChunks() {
+        return Stream.of(
+            Arguments.of(List.of("  \n---\nbody\n\n  ")),
+            Arguments.of(List.of("\n", " ", "---", "\n", "\n", "body", "\n\n")),
+            Arguments.of(List.of("---\n", "\n", "## Role\n\n", "text", "   ", "\n")),
+            Arguments.of(List.of(" ", "\t", "\n")),
+            Arguments.of(List.of("no whitespace"))
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideChunks")
+    @DisplayName("Should produce the same content as String.trim regardless of chunking")
+    void should_matchStringTrim_when_contentWrittenInChunks(List<String> chunks) throws IOException {
+        // Given
+        StringWriter target = new StringWriter();
+        TrimmingWriter writer = new TrimmingWriter(target);
+
+        // When
+        for (String chunk : chunks) {
+            writer.write(chunk);
+        }
+        writer.flush();
+
+        // Then
+        assertThat(target.toString()).isEqualTo(String.join("", chunks).trim());
+    }
+
+    @Test
+    @DisplayName("Should write only the requested slice of a string longer than its buffer, and single characters")
+    void should_writeSlice_when_stringWrittenWithOffsetAndSingleCharacters() throws IOException {
+        // Given
+        StringWriter target = new StringWriter();
+        TrimmingWriter writer = new TrimmingWriter(target);
+        String body = "línea € \uD83D\uDE00\n".repeat(500);
+        String text = "skipped" + "  " + body + "  " + "skipped";
+
+        // When
+        writer.write(text, "skipped".length(), text.length() - 2 * "skipped".length());
+        writer.write('x');
+        writer.write(' ');
+        writer.flush();
+
+        // Then
+        assertThat(target.toString()).isEqualTo(body + "  x");
+        assertThat(writer.writtenBytes()).isEqualTo(body.getBytes(StandardCharsets.UTF_8).length + 3);
+    }
+}
@@ -0,0 +1,78 @@
+package info.jab.pml;
+
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("XSLT Engine Tests")
+class XsltEngineTest {
+
+    @AfterEach
+    void clearProperty() {
+        System.clearProperty(XsltEngine.PROPERTY);
+    }
+
+    @Test
+    @DisplayName("Should default to the JDK engine when no engine is configured")
+    void should_returnJdk_when_propertyUnset() {
+        // When
+        XsltEngine engine = XsltEngine.configured();
+
+        // Then
+        assertThat(engine).isEqualTo(XsltEngine.JDK);
+        assertThat(engine.newTransformerFactory().getClass().getName()).startsWith("com.sun.org.apache.xalan");
+    }
+
+    @Test
+    @DisplayName("Should select the engine named by the system property, ignoring case")
+    void should_returnSaxon_when_propertySetToSaxon() {
+        // Given
+        System.setProperty(XsltEngine.PROPERTY, "Saxon");
+
+        // When
+        XsltEngine engine = XsltEngine.configured();
+
+        // Then
+        assertThat(engine).isEqualTo(XsltEngine.SAXON);
+        assertThat(engine.newTransformerFactory().getClass().getName()).isEqualTo("net.sf.saxon.TransformerFactoryImpl");
+    }
+
+    @Test
+    @DisplayName("Should reject an unknown engine name")
+    void should_throwException_when_propertyNamesUnknownEngine() {
+        // Given
+        System.setProperty(XsltEngine.PROPERTY, "xalan");
+
+        // When & Then
+        assertThatThrownBy(XsltEngine::configured)
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("xalan")
+            .hasMessageContaining("[jdk, saxon]");
+    }
+
+    @ParameterizedTest
+    @MethodSource("baseNames")
+    @DisplayName("Should generate the same rule with Saxon-HE as with the JDK engine")
+    void should_generateIdenticalContent_when_usingSaxon(String baseName) {
+        // Given
+        CursorRulesGenerator jdk = CursorRulesGenerator.builder().xsltEngine(XsltEngine.JDK).build();
+        CursorRulesGenerator saxon = CursorRulesGenerator.builder().xsltEngine(XsltEngine.SAXON).build();
+
+        // When
+        String expected = jdk.generate(baseName + ".xml", "cursor-rules.xsl");
+        String actual = saxon.generate(baseName + ".xml", "cursor-rules.xsl");
+
+        // Then
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    private static Stream<String> baseNames() {
+        return SystemPromptsInventory.baseNames();
+    }
+}